@@ -2,6 +2,7 @@ plugins {
     java
     id("org.springframework.boot") version "3.5.11"
     id("io.spring.dependency-management") version "1.1.7"
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "com.vaas"
@@ -53,4 +54,36 @@ dependencies {
 
 tasks.withType<Test> {
     useJUnitPlatform()
-}
\ No newline at end of file
+}
+
+// Benchmarks de carga (tag "load") exigem Docker e minutos de execução: ficam fora do build padrão
+tasks.test {
+    useJUnitPlatform {
+        excludeTags("load")
+    }
+}
+
+tasks.register<Test>("loadTest") {
+    description = "Compara vazão e p99 do POST /execute entre threads de plataforma e virtual threads."
+    group = "verification"
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("load")
+    }
+    // Reporta virtual threads fixadas ao carrier durante operações bloqueantes
+    jvmArgs("-Djdk.tracePinnedThreads=short")
+    System.getProperties().stringPropertyNames()
+        .filter { it.startsWith("load.") }
+        .forEach { systemProperty(it, System.getProperty(it)) }
+    testLogging {
+        showStandardStreams = true
+    }
+    outputs.upToDateWhen { false }
+}
+
+jmh {
+    warmupIterations = 3
+    iterations = 5
+    fork = 1
+}
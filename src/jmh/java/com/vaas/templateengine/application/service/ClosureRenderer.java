@@ -0,0 +1,98 @@
+package com.vaas.templateengine.application.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Forma anterior da árvore especializada: cada segmento convertido em um passo (closure) com os literais como
+ * constantes. Mantida apenas como base de comparação do {@link SpecializedRendererBenchmark}, com a mesma
+ * semântica (orçamento, interrupção, sanitização) da árvore de MethodHandles do {@link SpecializedRenderer}.
+ */
+final class ClosureRenderer {
+
+    private final Step[] steps;
+    private final int literalLength;
+
+    private ClosureRenderer(Step[] steps, int literalLength) {
+        this.steps = steps;
+        this.literalLength = literalLength;
+    }
+
+    static ClosureRenderer of(List<CompiledTemplate.Segment> segments, int literalLength) {
+        return new ClosureRenderer(steps(segments), literalLength);
+    }
+
+    String render(RenderContext context, boolean escapeHtml) {
+        StringBuilder out = new StringBuilder(literalLength + 64);
+        try {
+            append(steps, out, context, escapeHtml, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    private static Step[] steps(List<CompiledTemplate.Segment> segments) {
+        Step[] steps = new Step[segments.size()];
+        for (int i = 0; i < steps.length; i++) {
+            steps[i] = step(segments.get(i));
+        }
+        return steps;
+    }
+
+    private static Step step(CompiledTemplate.Segment segment) {
+        return switch (segment) {
+            case CompiledTemplate.Literal literal -> new LiteralStep(literal.text());
+            case CompiledTemplate.Placeholder placeholder -> (out, context, escapeHtml, item) -> {
+                String text = placeholder.text(context, item);
+                context.consumeOutput(text.length());
+                if (escapeHtml) {
+                    HtmlEscaper.escape(text, out);
+                } else {
+                    out.append(text);
+                }
+            };
+            case CompiledTemplate.Each each -> {
+                VariablePath path = each.path();
+                Step[] body = steps(each.body());
+                yield (out, context, escapeHtml, item) -> {
+                    for (Object element : context.iterable(path, item)) {
+                        context.consumeIteration();
+                        if (context.halted()) {
+                            return;
+                        }
+                        append(body, out, context, escapeHtml, element);
+                    }
+                };
+            }
+            case CompiledTemplate.Conditional conditional -> {
+                VariablePath path = conditional.path();
+                Step[] whenTrue = steps(conditional.whenTrue());
+                Step[] whenFalse = steps(conditional.whenFalse());
+                yield (out, context, escapeHtml, item) -> append(
+                        CompiledTemplate.isTruthy(context.resolve(path, item)) ? whenTrue : whenFalse, out, context, escapeHtml, item);
+            }
+        };
+    }
+
+    private static void append(Step[] steps, StringBuilder out, RenderContext context, boolean escapeHtml, Object item) throws IOException {
+        for (int i = 0; i < steps.length && !context.halted(); i++) {
+            steps[i].append(out, context, escapeHtml, item);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        void append(StringBuilder out, RenderContext context, boolean escapeHtml, Object item) throws IOException;
+    }
+
+    private record LiteralStep(String text) implements Step {
+
+        @Override
+        public void append(StringBuilder out, RenderContext context, boolean escapeHtml, Object item) {
+            context.consumeOutput(text.length());
+            out.append(text);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.vaas.templateengine.application.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.web.util.HtmlUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Comparativo entre o caminho legado baseado em expressão regular e o template pré-compilado.
+ * Execução: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RenderEngineBenchmark {
+
+    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\{\\{(.+?)\\}\\}");
+
+    @Param({"5", "50"})
+    private int placeholders;
+
+    @Param({"true", "false"})
+    private boolean escapeHtml;
+
+    private final RenderEngine renderEngine = new RenderEngine();
+    private String content;
+    private Map<String, Object> variables;
+    private CompiledTemplate compiled;
+
+    @Setup
+    public void setUp() {
+        StringBuilder body = new StringBuilder("<html><body>");
+        variables = new HashMap<>();
+        for (int i = 0; i < placeholders; i++) {
+            body.append("<p>Linha estática de conteúdo número ").append(i).append(": {{var").append(i).append("}}</p>");
+            variables.put("var" + i, "valor <" + i + ">");
+        }
+        content = body.append("</body></html>").toString();
+        compiled = renderEngine.compile("benchmark-version", content);
+    }
+
+    @Benchmark
+    public String legacyRegex() {
+        return renderWithRegex(content, variables, escapeHtml);
+    }
+
+    @Benchmark
+    public String compiled() {
+        return renderEngine.renderCompiled(renderEngine.compile("benchmark-version", content), variables, escapeHtml);
+    }
+
+    @Benchmark
+    public String compiledPreResolved() {
+        return renderEngine.renderCompiled(compiled, variables, escapeHtml);
+    }
+
+    @Benchmark
+    public byte[] compiledThenEncoded() {
+        return renderEngine.renderCompiled(compiled, variables, escapeHtml).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public int compiledUtf8(Utf8State state) {
+        state.buffer.clear();
+        renderEngine.renderUtf8(compiled, variables, escapeHtml, state.buffer);
+        return state.buffer.size();
+    }
+
+    /**
+     * Buffer reutilizado por thread de benchmark, como um worker faria em produção.
+     */
+    @State(Scope.Thread)
+    public static class Utf8State {
+        final Utf8Buffer buffer = new Utf8Buffer(16_384);
+    }
+
+    /**
+     * Cópia fiel da implementação anterior, mantida apenas como linha de base do comparativo.
+     */
+    private static String renderWithRegex(String content, Map<String, Object> variables, boolean shouldEscapeHtml) {
+        StringBuilder sb = new StringBuilder();
+        Matcher matcher = PLACEHOLDER_PATTERN.matcher(content);
+
+        while (matcher.find()) {
+            String key = matcher.group(1).trim();
+            String stringValue = variables.get(key).toString();
+            String processedValue = shouldEscapeHtml ? HtmlUtils.htmlEscape(stringValue) : stringValue;
+            matcher.appendReplacement(sb, Matcher.quoteReplacement(processedValue));
+        }
+        matcher.appendTail(sb);
+
+        return sb.toString();
+    }
+}
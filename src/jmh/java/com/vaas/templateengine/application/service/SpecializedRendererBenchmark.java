@@ -0,0 +1,93 @@
+package com.vaas.templateengine.application.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Comparativo entre as formas de especialização de templates com seções: a árvore de MethodHandles do
+ * {@link SpecializedRenderer} e os passos em closures do {@link ClosureRenderer}. Ambos recebem a mesma árvore
+ * e o mesmo contexto; o custo de montagem fica fora da medição. Templates sem seções seguem o roteiro fixo,
+ * medido em TieredRenderBenchmark.
+ * Execução: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SpecializedRendererBenchmark {
+
+    @Param({"SECTIONS", "LIST", "NESTED"})
+    private Shape shape;
+
+    @Param({"true", "false"})
+    private boolean escapeHtml;
+
+    private Map<String, Object> variables;
+    private ClosureRenderer closures;
+    private SpecializedRenderer methodHandles;
+
+    public enum Shape {
+        /** E-mail transacional com blocos opcionais em seções condicionais. */
+        SECTIONS,
+        /** Laço {{#each}} de vinte itens com seção condicional. */
+        LIST,
+        /** Laços aninhados com condicionais, em que a árvore de passos é mais profunda. */
+        NESTED
+    }
+
+    @Setup
+    public void setUp() {
+        variables = new HashMap<>();
+        variables.put("nome", "Maria <Silva>");
+        variables.put("pedido", 123456);
+        variables.put("total", "R$ 1.234,56");
+
+        String content = switch (shape) {
+            case SECTIONS -> "<html><body><h1>Olá {{nome}}</h1>{{#if pedido}}<p>Seu pedido {{pedido}} foi confirmado.</p>{{/if}}"
+                    + "{{#if cupom}}<p>Cupom: {{cupom}}</p>{{else}}<p>Total: {{total}}</p>{{/if}}<p>Obrigado, {{nome}}!</p></body></html>";
+            case LIST -> {
+                variables.put("items", items(20));
+                yield "<ul>{{#each items}}<li>{{this.sku}} x{{this.qtd}}{{#if this.presente}} (presente){{/if}}</li>{{/each}}</ul>";
+            }
+            case NESTED -> {
+                List<Map<String, Object>> groups = new ArrayList<>();
+                for (int i = 0; i < 5; i++) {
+                    groups.add(Map.of("titulo", "Grupo " + i, "items", items(8)));
+                }
+                variables.put("grupos", groups);
+                yield "<h1>{{nome}}</h1>{{#each grupos}}<h2>{{this.titulo}}</h2><ul>{{#each this.items}}<li>{{this.sku}}"
+                        + "{{#if this.presente}} (presente){{else}} x{{this.qtd}}{{/if}}</li>{{/each}}</ul>{{/each}}"
+                        + "{{#if total}}<p>Total: {{total}}</p>{{/if}}";
+            }
+        };
+
+        CompiledTemplate template = CompiledTemplate.compile(content);
+        closures = ClosureRenderer.of(template.segments(), template.literalLength());
+        methodHandles = SpecializedRenderer.of(template.segments(), template.literalLength());
+        if (!closures().equals(methodHandles())) {
+            throw new IllegalStateException("As duas formas produziram saídas diferentes.");
+        }
+    }
+
+    @Benchmark
+    public String closures() {
+        return closures.render(new RenderContext(variables, RenderBudget.DEFAULT), escapeHtml);
+    }
+
+    @Benchmark
+    public String methodHandles() {
+        return methodHandles.render(new RenderContext(variables, RenderBudget.DEFAULT), escapeHtml);
+    }
+
+    private static List<Map<String, Object>> items(int count) {
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.add(Map.of("sku", "SKU-" + i, "qtd", i, "presente", i % 3 == 0));
+        }
+        return items;
+    }
+}
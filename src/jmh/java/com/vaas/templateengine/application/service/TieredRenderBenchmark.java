@@ -0,0 +1,94 @@
+package com.vaas.templateengine.application.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Comparativo em regime estacionário entre a forma interpretada e o renderizador especializado
+ * para formatos típicos de template.
+ * Execução: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TieredRenderBenchmark {
+
+    @Param({"SUBJECT", "TRANSACTIONAL", "WIDE", "LITERAL_HEAVY", "LIST"})
+    private Shape shape;
+
+    @Param({"true", "false"})
+    private boolean escapeHtml;
+
+    private final RenderEngine interpretedEngine = new RenderEngine(10, RenderBudget.DEFAULT, 0);
+    private final RenderEngine tieredEngine = new RenderEngine(10, RenderBudget.DEFAULT, 1);
+    private Map<String, Object> variables;
+    private CompiledTemplate interpreted;
+    private CompiledTemplate specialized;
+
+    public enum Shape {
+        /** Linha curta com duas variáveis, como um assunto de e-mail. */
+        SUBJECT,
+        /** E-mail transacional com poucas variáveis repetidas entre blocos estáticos. */
+        TRANSACTIONAL,
+        /** Cinquenta variáveis distintas intercaladas com literais curtos. */
+        WIDE,
+        /** Corpo extenso com apenas três variáveis. */
+        LITERAL_HEAVY,
+        /** Laço {{#each}} de vinte itens com seção condicional. */
+        LIST
+    }
+
+    @Setup
+    public void setUp() {
+        variables = new HashMap<>();
+        variables.put("nome", "Maria <Silva>");
+        variables.put("pedido", 123456);
+        variables.put("total", "R$ 1.234,56");
+
+        String content = switch (shape) {
+            case SUBJECT -> "Pedido {{pedido}} confirmado, {{nome}}";
+            case TRANSACTIONAL -> "<html><body><h1>Olá {{nome}}</h1><p>Seu pedido {{pedido}} foi confirmado.</p>"
+                    + "<p>Total: {{total}}</p><p>Obrigado, {{nome}}!</p><footer>Pedido {{pedido}}</footer></body></html>";
+            case WIDE -> {
+                StringBuilder body = new StringBuilder();
+                for (int i = 0; i < 50; i++) {
+                    body.append("<td>{{var").append(i).append("}}</td>");
+                    variables.put("var" + i, "valor " + i);
+                }
+                yield body.toString();
+            }
+            case LITERAL_HEAVY -> "<html><body>" + "<p>Texto institucional sem variáveis.</p>".repeat(100)
+                    + "<p>{{nome}} - {{pedido}} - {{total}}</p></body></html>";
+            case LIST -> {
+                List<Map<String, Object>> items = new ArrayList<>();
+                for (int i = 0; i < 20; i++) {
+                    items.add(Map.of("sku", "SKU-" + i, "qtd", i, "presente", i % 3 == 0));
+                }
+                variables.put("items", items);
+                yield "<ul>{{#each items}}<li>{{this.sku}} x{{this.qtd}}{{#if this.presente}} (presente){{/if}}</li>{{/each}}</ul>";
+            }
+        };
+
+        interpreted = interpretedEngine.compile("benchmark", content);
+        specialized = tieredEngine.compile("benchmark", content);
+        tieredEngine.renderCompiled(specialized, variables, escapeHtml);
+        if (!specialized.isSpecialized()) {
+            throw new IllegalStateException("Template não foi promovido ao renderizador especializado.");
+        }
+    }
+
+    @Benchmark
+    public String interpreted() {
+        return interpretedEngine.renderCompiled(interpreted, variables, escapeHtml);
+    }
+
+    @Benchmark
+    public String specialized() {
+        return tieredEngine.renderCompiled(specialized, variables, escapeHtml);
+    }
+}
@@ -2,8 +2,11 @@ package com.vaas.templateengine.application.dto;
 
 import com.vaas.templateengine.domain.model.*;
 import com.vaas.templateengine.infrastructure.web.dto.InputVariableDto;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.ReportingPolicy;
@@ -41,6 +44,11 @@ public interface TemplateMapper {
     List<InputVariableDto> toInputVariableDtoList(List<InputVariable> domainList);
     List<InputVariable> toInputVariableDomainList(List<InputVariableDto> dtoList);
 
+    List<ExecutionErrorResponse> toErrorResponseList(List<ExecutionError> errors);
+
+    @Mapping(target = "jobId", source = "id")
+    ExecutionJobResponse toJobResponse(ExecutionJob job);
+
     record PagedResponse<T>(
             List<T> content,
             long totalElements,
@@ -64,7 +72,8 @@ public interface TemplateMapper {
             String description,
             @NotNull(message = "O canal é obrigatório") Channel channel,
             @NotBlank(message = "O orgId é obrigatório") String orgId,
-            @NotBlank(message = "O workspaceId é obrigatório") String workspaceId
+            @NotBlank(message = "O workspaceId é obrigatório") String workspaceId,
+            String locale
     ) {}
 
     record CreateVersionRequest(
@@ -82,9 +91,28 @@ public interface TemplateMapper {
             List<InputVariableDto> inputSchema
     ) {}
 
-    record TemplateResponse(String id, String name, String description, String channel, String status, OffsetDateTime createdAt, List<VersionResponse> versions) {}
+    record TemplateResponse(String id, String name, String description, String channel, String status, String locale, OffsetDateTime createdAt, List<VersionResponse> versions) {}
     record VersionResponse(String id, String version, String estado, String body, List<InputVariableDto> inputSchema) {}
     record ExecutionRequest(String templateVersionId, List<String> recipients, Map<String, Object> variables) {}
-    record ExecutionResponse(String executionId, String renderedContent, String status, OffsetDateTime executedOn) {}
+    record ExecutionResponse(String executionId, String renderedSubject, String renderedContent, String status, OffsetDateTime executedOn,
+                             List<ExecutionErrorResponse> errors) {}
+    record ExecutionErrorResponse(String code, String field, String message) {}
+    record BatchExecutionRequest(
+            String templateVersionId,
+            @NotEmpty(message = "O lote deve conter ao menos um item")
+            @Size(max = 1000, message = "O lote aceita no máximo 1000 itens")
+            List<@Valid BatchItemRequest> items
+    ) {}
+    record BatchItemRequest(List<String> recipients, @NotNull(message = "As variáveis são obrigatórias") Map<String, Object> variables) {}
+    record BatchExecutionResponse(int total, long successCount, long errorCount, List<ExecutionResponse> results) {}
+    record ExecutionJobRequest(
+            String templateVersionId,
+            @NotEmpty(message = "O job deve conter ao menos um item")
+            @Size(max = 100000, message = "O job aceita no máximo 100000 itens")
+            List<@Valid BatchItemRequest> items
+    ) {}
+    record ExecutionJobResponse(String jobId, String templateId, String versionId, String status, int total, long processed,
+                                long successCount, long errorCount, OffsetDateTime createdAt, OffsetDateTime finishedAt,
+                                String errorCode, String errorMessage) {}
     record StatsResponse(String templateId, String templateName, long totalSent, long successCount, long errorCount, OffsetDateTime lastExecutedAt) {}
 }
\ No newline at end of file
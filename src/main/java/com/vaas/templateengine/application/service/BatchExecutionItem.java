@@ -0,0 +1,10 @@
+package com.vaas.templateengine.application.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Item de uma execução em lote: destinatários e variáveis de uma notificação.
+ * Todos os itens de um lote são renderizados com a mesma versão do template.
+ */
+public record BatchExecutionItem(List<String> recipients, Map<String, Object> variables) {}
@@ -0,0 +1,115 @@
+package com.vaas.templateengine.application.service;
+
+import com.vaas.templateengine.domain.model.ExecutionError;
+import com.vaas.templateengine.shared.exception.BusinessException;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Unidade compilada de uma versão publicada: assunto e corpo tratados em conjunto.
+ * Ambas as partes compartilham um único {@link RenderContext} por execução, de modo que cada variável
+ * seja resolvida uma única vez e o orçamento de execução valha para a mensagem inteira.
+ * O assunto é texto puro (cabeçalho de e-mail, título de push) e nunca recebe sanitização HTML.
+ * O inputSchema da versão acompanha a unidade como {@link ValidationPlan}, compilado junto com o conteúdo.
+ */
+public final class CompiledMessage {
+
+    private final CompiledTemplate subject;
+    private final CompiledTemplate body;
+    private final Set<String> referencedRoots;
+    private final ValidationPlan validationPlan;
+    private final ValidationPlan referencedValidationPlan;
+
+    CompiledMessage(CompiledTemplate subject, CompiledTemplate body) {
+        this(subject, body, ValidationPlan.EMPTY);
+    }
+
+    CompiledMessage(CompiledTemplate subject, CompiledTemplate body, ValidationPlan validationPlan) {
+        this.subject = subject;
+        this.body = body;
+
+        Set<String> roots = new LinkedHashSet<>();
+        if (subject != null) {
+            roots.addAll(subject.referencedRoots());
+        }
+        roots.addAll(body.referencedRoots());
+        this.referencedRoots = Collections.unmodifiableSet(roots);
+        this.validationPlan = validationPlan;
+        this.referencedValidationPlan = validationPlan.restrictTo(referencedRoots);
+    }
+
+    /**
+     * @return Assunto compilado, ou null quando a versão não define assunto.
+     */
+    public CompiledTemplate subject() {
+        return subject;
+    }
+
+    public CompiledTemplate body() {
+        return body;
+    }
+
+    /**
+     * @return Variáveis de primeiro nível referenciadas pelo assunto ou pelo corpo.
+     */
+    public Set<String> referencedRoots() {
+        return referencedRoots;
+    }
+
+    /**
+     * @return Plano de validação do inputSchema completo da versão.
+     */
+    public ValidationPlan validationPlan() {
+        return validationPlan;
+    }
+
+    /**
+     * @return Plano restrito às variáveis referenciadas, usado pela execução preguiçosa.
+     */
+    public ValidationPlan referencedValidationPlan() {
+        return referencedValidationPlan;
+    }
+
+    RenderedMessage render(Map<String, Object> variables, boolean escapeBodyHtml, RenderBudget budget) {
+        return switch (tryRender(variables, escapeBodyHtml, budget)) {
+            case RenderResult.Success success -> success.message();
+            case RenderResult.Failure failure -> {
+                ExecutionError first = failure.errors().get(0);
+                throw new BusinessException(first.message(), first.code());
+            }
+        };
+    }
+
+    /**
+     * Renderiza assunto e corpo sem exceções de negócio: todas as variáveis ausentes ou incompatíveis das
+     * duas partes são reunidas em um único {@link RenderResult.Failure}.
+     */
+    RenderResult tryRender(Map<String, Object> variables, boolean escapeBodyHtml, RenderBudget budget) {
+        RenderContext context = new RenderContext(variables, budget);
+        String renderedSubject = subject != null ? subject.render(context, false) : null;
+        String renderedBody = context.halted() ? null : body.render(context, escapeBodyHtml);
+        if (context.failed()) {
+            return new RenderResult.Failure(context.errors());
+        }
+        return new RenderResult.Success(new RenderedMessage(renderedSubject, renderedBody));
+    }
+
+    /**
+     * Renderiza o assunto e verifica o corpo sem produzir saída, em uma única passagem de resolução.
+     * Após o retorno, o corpo pode ser escrito em streaming sem risco de falha por variável ausente ou orçamento.
+     * @return Assunto renderizado, ou null quando a versão não define assunto.
+     */
+    String prepareStreaming(Map<String, Object> variables, RenderBudget budget) {
+        RenderContext context = new RenderContext(variables, budget);
+        String renderedSubject = subject != null ? subject.render(context, false) : null;
+        if (!context.halted()) {
+            body.requireVariables(context);
+        }
+        context.throwIfFailed();
+        return renderedSubject;
+    }
+
+}
@@ -0,0 +1,511 @@
+package com.vaas.templateengine.application.service;
+
+import com.vaas.templateengine.domain.model.NotificationTemplate;
+import com.vaas.templateengine.shared.exception.BusinessException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Forma pré-compilada de um template: árvore imutável de trechos literais, slots de variáveis e seções.
+ * A tokenização do conteúdo bruto ocorre uma única vez, permitindo que a renderização percorra
+ * apenas os segmentos, sem varredura por expressão regular a cada execução.
+ * Seções suportadas: {{#each lista}}...{{/each}} (item corrente via {{this}} ou {{this.campo}})
+ * e {{#if condicao}}...{{else}}...{{/if}}, ambas avaliadas sob um {@link RenderBudget}.
+ */
+public final class CompiledTemplate {
+
+    static final CompiledTemplate EMPTY = new CompiledTemplate(List.of(), 0, 0);
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+    private static final int MAX_SECTION_DEPTH = 16;
+    static final Locale DEFAULT_LOCALE = Locale.forLanguageTag(NotificationTemplate.DEFAULT_LOCALE);
+
+    private final Segment[] segments;
+    private final VariablePath[] variablePaths;
+    private final int literalLength;
+    private final long specializationThreshold;
+    private final AtomicLong executions = new AtomicLong();
+    private volatile SpecializedRenderer specialized;
+
+    private CompiledTemplate(List<Segment> segments, int literalLength, long specializationThreshold) {
+        this.segments = segments.toArray(new Segment[0]);
+        this.literalLength = literalLength;
+        this.specializationThreshold = specializationThreshold;
+        this.variablePaths = segments.stream()
+                .filter(Placeholder.class::isInstance)
+                .map(segment -> ((Placeholder) segment).path())
+                .distinct()
+                .toArray(VariablePath[]::new);
+    }
+
+    /**
+     * Converte o conteúdo bruto em segmentos, preservando a semântica da sintaxe {{variavel}}:
+     * o nome é o menor trecho não vazio entre delimitadores, sem quebras de linha, e é normalizado via trim.
+     * Marcadores iniciados por '#' e '/' abrem e fecham seções; blocos desbalanceados são rejeitados.
+     * @param content Template bruto já validado quanto ao limite de tamanho.
+     * @return Template compilado pronto para renderizações sucessivas.
+     */
+    static CompiledTemplate compile(String content) {
+        return compile(content, 0, DEFAULT_LOCALE);
+    }
+
+    /**
+     * Variante com promoção automática: após a quantidade informada de renderizações em memória,
+     * a versão passa a usar um {@link SpecializedRenderer} gerado a partir da sua árvore de segmentos.
+     * @param content Template bruto já validado quanto ao limite de tamanho.
+     * @param specializationThreshold Renderizações antes da promoção; zero desativa a segunda camada.
+     * @param locale Localidade usada pelos especificadores de formato ({{valor:currency}}).
+     * @return Template compilado pronto para renderizações sucessivas.
+     */
+    static CompiledTemplate compile(String content, long specializationThreshold, Locale locale) {
+        return compile(content, specializationThreshold, locale, Set.of());
+    }
+
+    /**
+     * Variante com o resultado da análise de publicação: placeholders cujos caminhos o inputSchema garante
+     * presentes dispensam a checagem de presença a cada renderização.
+     * @param guaranteedPaths Caminhos garantidos pelo schema, conforme {@link PlaceholderAnalyzer}.
+     */
+    static CompiledTemplate compile(String content, long specializationThreshold, Locale locale, Set<String> guaranteedPaths) {
+        if (content == null || content.isEmpty()) {
+            return EMPTY;
+        }
+
+        Deque<SectionBuilder> enclosing = new ArrayDeque<>();
+        SectionBuilder root = new SectionBuilder(null, null);
+        SectionBuilder current = root;
+        int literalLength = 0;
+        int literalStart = 0;
+        int searchFrom = 0;
+
+        while (true) {
+            int openAt = content.indexOf(OPEN, searchFrom);
+            if (openAt < 0) {
+                break;
+            }
+
+            int closeAt = content.indexOf(CLOSE, openAt + OPEN.length() + 1);
+            if (closeAt < 0) {
+                break;
+            }
+
+            if (containsLineTerminator(content, openAt + OPEN.length(), closeAt)) {
+                searchFrom = openAt + 1;
+                continue;
+            }
+
+            if (openAt > literalStart) {
+                current.add(new Literal(content.substring(literalStart, openAt)));
+                literalLength += openAt - literalStart;
+            }
+
+            String tag = content.substring(openAt + OPEN.length(), closeAt).trim();
+
+            if (tag.startsWith("#")) {
+                if (enclosing.size() >= MAX_SECTION_DEPTH) {
+                    throw invalidSyntax("Profundidade máxima de seções aninhadas excedida (" + MAX_SECTION_DEPTH + ").");
+                }
+                enclosing.push(current);
+                current = openSection(tag);
+            } else if (tag.startsWith("/")) {
+                if (current == root || !current.kind.equals(tag.substring(1).trim())) {
+                    throw invalidSyntax("Fechamento inesperado de seção: {{" + tag + "}}");
+                }
+                Segment section = current.build();
+                current = enclosing.pop();
+                current.add(section);
+            } else if (tag.equals("else") && current != root && current.kind.equals("if")) {
+                current.startElse();
+            } else {
+                current.add(Placeholder.parse(tag, locale, guaranteedPaths));
+            }
+
+            literalStart = closeAt + CLOSE.length();
+            searchFrom = literalStart;
+        }
+
+        if (current != root) {
+            throw invalidSyntax("Seção {{#" + current.kind + " " + current.path + "}} não foi fechada.");
+        }
+
+        if (literalStart < content.length()) {
+            root.add(new Literal(content.substring(literalStart)));
+            literalLength += content.length() - literalStart;
+        }
+
+        return new CompiledTemplate(root.segments, literalLength, specializationThreshold);
+    }
+
+    /**
+     * Percorre os segmentos pré-compilados resolvendo cada slot no contexto fornecido.
+     * @param variables Mapa de contexto fornecido para a execução.
+     * @param shouldEscapeHtml Ativa a sanitização para proteção contra Cross-Site Scripting (XSS).
+     * @param budget Limites de saída e de iterações desta renderização.
+     * @return Conteúdo final processado.
+     */
+    String render(Map<String, Object> variables, boolean shouldEscapeHtml, RenderBudget budget) {
+        RenderContext context = new RenderContext(variables, budget);
+        String rendered = render(context, shouldEscapeHtml);
+        context.throwIfFailed();
+        return rendered;
+    }
+
+    /**
+     * Renderiza em memória consumindo um contexto possivelmente compartilhado com outras partes da mensagem.
+     * Falhas ficam registradas no contexto, sem exceção; o texto retornado só é válido se o contexto não falhou.
+     * Versões que atingem o limiar de execuções são promovidas ao renderizador especializado;
+     * a promoção ocorre uma única vez, na thread que atinge exatamente o limiar.
+     */
+    String render(RenderContext context, boolean shouldEscapeHtml) {
+        SpecializedRenderer fast = specialized;
+        if (fast != null) {
+            return fast.render(context, shouldEscapeHtml);
+        }
+        if (specializationThreshold > 0 && executions.incrementAndGet() == specializationThreshold) {
+            specialized = SpecializedRenderer.of(List.of(segments), literalLength);
+        }
+
+        StringBuilder sb = new StringBuilder(literalLength + 16 * variablePaths.length);
+        try {
+            renderTo(RenderSink.of(sb), context, shouldEscapeHtml);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Escreve o resultado diretamente no destino informado, sem materializar o conteúdo completo em memória.
+     * @param out Destino da escrita (StringBuilder, Writer de resposta HTTP, etc.).
+     * @param variables Mapa de contexto fornecido para a execução.
+     * @param shouldEscapeHtml Ativa a sanitização para proteção contra Cross-Site Scripting (XSS).
+     * @param budget Limites de saída e de iterações desta renderização.
+     */
+    void renderTo(Appendable out, Map<String, Object> variables, boolean shouldEscapeHtml, RenderBudget budget) throws IOException {
+        RenderContext context = new RenderContext(variables, budget);
+        renderTo(RenderSink.of(out), context, shouldEscapeHtml);
+        context.throwIfFailed();
+    }
+
+    /**
+     * Escreve o resultado como UTF-8, copiando os trechos literais já codificados e codificando apenas os valores.
+     * @param out Buffer de destino.
+     * @param variables Mapa de contexto fornecido para a execução.
+     * @param shouldEscapeHtml Ativa a sanitização para proteção contra Cross-Site Scripting (XSS).
+     * @param budget Limites de saída e de iterações desta renderização.
+     */
+    void renderTo(Utf8Buffer out, Map<String, Object> variables, boolean shouldEscapeHtml, RenderBudget budget) throws IOException {
+        RenderContext context = new RenderContext(variables, budget);
+        renderTo(RenderSink.of(out), context, shouldEscapeHtml);
+        context.throwIfFailed();
+    }
+
+    void renderTo(RenderSink sink, RenderContext context, boolean shouldEscapeHtml) throws IOException {
+        new Renderer(sink, context, shouldEscapeHtml).render(segments, null);
+    }
+
+    /**
+     * Verifica antecipadamente que a renderização não falhará.
+     * Necessário antes de uma escrita em streaming, pois a falha não pode ocorrer após o envio parcial da resposta.
+     * A verificação é uma passagem completa sem saída: cobre variáveis ausentes, seções, formatos e orçamento.
+     * @param variables Mapa de contexto fornecido para a execução.
+     * @param budget Limites de saída e de iterações desta renderização.
+     */
+    void requireVariables(Map<String, Object> variables, RenderBudget budget) {
+        RenderContext context = new RenderContext(variables, budget);
+        requireVariables(context);
+        context.throwIfFailed();
+    }
+
+    /**
+     * Passagem de verificação sobre um contexto compartilhado; as falhas ficam registradas no contexto.
+     */
+    void requireVariables(RenderContext context) {
+        try {
+            renderTo(RenderSink.DISCARD, context, false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    List<Segment> segments() {
+        return List.of(segments);
+    }
+
+    /**
+     * Variáveis de primeiro nível consultadas no contexto raiz, incluindo as usadas por seções.
+     * Caminhos relativos ao item de um {{#each}} não consultam o contexto e ficam de fora.
+     */
+    Set<String> referencedRoots() {
+        Set<String> roots = new LinkedHashSet<>();
+        collectRoots(List.of(segments), roots);
+        return roots;
+    }
+
+    private static void collectRoots(List<Segment> segments, Set<String> roots) {
+        for (Segment segment : segments) {
+            switch (segment) {
+                case Literal literal -> { }
+                case Placeholder placeholder -> addRoot(placeholder.path(), roots);
+                case Each each -> {
+                    addRoot(each.path(), roots);
+                    collectRoots(each.body(), roots);
+                }
+                case Conditional conditional -> {
+                    addRoot(conditional.path(), roots);
+                    collectRoots(conditional.whenTrue(), roots);
+                    collectRoots(conditional.whenFalse(), roots);
+                }
+            }
+        }
+    }
+
+    private static void addRoot(VariablePath path, Set<String> roots) {
+        if (!path.isItemRelative()) {
+            roots.add(path.root());
+        }
+    }
+
+    boolean isSpecialized() {
+        return specialized != null;
+    }
+
+    int literalLength() {
+        return literalLength;
+    }
+
+    /**
+     * Veracidade de uma seção {{#if}}: nulos, false, textos vazios e coleções vazias são falsos.
+     */
+    static boolean isTruthy(Object value) {
+        if (value == null || Boolean.FALSE.equals(value)) {
+            return false;
+        }
+        if (value instanceof CharSequence text) {
+            return !text.isEmpty();
+        }
+        if (value instanceof Collection<?> collection) {
+            return !collection.isEmpty();
+        }
+        if (value instanceof Map<?, ?> map) {
+            return !map.isEmpty();
+        }
+        return true;
+    }
+
+    private static SectionBuilder openSection(String tag) {
+        String declaration = tag.substring(1).trim();
+        int space = declaration.indexOf(' ');
+        String kind = space < 0 ? declaration : declaration.substring(0, space);
+        String path = space < 0 ? "" : declaration.substring(space + 1).trim();
+
+        if (!kind.equals("each") && !kind.equals("if")) {
+            throw invalidSyntax("Seção desconhecida: {{" + tag + "}}. Suportadas: #each e #if.");
+        }
+        if (path.isEmpty()) {
+            throw invalidSyntax("A seção {{" + tag + "}} exige uma variável.");
+        }
+        return new SectionBuilder(kind, path);
+    }
+
+    private static BusinessException invalidSyntax(String message) {
+        return new BusinessException(message, "INVALID_TEMPLATE_SYNTAX");
+    }
+
+    private static boolean containsLineTerminator(String content, int from, int to) {
+        for (int i = from; i < to; i++) {
+            switch (content.charAt(i)) {
+                case '\n', '\r', '\u0085', '\u2028', '\u2029' -> {
+                    return true;
+                }
+                default -> { }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Percurso de uma renderização sobre um destino; resolução de valores e orçamento ficam no {@link RenderContext}.
+     * O orçamento é contado em caracteres, garantindo o mesmo limite para os destinos textual e UTF-8.
+     */
+    private static final class Renderer {
+
+        private final RenderSink sink;
+        private final RenderContext context;
+        private final boolean escapeHtml;
+
+        private Renderer(RenderSink sink, RenderContext context, boolean escapeHtml) {
+            this.sink = sink;
+            this.context = context;
+            this.escapeHtml = escapeHtml;
+        }
+
+        private void render(Segment[] segments, Object item) throws IOException {
+            for (int i = 0; i < segments.length && !context.halted(); i++) {
+                render(segments[i], item);
+            }
+        }
+
+        private void render(List<Segment> segments, Object item) throws IOException {
+            for (int i = 0, size = segments.size(); i < size && !context.halted(); i++) {
+                render(segments.get(i), item);
+            }
+        }
+
+        private void render(Segment segment, Object item) throws IOException {
+            switch (segment) {
+                case Literal literal -> {
+                    context.consumeOutput(literal.text().length());
+                    sink.literal(literal);
+                }
+                case Placeholder placeholder -> {
+                    String text = placeholder.text(context, item);
+                    context.consumeOutput(text.length());
+                    sink.value(text, escapeHtml);
+                }
+                case Each each -> renderEach(each, item);
+                case Conditional conditional -> render(
+                        isTruthy(context.resolve(conditional.path(), item)) ? conditional.whenTrue() : conditional.whenFalse(),
+                        item
+                );
+            }
+        }
+
+        private void renderEach(Each each, Object item) throws IOException {
+            for (Object element : context.iterable(each.path(), item)) {
+                context.consumeIteration();
+                if (context.halted()) {
+                    return;
+                }
+                render(each.body(), element);
+            }
+        }
+    }
+
+    /**
+     * Acumulador dos segmentos de uma seção durante a compilação.
+     */
+    private static final class SectionBuilder {
+
+        private final String kind;
+        private final String path;
+        private final List<Segment> segments = new ArrayList<>();
+        private List<Segment> elseSegments;
+
+        private SectionBuilder(String kind, String path) {
+            this.kind = kind;
+            this.path = path;
+        }
+
+        private void add(Segment segment) {
+            (elseSegments != null ? elseSegments : segments).add(segment);
+        }
+
+        private void startElse() {
+            if (elseSegments != null) {
+                throw invalidSyntax("A seção {{#if " + path + "}} possui mais de um {{else}}.");
+            }
+            elseSegments = new ArrayList<>();
+        }
+
+        private Segment build() {
+            VariablePath compiledPath = VariablePath.compile(path);
+            if (kind.equals("each")) {
+                return new Each(compiledPath, List.copyOf(segments));
+            }
+            return new Conditional(compiledPath, List.copyOf(segments), elseSegments == null ? List.of() : List.copyOf(elseSegments));
+        }
+    }
+
+    sealed interface Segment permits Literal, Placeholder, Each, Conditional {}
+
+    /**
+     * Trecho estático copiado sem transformação para a saída.
+     * A forma UTF-8 é codificada uma única vez na compilação e reutilizada pelo caminho binário.
+     * Igualdade considera apenas o texto.
+     */
+    record Literal(String text, byte[] utf8) implements Segment {
+
+        Literal(String text) {
+            this(text, text.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Literal literal && text.equals(literal.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return text.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return "Literal[text=" + text + "]";
+        }
+    }
+
+    /**
+     * Slot de variável resolvido no contexto de execução.
+     * O caminho pontuado e o formatador opcional ({{caminho:formato}}) são resolvidos junto com o template,
+     * uma única vez por versão. Slots garantidos pelo schema da versão não verificam presença do valor.
+     */
+    record Placeholder(String key, VariablePath path, ValueFormatter formatter, boolean guaranteed) implements Segment {
+
+        Placeholder(String key) {
+            this(key, VariablePath.compile(key), null, false);
+        }
+
+        static Placeholder parse(String tag, Locale locale, Set<String> guaranteedPaths) {
+            int separator = tag.indexOf(':');
+            String expression = separator < 0 ? tag : tag.substring(0, separator).trim();
+            ValueFormatter formatter = separator < 0 ? null : ValueFormatter.of(tag.substring(separator + 1).trim(), locale);
+            return new Placeholder(tag, VariablePath.compile(expression), formatter, guaranteedPaths.contains(expression));
+        }
+
+        /**
+         * Texto do slot: o valor memorizado no contexto ou, quando há formato, o valor formatado.
+         * Valores ausentes ou incompatíveis com o formato ficam registrados no contexto e produzem texto vazio.
+         */
+        String text(RenderContext context, Object item) {
+            if (formatter == null) {
+                return context.text(path, item, guaranteed);
+            }
+            Object value = guaranteed ? context.resolve(path, item) : context.value(path, item);
+            if (value == null) {
+                return "";
+            }
+            String text = formatter.format(value);
+            if (text == null) {
+                context.incompatibleFormat(path, formatter.spec());
+                return "";
+            }
+            return text;
+        }
+    }
+
+    /**
+     * Seção {{#each lista}}: o corpo é renderizado uma vez por elemento, exposto como {{this}}.
+     * Listas ausentes não produzem saída.
+     */
+    record Each(VariablePath path, List<Segment> body) implements Segment {}
+
+    /**
+     * Seção {{#if condicao}}: nulos, false, textos vazios e coleções vazias são considerados falsos.
+     */
+    record Conditional(VariablePath path, List<Segment> whenTrue, List<Segment> whenFalse) implements Segment {}
+}
@@ -0,0 +1,207 @@
+package com.vaas.templateengine.application.service;
+
+import com.vaas.templateengine.domain.model.ExecutionJob;
+import com.vaas.templateengine.domain.model.ExecutionStatus;
+import com.vaas.templateengine.domain.model.NotificationExecution;
+import com.vaas.templateengine.domain.port.ExecutionJobRepository;
+import com.vaas.templateengine.shared.exception.BusinessException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Execuções assíncronas para campanhas grandes: o job é aceito imediatamente e processado em segundo plano,
+ * em fatias de {@link TemplateService#executeBatch}, liberando a thread HTTP da espera por MongoDB e Kafka.
+ * Os workers são virtual threads em número fixo. A admissão é limitada pelo total de itens ainda não
+ * processados (max-queued-items), e não pelo número de jobs: quando o novo job não cabe, é rejeitado com
+ * {@link RejectedExecutionException} (HTTP 429) em vez de acumular memória sem limite.
+ * O estado dos jobs é persistido ({@link ExecutionJobRepository}) na submissão e a cada lote, e a consulta
+ * funciona em qualquer instância. Os itens ficam apenas na memória da instância que aceitou o job: jobs
+ * interrompidos pelo desligamento, ou sem renovação há mais que stale-after (instância que caiu), são
+ * reportados como FAILED com o código JOB_INTERRUPTED.
+ */
+@Slf4j
+@Service
+public class ExecutionJobService {
+
+    private static final String METRIC_NAME = "notifications.execution.jobs";
+    private static final String INTERRUPTED = "JOB_INTERRUPTED";
+    private static final String INTERRUPTED_MESSAGE =
+            "O job foi interrompido antes do término; os itens não processados devem ser reenviados.";
+
+    private final TemplateService templateService;
+    private final ExecutionJobRepository jobRepository;
+    private final MeterRegistry meterRegistry;
+    private final long maxQueuedItems;
+    private final int chunkSize;
+    private final Duration staleAfter;
+    private final ExecutorService workers;
+    /** Jobs aceitos por esta instância e ainda não concluídos, consultados sem ida ao MongoDB. */
+    private final Map<String, ExecutionJob> active = new ConcurrentHashMap<>();
+    /** Itens aceitos e ainda não processados, somados entre os jobs na fila e em processamento. */
+    private final AtomicLong queuedItems = new AtomicLong();
+
+    public ExecutionJobService(
+            TemplateService templateService,
+            ExecutionJobRepository jobRepository,
+            MeterRegistry meterRegistry,
+            @Value("${template-engine.execution.jobs.workers:4}") int workerCount,
+            @Value("${template-engine.execution.jobs.max-queued-items:200000}") long maxQueuedItems,
+            @Value("${template-engine.execution.jobs.chunk-size:500}") int chunkSize,
+            @Value("${template-engine.execution.jobs.stale-after:PT1M}") Duration staleAfter) {
+        this.templateService = templateService;
+        this.jobRepository = jobRepository;
+        this.meterRegistry = meterRegistry;
+        this.maxQueuedItems = maxQueuedItems;
+        this.chunkSize = chunkSize;
+        this.staleAfter = staleAfter;
+        this.workers = Executors.newFixedThreadPool(workerCount, Thread.ofVirtual().name("execution-job-", 0).factory());
+        meterRegistry.gauge(METRIC_NAME + ".queued_items", queuedItems);
+    }
+
+    /**
+     * Aceita um job para execução em segundo plano.
+     * @return Job no estado QUEUED, cujo identificador é usado na consulta de status.
+     * @throws RejectedExecutionException quando os itens do job excedem a capacidade restante de max-queued-items.
+     */
+    public ExecutionJob submit(String templateId, String versionId, List<BatchExecutionItem> items) {
+        if (!reserve(items.size())) {
+            meterRegistry.counter(METRIC_NAME, "result", "REJECTED").increment();
+            throw new RejectedExecutionException("Capacidade de itens em fila dos jobs de execução esgotada.");
+        }
+
+        ExecutionJob job = new ExecutionJob(UUID.randomUUID().toString(), templateId, versionId, items.size());
+        List<BatchExecutionItem> snapshot = List.copyOf(items);
+        try {
+            jobRepository.save(job);
+            active.put(job.getId(), job);
+            workers.execute(() -> run(job, snapshot));
+        } catch (RuntimeException e) {
+            active.remove(job.getId());
+            queuedItems.addAndGet(-items.size());
+            throw e;
+        }
+        return job;
+    }
+
+    /**
+     * Estado do job: o da memória local quando esta instância o processa; caso contrário, o persistido.
+     * @throws BusinessException JOB_NOT_FOUND se o job não existir ou já tiver ultrapassado a retenção.
+     */
+    public ExecutionJob getJob(String jobId) {
+        ExecutionJob job = active.get(jobId);
+        if (job != null) {
+            return job;
+        }
+        job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new BusinessException("Job de execução não encontrado: " + jobId, "JOB_NOT_FOUND"));
+        if (!job.isFinished() && job.getUpdatedAt().plus(staleAfter).isBefore(OffsetDateTime.now())) {
+            // A instância responsável deixou de renovar o job: os itens restantes não serão processados
+            job.fail(INTERRUPTED, INTERRUPTED_MESSAGE);
+            jobRepository.save(job);
+        }
+        return job;
+    }
+
+    /**
+     * Renova os jobs desta instância que aguardam na fila ou estão em processamento, para que as demais não os
+     * considerem abandonados.
+     */
+    @Scheduled(fixedDelayString = "${template-engine.execution.jobs.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        try {
+            jobRepository.touch(List.copyOf(active.keySet()));
+        } catch (RuntimeException e) {
+            log.warn("Falha ao renovar {} jobs de execução em andamento: {}", active.size(), e.getMessage());
+        }
+    }
+
+    private boolean reserve(int items) {
+        while (true) {
+            long current = queuedItems.get();
+            if (current + items > maxQueuedItems) {
+                return false;
+            }
+            if (queuedItems.compareAndSet(current, current + items)) {
+                return true;
+            }
+        }
+    }
+
+    private void run(ExecutionJob job, List<BatchExecutionItem> items) {
+        int released = 0;
+        try {
+            job.start();
+            jobRepository.save(job);
+            for (int from = 0; from < items.size(); from += chunkSize) {
+                if (Thread.currentThread().isInterrupted()) {
+                    job.fail(INTERRUPTED, INTERRUPTED_MESSAGE);
+                    break;
+                }
+                int to = Math.min(from + chunkSize, items.size());
+                List<NotificationExecution> executions = templateService.executeBatch(job.getTemplateId(), job.getVersionId(),
+                        items.subList(from, to));
+                long successes = executions.stream().filter(execution -> execution.getStatus() == ExecutionStatus.SUCCESS).count();
+                job.progress(successes, executions.size() - successes);
+                queuedItems.addAndGet(-(to - from));
+                released = to;
+                if (to < items.size()) {
+                    jobRepository.save(job);
+                }
+            }
+            if (!job.isFinished()) {
+                job.complete();
+            }
+        } catch (BusinessException e) {
+            job.fail(e.getCode(), e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Falha inesperada no job de execução {}: {}", job.getId(), e.getMessage(), e);
+            job.fail("INTERNAL_SERVER_ERROR", "Ocorreu um erro inesperado no processamento do job.");
+        } finally {
+            // Libera os itens das fatias não processadas
+            queuedItems.addAndGet(-(items.size() - released));
+            finish(job);
+        }
+    }
+
+    private void finish(ExecutionJob job) {
+        try {
+            jobRepository.save(job);
+        } catch (RuntimeException e) {
+            // Sem renovação, o job será reportado como interrompido pelas demais instâncias após stale-after
+            log.error("Falha ao gravar o estado final do job de execução {}: {}", job.getId(), e.getMessage());
+        } finally {
+            active.remove(job.getId());
+        }
+        meterRegistry.counter(METRIC_NAME, "result", job.getStatus().name()).increment();
+    }
+
+    /**
+     * Interrompe os workers e registra como JOB_INTERRUPTED os jobs que não chegaram ao fim, inclusive os que
+     * ainda aguardavam na fila.
+     */
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        workers.shutdownNow();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+        for (ExecutionJob job : List.copyOf(active.values())) {
+            job.fail(INTERRUPTED, INTERRUPTED_MESSAGE);
+            finish(job);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.vaas.templateengine.application.service;
+
+import java.io.IOException;
+
+/**
+ * Sanitização HTML aplicada diretamente sobre o destino da renderização.
+ * Evita a String intermediária por valor: trechos sem caracteres especiais são copiados
+ * como intervalos do valor original e apenas os caracteres sensíveis viram entidades.
+ * O conjunto de entidades corresponde ao escape HTML para saídas UTF-8 (&lt; &gt; &amp; &quot; &#39;).
+ */
+final class HtmlEscaper {
+
+    private HtmlEscaper() {
+    }
+
+    /**
+     * Escreve o valor escapado no destino informado.
+     * Caminho rápido: valores sem caracteres especiais são anexados integralmente, sem cópia adicional.
+     * @param value Valor bruto da variável.
+     * @param out Destino da renderização.
+     */
+    static void escape(CharSequence value, Appendable out) throws IOException {
+        int length = value.length();
+        int runStart = 0;
+
+        for (int i = 0; i < length; i++) {
+            String entity = entityFor(value.charAt(i));
+            if (entity == null) {
+                continue;
+            }
+            if (i > runStart) {
+                out.append(value, runStart, i);
+            }
+            out.append(entity);
+            runStart = i + 1;
+        }
+
+        if (runStart == 0) {
+            out.append(value);
+        } else if (runStart < length) {
+            out.append(value, runStart, length);
+        }
+    }
+
+    static String entityFor(char c) {
+        return switch (c) {
+            case '<' -> "&lt;";
+            case '>' -> "&gt;";
+            case '&' -> "&amp;";
+            case '"' -> "&quot;";
+            case '\'' -> "&#39;";
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,185 @@
+package com.vaas.templateengine.application.service;
+
+/**
+ * Reconhecedor de datas ISO-8601 sem exceções como controle de fluxo.
+ * Aceita as mesmas formas que {@code LocalDate.parse} (2026-02-22) e {@code OffsetDateTime.parse}
+ * (2026-02-22T17:30Z, 2026-02-22T17:30:00.123-03:00), inclusive anos estendidos com sinal (+12026-02-22).
+ * Entradas inválidas são rejeitadas por um único percurso dos caracteres, sem alocação.
+ */
+final class IsoDates {
+
+    private static final int MAX_OFFSET_SECONDS = 18 * 3600;
+    private static final int MAX_YEAR_DIGITS = 10;
+    private static final long MAX_YEAR = 999_999_999;
+
+    private IsoDates() {
+    }
+
+    static boolean isValid(CharSequence text) {
+        int dateEnd = dateEnd(text);
+        if (dateEnd < 0) {
+            return false;
+        }
+        if (dateEnd == text.length()) {
+            return true;
+        }
+
+        char separator = text.charAt(dateEnd);
+        if (separator != 'T' && separator != 't') {
+            return false;
+        }
+        int offsetStart = timeEnd(text, dateEnd + 1);
+        return offsetStart > 0 && isValidOffset(text, offsetStart);
+    }
+
+    /**
+     * Valida [±]yyyy-MM-dd no início do texto. Anos com mais de quatro dígitos exigem sinal, como em LocalDate.parse.
+     * @return Posição seguinte à data, ou -1 quando a data é inválida.
+     */
+    private static int dateEnd(CharSequence text) {
+        int length = text.length();
+        if (length < 10) {
+            return -1;
+        }
+
+        char first = text.charAt(0);
+        boolean signed = first == '+' || first == '-';
+        int yearStart = signed ? 1 : 0;
+        int yearEnd = yearStart;
+        long year = 0;
+        while (yearEnd < length && yearEnd - yearStart <= MAX_YEAR_DIGITS && isDigit(text.charAt(yearEnd))) {
+            year = year * 10 + (text.charAt(yearEnd++) - '0');
+        }
+
+        int yearDigits = yearEnd - yearStart;
+        boolean validYear = switch (first) {
+            case '+' -> yearDigits > 4 && yearDigits <= MAX_YEAR_DIGITS && year <= MAX_YEAR;
+            case '-' -> yearDigits >= 4 && yearDigits <= MAX_YEAR_DIGITS && year <= MAX_YEAR && year != 0;
+            default -> yearDigits == 4;
+        };
+        if (!validYear || yearEnd + 6 > length || text.charAt(yearEnd) != '-' || text.charAt(yearEnd + 3) != '-') {
+            return -1;
+        }
+
+        int month = digits(text, yearEnd + 1, 2);
+        int day = digits(text, yearEnd + 4, 2);
+        if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(first == '-' ? -year : year, month)) {
+            return -1;
+        }
+        return yearEnd + 6;
+    }
+
+    /**
+     * Valida HH:mm[:ss[.fffffffff]] a partir de {@code start}.
+     * @return Posição seguinte ao horário, ou -1 quando o horário é inválido.
+     */
+    private static int timeEnd(CharSequence text, int start) {
+        int length = text.length();
+        if (start + 5 > length || text.charAt(start + 2) != ':') {
+            return -1;
+        }
+        int hour = digits(text, start, 2);
+        int minute = digits(text, start + 3, 2);
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+            return -1;
+        }
+
+        int position = start + 5;
+        if (position < length && text.charAt(position) == ':') {
+            int second = position + 3 <= length ? digits(text, position + 1, 2) : -1;
+            if (second < 0 || second > 59) {
+                return -1;
+            }
+            position += 3;
+
+            if (position < length && text.charAt(position) == '.') {
+                int fractionStart = ++position;
+                while (position < length && position - fractionStart < 9 && isDigit(text.charAt(position))) {
+                    position++;
+                }
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Valida o deslocamento Z ou ±HH[:mm[:ss]] que encerra o texto, limitado a ±18:00.
+     */
+    private static boolean isValidOffset(CharSequence text, int start) {
+        int length = text.length();
+        if (start >= length) {
+            return false;
+        }
+        char sign = text.charAt(start);
+        if (sign == 'Z' || sign == 'z') {
+            return start + 1 == length;
+        }
+        if ((sign != '+' && sign != '-') || start + 3 > length) {
+            return false;
+        }
+
+        int hours = digits(text, start + 1, 2);
+        int minutes = 0;
+        int seconds = 0;
+        int position = start + 3;
+
+        if (hours < 0) {
+            return false;
+        }
+        if (position < length) {
+            minutes = offsetField(text, position);
+            position += 3;
+            if (minutes < 0) {
+                return false;
+            }
+        }
+        if (position < length) {
+            seconds = offsetField(text, position);
+            position += 3;
+            if (seconds < 0) {
+                return false;
+            }
+        }
+
+        int total = hours * 3600 + minutes * 60 + seconds;
+        return position == length && hours <= 18 && total <= MAX_OFFSET_SECONDS;
+    }
+
+    /**
+     * @return Valor do campo :NN iniciado em {@code colon}, ou -1 quando ausente ou acima de 59.
+     */
+    private static int offsetField(CharSequence text, int colon) {
+        if (colon + 3 > text.length() || text.charAt(colon) != ':') {
+            return -1;
+        }
+        int value = digits(text, colon + 1, 2);
+        return value > 59 ? -1 : value;
+    }
+
+    private static int lengthOfMonth(long year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    /**
+     * @return Valor decimal dos {@code count} caracteres a partir de {@code start}, ou -1 se algum não for dígito.
+     */
+    private static int digits(CharSequence text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = text.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,61 @@
+package com.vaas.templateengine.application.service;
+
+import java.util.AbstractMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Visão de mapa sobre um {@link VariableResolver}, consumida pelo validador e pelo motor sem alterações.
+ * Cada chave é resolvida na primeira consulta e memorizada, inclusive quando o resultado é nulo.
+ * A iteração expõe apenas as variáveis já resolvidas, que compõem o snapshot de auditoria da execução.
+ * Instâncias pertencem a uma única execução e não são thread-safe.
+ */
+final class LazyVariables extends AbstractMap<String, Object> {
+
+    private static final Object ABSENT = new Object();
+
+    private final VariableResolver resolver;
+    private final Map<String, Object> resolved = new LinkedHashMap<>();
+
+    LazyVariables(VariableResolver resolver) {
+        this.resolver = resolver;
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (!(key instanceof String name)) {
+            return null;
+        }
+        Object value = resolved.get(name);
+        if (value == null) {
+            Object computed = resolver.resolve(name);
+            value = computed != null ? computed : ABSENT;
+            resolved.put(name, value);
+        }
+        return value == ABSENT ? null : value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return snapshot().entrySet();
+    }
+
+    /**
+     * @return Cópia das variáveis resolvidas até o momento, sem as consultas que retornaram nulo.
+     */
+    Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        resolved.forEach((name, value) -> {
+            if (value != ABSENT) {
+                snapshot.put(name, value);
+            }
+        });
+        return snapshot;
+    }
+}
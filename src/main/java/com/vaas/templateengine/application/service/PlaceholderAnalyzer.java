@@ -0,0 +1,183 @@
+package com.vaas.templateengine.application.service;
+
+import com.vaas.templateengine.application.service.CompiledTemplate.Conditional;
+import com.vaas.templateengine.application.service.CompiledTemplate.Each;
+import com.vaas.templateengine.application.service.CompiledTemplate.Literal;
+import com.vaas.templateengine.application.service.CompiledTemplate.Placeholder;
+import com.vaas.templateengine.application.service.CompiledTemplate.Segment;
+import com.vaas.templateengine.domain.model.InputVariable;
+import com.vaas.templateengine.domain.model.TemplateAnalysis;
+import com.vaas.templateengine.shared.exception.BusinessException;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Análise estática executada na publicação de uma versão: confronta cada caminho referenciado pelo
+ * assunto e pelo corpo com o inputSchema declarado.
+ * Caminhos desconhecidos (raiz não declarada, atributo inexistente, subcaminho de um valor escalar)
+ * tornariam a versão irrenderizável e são rejeitados com UNDECLARED_PLACEHOLDER.
+ * Atributos de OBJECT ou LIST sem properties são tratados como opacos e aceitam qualquer subcaminho.
+ */
+final class PlaceholderAnalyzer {
+
+    private final List<InputVariable> schema;
+    private final Set<String> placeholders = new LinkedHashSet<>();
+    private final Set<String> guaranteed = new LinkedHashSet<>();
+    private final Set<String> undeclared = new LinkedHashSet<>();
+
+    private PlaceholderAnalyzer(List<InputVariable> schema) {
+        this.schema = schema != null ? schema : List.of();
+    }
+
+    /**
+     * @param parts Partes compiladas da versão (assunto e corpo); entradas nulas são ignoradas.
+     * @param schema inputSchema da versão.
+     * @return Caminhos referenciados e caminhos garantidos pelo schema.
+     */
+    static TemplateAnalysis analyze(List<CompiledTemplate> parts, List<InputVariable> schema) {
+        PlaceholderAnalyzer analyzer = new PlaceholderAnalyzer(schema);
+        for (CompiledTemplate part : parts) {
+            if (part != null) {
+                analyzer.visit(part.segments(), null);
+            }
+        }
+
+        if (!analyzer.undeclared.isEmpty()) {
+            throw new BusinessException(
+                    "Placeholders não declarados no inputSchema: " + String.join(", ", analyzer.undeclared),
+                    "UNDECLARED_PLACEHOLDER"
+            );
+        }
+        return new TemplateAnalysis(List.copyOf(analyzer.placeholders), List.copyOf(analyzer.guaranteed));
+    }
+
+    /**
+     * @param itemScope Atributos do item da seção {{#each}} mais interna; null fora de laços ou quando o item é opaco.
+     */
+    private void visit(List<Segment> segments, ItemScope itemScope) {
+        for (Segment segment : segments) {
+            switch (segment) {
+                case Literal literal -> { }
+                case Placeholder placeholder -> {
+                    Resolution resolution = check(placeholder.path(), itemScope);
+                    if (resolution != null && resolution.guaranteed()) {
+                        guaranteed.add(placeholder.path().expression());
+                    }
+                }
+                case Each each -> {
+                    Resolution resolution = check(each.path(), itemScope);
+                    visit(each.body(), ItemScope.of(resolution));
+                }
+                case Conditional conditional -> {
+                    check(conditional.path(), itemScope);
+                    visit(conditional.whenTrue(), itemScope);
+                    visit(conditional.whenFalse(), itemScope);
+                }
+            }
+        }
+    }
+
+    private Resolution check(VariablePath path, ItemScope itemScope) {
+        placeholders.add(path.expression());
+        Resolution resolution = resolve(path, itemScope);
+        if (resolution == null) {
+            undeclared.add(path.expression());
+        }
+        return resolution;
+    }
+
+    /**
+     * Percorre o schema seguindo os segmentos do caminho, com a mesma semântica de {@link VariablePath#resolve}.
+     * @return Declaração localizada, {@link Resolution#OPAQUE} para subcaminhos não descritos, ou null se não declarado.
+     */
+    private Resolution resolve(VariablePath path, ItemScope itemScope) {
+        List<InputVariable> level = schema;
+        int first = 0;
+        boolean required = true;
+
+        if (path.isItemRelative() && itemScope != null) {
+            if (itemScope.properties() == null || path.length() == 1) {
+                return Resolution.OPAQUE;
+            }
+            level = itemScope.properties();
+            first = 1;
+            required = false;
+        }
+
+        InputVariable declaration = null;
+        for (int i = first; i < path.length(); i++) {
+            if (declaration != null) {
+                switch (declaration.type()) {
+                    case OBJECT -> {
+                        if (declaration.properties() == null) {
+                            return Resolution.OPAQUE;
+                        }
+                        level = declaration.properties();
+                    }
+                    case LIST -> {
+                        if (!path.isIndex(i)) {
+                            return flatKey(path, first);
+                        }
+                        if (declaration.properties() == null) {
+                            return Resolution.OPAQUE;
+                        }
+                        level = declaration.properties();
+                        declaration = null;
+                        required = false;
+                        continue;
+                    }
+                    default -> {
+                        return flatKey(path, first);
+                    }
+                }
+            }
+
+            declaration = find(level, path.segment(i));
+            if (declaration == null) {
+                return flatKey(path, first);
+            }
+            required &= declaration.required();
+        }
+        return new Resolution(declaration, required);
+    }
+
+    /**
+     * Compatibilidade com payloads achatados: uma variável declarada com o nome pontuado completo (ex.: "customer.city").
+     */
+    private Resolution flatKey(VariablePath path, int first) {
+        if (first > 0 || path.length() == 1) {
+            return null;
+        }
+        InputVariable declaration = find(schema, path.expression());
+        return declaration != null ? new Resolution(declaration, declaration.required()) : null;
+    }
+
+    private static InputVariable find(List<InputVariable> level, String name) {
+        for (InputVariable variable : level) {
+            if (variable.name().equals(name)) {
+                return variable;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param declaration Declaração do último segmento; null quando o caminho termina em um item de lista ou é opaco.
+     * @param guaranteed Verdadeiro quando todas as variáveis da cadeia são obrigatórias e nenhum índice de lista é percorrido.
+     */
+    private record Resolution(InputVariable declaration, boolean guaranteed) {
+
+        static final Resolution OPAQUE = new Resolution(null, false);
+    }
+
+    private record ItemScope(List<InputVariable> properties) {
+
+        static ItemScope of(Resolution resolution) {
+            InputVariable declaration = resolution != null ? resolution.declaration() : null;
+            List<InputVariable> properties = declaration != null ? declaration.properties() : null;
+            return new ItemScope(properties);
+        }
+    }
+}
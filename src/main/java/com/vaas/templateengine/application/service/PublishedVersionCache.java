@@ -0,0 +1,183 @@
+package com.vaas.templateengine.application.service;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vaas.templateengine.domain.model.NotificationTemplate;
+import com.vaas.templateengine.domain.model.TemplateVersion;
+import com.vaas.templateengine.domain.port.NotificationTemplateRepository;
+import com.vaas.templateengine.shared.exception.BusinessException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Cache do caminho de execução, em duas partes:
+ * versões publicadas, imutáveis por definição, mantidas por (templateId, versionId) sem expiração e removidas
+ * apenas pelo peso total do conteúdo; e um resumo por template (status, canal, locale e o ponteiro da última
+ * versão publicada), pequeno, invalidado na publicação e no arquivamento, também nas demais instâncias via Kafka.
+ * O resumo é um cache assíncrono com carga compartilhada: ausências simultâneas do mesmo template aguardam
+ * uma única leitura, e resumos acessados após refresh-after-write são relidos em segundo plano antes de expirar.
+ * A releitura traz apenas os campos do template, sem as versões. Rascunhos nunca são armazenados.
+ * As leituras ocorrem em virtual threads, fora de computações do cache, que nunca bloqueiam por I/O.
+ */
+@Component
+public class PublishedVersionCache {
+
+    /**
+     * Sobrecarga estimada, em bytes, de uma versão além do conteúdo textual (metadados e schema).
+     */
+    private static final int VERSION_OVERHEAD_BYTES = 512;
+    private static final String SUMMARIES = "template_summaries";
+    private static final Executor LOADER = task -> Thread.ofVirtual().name("template-summary-loader").start(task);
+
+    record VersionKey(String templateId, String versionId) {}
+
+    private final NotificationTemplateRepository templateRepository;
+    private final AsyncLoadingCache<String, NotificationTemplate> summaries;
+    private final Cache<VersionKey, TemplateVersion> versions;
+    private final Counter refreshes;
+
+    public PublishedVersionCache(
+            NotificationTemplateRepository templateRepository,
+            MeterRegistry meterRegistry,
+            @Value("${template-engine.cache.published-versions.max-weight-bytes:134217728}") long maxWeightBytes,
+            @Value("${template-engine.cache.summaries.max-size:10000}") long maxSummaries,
+            @Value("${template-engine.cache.summaries.refresh-after-write:PT15M}") Duration summaryRefresh,
+            @Value("${template-engine.cache.summaries.expire-after-write:PT1H}") Duration summaryTtl) {
+        this.templateRepository = templateRepository;
+        this.refreshes = meterRegistry.counter("notifications.cache.refresh", "cache", SUMMARIES);
+        this.versions = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((VersionKey key, TemplateVersion version) -> weigh(version))
+                .recordStats()
+                .build();
+        this.summaries = Caffeine.newBuilder()
+                .executor(LOADER)
+                .maximumSize(maxSummaries)
+                .refreshAfterWrite(summaryRefresh)
+                .expireAfterWrite(summaryTtl)
+                .recordStats()
+                .buildAsync(new CacheLoader<String, NotificationTemplate>() {
+                    @Override
+                    public NotificationTemplate load(String templateId) {
+                        return loadSummary(templateId);
+                    }
+
+                    @Override
+                    public NotificationTemplate reload(String templateId, NotificationTemplate previous) {
+                        refreshes.increment();
+                        return loadSummary(templateId);
+                    }
+                });
+        CaffeineCacheMetrics.monitor(meterRegistry, versions, "published_versions");
+        CaffeineCacheMetrics.monitor(meterRegistry, summaries, SUMMARIES);
+    }
+
+    /**
+     * Template com apenas a versão a executar: a informada ou, com versionId nulo, a última publicada.
+     * A lista de versões vem vazia quando a versão não existe ou não há versão publicada; a validação de estado
+     * (arquivamento, rascunho) permanece com o chamador.
+     * @throws BusinessException TEMPLATE_NOT_FOUND se o template não existir.
+     */
+    public NotificationTemplate get(String templateId, String versionId) {
+        NotificationTemplate summary = summary(templateId);
+        String target = versionId != null ? versionId : summary.getActivePublishedVersionId();
+        if (target == null) {
+            return withVersion(summary, null);
+        }
+
+        TemplateVersion version = versions.getIfPresent(new VersionKey(templateId, target));
+        if (version == null) {
+            version = templateRepository.findWithVersion(templateId, target)
+                    .flatMap(template -> template.getVersions().stream().findFirst())
+                    .orElse(null);
+            if (version != null && version.isPublished()) {
+                versions.put(new VersionKey(templateId, target), version);
+            }
+        }
+        return withVersion(summary, version);
+    }
+
+    /**
+     * Descarta o resumo do template (status e ponteiro da última versão publicada). As versões publicadas,
+     * imutáveis, permanecem em cache.
+     */
+    public void invalidate(String templateId) {
+        // Também descarta uma leitura ou releitura em andamento, cujo resultado não volta ao cache
+        summaries.synchronous().invalidate(templateId);
+    }
+
+    private NotificationTemplate summary(String templateId) {
+        NotificationTemplate summary = join(summaries.get(templateId));
+        if (summary == null) {
+            throw new BusinessException("Template não encontrado: " + templateId, "TEMPLATE_NOT_FOUND");
+        }
+        return summary;
+    }
+
+    /**
+     * @return Resumo do template, ou null se inexistente (ausências não são armazenadas).
+     */
+    private NotificationTemplate loadSummary(String templateId) {
+        NotificationTemplate summary = templateRepository.findSummary(templateId).orElse(null);
+        if (summary != null && summary.getActivePublishedVersionId() == null) {
+            return legacySummary(templateId);
+        }
+        return summary;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Templates publicados antes do ponteiro (ou sem versão publicada) exigem a leitura completa do agregado
+     * para localizar a última versão publicada, que já segue para o cache de versões.
+     */
+    private NotificationTemplate legacySummary(String templateId) {
+        NotificationTemplate template = templateRepository.findById(templateId)
+                .orElseThrow(() -> new BusinessException("Template não encontrado: " + templateId, "TEMPLATE_NOT_FOUND"));
+        TemplateVersion latest = template.getVersions().stream()
+                .filter(TemplateVersion::isPublished)
+                .max(TemplateVersion::compareTo)
+                .orElse(null);
+        if (latest == null) {
+            return withVersion(template, null);
+        }
+        versions.put(new VersionKey(templateId, latest.getId()), latest);
+        return template.toBuilder().activePublishedVersionId(latest.getId()).versions(new ArrayList<>()).build();
+    }
+
+    private static NotificationTemplate withVersion(NotificationTemplate summary, TemplateVersion version) {
+        return summary.toBuilder()
+                .versions(version != null ? new ArrayList<>(List.of(version)) : new ArrayList<>())
+                .build();
+    }
+
+    private static int weigh(TemplateVersion version) {
+        long chars = length(version.getBody()) + length(version.getSubject());
+        return (int) Math.min(Integer.MAX_VALUE, VERSION_OVERHEAD_BYTES + chars * Character.BYTES);
+    }
+
+    private static long length(String value) {
+        return value != null ? value.length() : 0;
+    }
+}
@@ -0,0 +1,13 @@
+package com.vaas.templateengine.application.service;
+
+/**
+ * Orçamento de execução aplicado a cada renderização.
+ * Limita o volume de saída e a quantidade de iterações de seções {{#each}}, impedindo que um payload
+ * desproporcional (listas gigantes, laços aninhados) monopolize uma thread de trabalho.
+ * @param maxOutputChars Quantidade máxima de caracteres produzidos por renderização.
+ * @param maxIterations Quantidade máxima de iterações somadas de todos os laços de uma renderização.
+ */
+public record RenderBudget(long maxOutputChars, long maxIterations) {
+
+    public static final RenderBudget DEFAULT = new RenderBudget(1_000_000, 10_000);
+}
@@ -0,0 +1,179 @@
+package com.vaas.templateengine.application.service;
+
+import com.vaas.templateengine.domain.model.ExecutionError;
+import com.vaas.templateengine.shared.exception.BusinessException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Estado compartilhado por uma unidade de renderização (assunto e corpo da mesma execução).
+ * Memoriza os valores já resolvidos no escopo raiz, de modo que uma variável presente em ambas as partes
+ * seja localizada e convertida em texto uma única vez, e acumula o consumo do {@link RenderBudget}.
+ * Falhas não interrompem a renderização por exceção: são registradas como {@link ExecutionError}, e a
+ * renderização prossegue para reportar as demais variáveis ausentes. O orçamento excedido encerra o percurso
+ * ({@link #halted()}). Instâncias não são thread-safe e não devem ser reutilizadas entre execuções.
+ */
+final class RenderContext {
+
+    private final Map<String, Object> variables;
+    private final RenderBudget budget;
+    private final Map<VariablePath, String> resolved = new HashMap<>();
+    private long outputChars;
+    private long iterations;
+    private List<ExecutionError> errors;
+    private boolean halted;
+
+    RenderContext(Map<String, Object> variables, RenderBudget budget) {
+        this.variables = variables;
+        this.budget = budget;
+    }
+
+    /**
+     * Obtém o texto de um placeholder; valores ausentes registram MISSING_REQUIRED_VARIABLE e produzem texto vazio.
+     * Valores relativos ao item de um {{#each}} mudam a cada iteração e por isso não são memorizados.
+     */
+    String text(VariablePath path, Object item) {
+        return text(path, item, false);
+    }
+
+    /**
+     * Variante para slots analisados na publicação: caminhos garantidos pelo schema já tiveram a presença
+     * confirmada pelo {@link ValidationPlan} e dispensam a checagem por chave.
+     */
+    String text(VariablePath path, Object item, boolean guaranteed) {
+        if (item != null && path.isItemRelative()) {
+            return toText(path, path.resolve(variables, item), guaranteed);
+        }
+
+        String text = resolved.get(path);
+        if (text == null) {
+            text = toText(path, path.resolve(variables, null), guaranteed);
+            resolved.put(path, text);
+        }
+        return text;
+    }
+
+    /**
+     * Valor bruto de um placeholder, para slots com formatação; valores ausentes registram a falha e retornam null.
+     */
+    Object value(VariablePath path, Object item) {
+        Object value = path.resolve(variables, item);
+        if (value == null) {
+            missingVariable(path);
+        }
+        return value;
+    }
+
+    /**
+     * Variante sem memorização, para chamadores que já garantem uma única consulta por caminho.
+     * Reaproveita valores memorizados por outras partes da mensagem, sem registrar novos.
+     */
+    String textOnce(VariablePath path, boolean guaranteed) {
+        String text = resolved.get(path);
+        return text != null ? text : toText(path, path.resolve(variables, null), guaranteed);
+    }
+
+    Object resolve(VariablePath path, Object item) {
+        return path.resolve(variables, item);
+    }
+
+    /**
+     * Valor de uma seção {{#each}}: listas ausentes não produzem iterações; valores não iteráveis registram a falha.
+     */
+    Iterable<?> iterable(VariablePath path, Object item) {
+        Object value = path.resolve(variables, item);
+        if (value == null) {
+            return List.of();
+        }
+        if (!(value instanceof Iterable<?> elements)) {
+            fail("INVALID_VARIABLE_TYPE", path.expression(), "A seção #each exige uma lista: " + path.expression());
+            return List.of();
+        }
+        return elements;
+    }
+
+    void incompatibleFormat(VariablePath path, String spec) {
+        fail("INVALID_VARIABLE_TYPE", path.expression(), String.format(
+                "Incompatibilidade de tipo para '%s'. O formato '%s' não se aplica ao valor informado.", path.expression(), spec));
+    }
+
+    void consumeOutput(int chars) {
+        outputChars += chars;
+        if (outputChars > budget.maxOutputChars()) {
+            budgetExceeded("tamanho de saída");
+        }
+    }
+
+    void consumeIteration() {
+        if (++iterations > budget.maxIterations()) {
+            budgetExceeded("iterações");
+        }
+    }
+
+    /**
+     * @return Verdadeiro quando o orçamento foi excedido e o percurso deve ser encerrado.
+     */
+    boolean halted() {
+        return halted;
+    }
+
+    boolean failed() {
+        return errors != null;
+    }
+
+    /**
+     * @return Falhas registradas, na ordem em que ocorreram; vazia quando a renderização foi bem-sucedida.
+     */
+    List<ExecutionError> errors() {
+        return errors != null ? List.copyOf(errors) : List.of();
+    }
+
+    /**
+     * Converte a primeira falha registrada em exceção, para as variantes que reportam erros por exceção
+     * (streaming, renderização avulsa).
+     */
+    void throwIfFailed() {
+        if (errors != null) {
+            ExecutionError first = errors.get(0);
+            throw new BusinessException(first.message(), first.code());
+        }
+    }
+
+    private String toText(VariablePath path, Object value, boolean guaranteed) {
+        if (!guaranteed && value == null) {
+            missingVariable(path);
+            return "";
+        }
+        return String.valueOf(value);
+    }
+
+    private void missingVariable(VariablePath path) {
+        fail("MISSING_REQUIRED_VARIABLE", path.expression(), "Variável obrigatória ausente no contexto: " + path.expression());
+    }
+
+    private void budgetExceeded(String limit) {
+        if (!halted) {
+            halted = true;
+            fail("RENDER_BUDGET_EXCEEDED", null, "Renderização interrompida: limite de " + limit + " excedido.");
+        }
+    }
+
+    /**
+     * Registra a falha uma única vez por código e caminho (a mesma variável pode faltar em várias iterações).
+     */
+    private void fail(String code, String field, String message) {
+        if (errors == null) {
+            errors = new ArrayList<>(2);
+        }
+        for (ExecutionError error : errors) {
+            if (error.code().equals(code) && Objects.equals(error.field(), field)) {
+                return;
+            }
+        }
+        errors.add(new ExecutionError(code, field, message));
+    }
+}
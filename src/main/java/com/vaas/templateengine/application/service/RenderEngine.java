@@ -1,66 +1,263 @@
 package com.vaas.templateengine.application.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vaas.templateengine.domain.model.InputVariable;
+import com.vaas.templateengine.domain.model.TemplateAnalysis;
+import com.vaas.templateengine.domain.model.TemplateVersion;
 import com.vaas.templateengine.shared.exception.BusinessException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.springframework.web.util.HtmlUtils;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Set;
 
 /**
  * Motor de interpolação de strings responsável pela resolução de placeholders.
  * A implementação prioriza a segurança contra ataques de negação de serviço (ReDoS)
- * através de expressões regulares não-gananciosas e limites rígidos de carga útil.
+ * através de uma tokenização linear sem expressões regulares e limites rígidos de carga útil.
+ * Templates de versões publicadas são compilados uma única vez e mantidos em cache limitado.
+ * O custo de cada renderização é limitado por um {@link RenderBudget} (saída e iterações de laços),
+ * enquanto o limite de tamanho do conteúdo bruto permanece como proteção da etapa de compilação.
+ * Versões quentes (acima do limiar de execuções) são promovidas a um {@link SpecializedRenderer}.
  */
 @Component
 public class RenderEngine {
 
-    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\{\\{(.+?)\\}\\}");
     private static final int MAX_CONTENT_LENGTH = 50_000;
+    private static final long DEFAULT_COMPILED_CACHE_SIZE = 2_000;
+    private static final int STREAM_BUFFER_SIZE = 8_192;
+    private static final long DEFAULT_SPECIALIZATION_THRESHOLD = 10_000;
+
+    private final Cache<String, CompiledMessage> compiledMessages;
+    private final RenderBudget budget;
+    private final long specializationThreshold;
+
+    public RenderEngine() {
+        this(DEFAULT_COMPILED_CACHE_SIZE, RenderBudget.DEFAULT);
+    }
+
+    @Autowired
+    public RenderEngine(
+            @Value("${template-engine.render.compiled-cache-size:2000}") long compiledCacheSize,
+            @Value("${template-engine.render.max-output-chars:1000000}") long maxOutputChars,
+            @Value("${template-engine.render.max-iterations:10000}") long maxIterations,
+            @Value("${template-engine.render.specialization-threshold:10000}") long specializationThreshold) {
+        this(compiledCacheSize, new RenderBudget(maxOutputChars, maxIterations), specializationThreshold);
+    }
+
+    public RenderEngine(long compiledCacheSize, RenderBudget budget) {
+        this(compiledCacheSize, budget, DEFAULT_SPECIALIZATION_THRESHOLD);
+    }
+
+    public RenderEngine(long compiledCacheSize, RenderBudget budget, long specializationThreshold) {
+        this.compiledMessages = Caffeine.newBuilder()
+                .maximumSize(compiledCacheSize)
+                .build();
+        this.budget = budget;
+        this.specializationThreshold = specializationThreshold;
+    }
+
+    /**
+     * Obtém a forma compilada de uma versão, tokenizando o conteúdo apenas na primeira solicitação.
+     * A chave deve identificar um conteúdo imutável (versão PUBLISHED), pois não há invalidação por conteúdo.
+     * @param versionId Identificador da versão publicada.
+     * @param content Template bruto com sintaxe {{variavel}}.
+     * @return Template compilado compartilhado entre execuções.
+     */
+    public CompiledTemplate compile(String versionId, String content) {
+        return compileMessage(versionId, null, content).body();
+    }
+
+    /**
+     * Obtém a unidade compilada (assunto e corpo) de uma versão, tokenizando ambas as partes na primeira solicitação.
+     * Compartilha o cache de {@link #compile(String, String)}, já que o versionId identifica o mesmo conteúdo imutável.
+     * @param versionId Identificador da versão publicada.
+     * @param subject Assunto bruto com sintaxe {{variavel}}; pode ser nulo.
+     * @param body Corpo bruto com sintaxe {{variavel}}.
+     * @return Mensagem compilada compartilhada entre execuções.
+     */
+    public CompiledMessage compileMessage(String versionId, String subject, String body) {
+        return compileMessage(versionId, subject, body, CompiledTemplate.DEFAULT_LOCALE);
+    }
+
+    /**
+     * Variante com a localidade do template, aplicada aos especificadores de formato ({{valor:currency}}).
+     * Os formatadores são resolvidos nesta etapa; a localidade de um template não muda após a criação.
+     * @param locale Localidade do template.
+     */
+    public CompiledMessage compileMessage(String versionId, String subject, String body, Locale locale) {
+        return compileMessage(versionId, subject, body, locale, null);
+    }
+
+    /**
+     * Variante que também compila o inputSchema da versão em um {@link ValidationPlan} mantido na mesma entrada de cache.
+     * @param inputSchema Schema imutável da versão publicada; pode ser nulo.
+     */
+    public CompiledMessage compileMessage(String versionId, String subject, String body, Locale locale, List<InputVariable> inputSchema) {
+        return compileMessage(versionId, subject, body, locale, inputSchema, null);
+    }
+
+    /**
+     * Compila uma versão publicada com todos os seus artefatos: conteúdo, plano de validação e o resultado da
+     * análise de publicação, que marca os placeholders garantidos pelo schema.
+     * @param version Versão publicada; versões publicadas antes da análise não possuem caminhos garantidos.
+     * @param locale Localidade do template.
+     */
+    public CompiledMessage compileMessage(TemplateVersion version, Locale locale) {
+        return compileMessage(version.getId(), version.getSubject(), version.getBody(), locale,
+                version.getInputSchema(), version.getAnalysis());
+    }
+
+    private CompiledMessage compileMessage(String versionId, String subject, String body, Locale locale,
+                                           List<InputVariable> inputSchema, TemplateAnalysis analysis) {
+        Set<String> guaranteedPaths = analysis != null ? Set.copyOf(analysis.guaranteedPaths()) : Set.of();
+        return compiledMessages.get(versionId, key -> new CompiledMessage(
+                subject != null ? compile(subject, specializationThreshold, locale, guaranteedPaths) : null,
+                compile(body, specializationThreshold, locale, guaranteedPaths),
+                ValidationPlan.of(inputSchema)
+        ));
+    }
+
+    /**
+     * Análise estática de publicação: rejeita placeholders e seções que referenciam caminhos não declarados
+     * no inputSchema (UNDECLARED_PLACEHOLDER) e identifica os caminhos cuja presença o schema garante.
+     * Também rejeita sintaxe inválida e especificadores de formato desconhecidos, como a compilação.
+     * @param subject Assunto bruto; pode ser nulo.
+     * @param body Corpo bruto.
+     * @param inputSchema Schema da versão.
+     * @param locale Localidade do template.
+     * @return Resultado a ser registrado na versão publicada.
+     */
+    public TemplateAnalysis analyze(String subject, String body, List<InputVariable> inputSchema, Locale locale) {
+        List<CompiledTemplate> parts = new ArrayList<>(2);
+        parts.add(subject != null ? compile(subject, 0, locale, Set.of()) : null);
+        parts.add(compile(body, 0, locale, Set.of()));
+        return PlaceholderAnalyzer.analyze(parts, inputSchema);
+    }
 
     /**
      * Realiza a substituição dinâmica de placeholders por valores do contexto.
-     * Utiliza StringBuilder para otimização de memória e Matcher.quoteReplacement
-     * para garantir a integridade de caracteres especiais durante a substituição.
+     * Caminho sem cache, destinado a conteúdos ad hoc que não pertencem a uma versão publicada.
      * @param content Template bruto com sintaxe {{variavel}}.
      * @param variables Mapa de contexto fornecido para a execução.
      * @param shouldEscapeHtml Ativa a sanitização para proteção contra Cross-Site Scripting (XSS).
      * @return Conteúdo final processado e seguro.
      */
     public String render(String content, Map<String, Object> variables, boolean shouldEscapeHtml) {
-        if (content == null || content.isEmpty()) {
-            return "";
-        }
+        return renderCompiled(compile(content, 0, CompiledTemplate.DEFAULT_LOCALE, Set.of()), variables, shouldEscapeHtml);
+    }
 
-        if (content.length() > MAX_CONTENT_LENGTH) {
-            throw new BusinessException(
-                    "O conteúdo excede o limite de segurança operacional.",
-                    "TEMPLATE_TOO_LARGE"
-            );
-        }
+    /**
+     * Renderiza um template previamente compilado, percorrendo apenas seus segmentos.
+     * @param template Template compilado via {@link #compile(String, String)}.
+     * @param variables Mapa de contexto fornecido para a execução.
+     * @param shouldEscapeHtml Ativa a sanitização para proteção contra Cross-Site Scripting (XSS).
+     * @return Conteúdo final processado e seguro.
+     */
+    public String renderCompiled(CompiledTemplate template, Map<String, Object> variables, boolean shouldEscapeHtml) {
+        return template.render(variables, shouldEscapeHtml, budget);
+    }
 
-        StringBuilder sb = new StringBuilder();
-        Matcher matcher = PLACEHOLDER_PATTERN.matcher(content);
+    /**
+     * Renderiza assunto e corpo em uma única passagem de resolução de variáveis.
+     * O assunto é sempre texto puro; a sanitização HTML se aplica apenas ao corpo.
+     * @param message Mensagem compilada via {@link #compileMessage(String, String, String)}.
+     * @param variables Mapa de contexto fornecido para a execução.
+     * @param shouldEscapeHtml Ativa a sanitização do corpo para proteção contra Cross-Site Scripting (XSS).
+     * @return Assunto e corpo renderizados.
+     */
+    public RenderedMessage renderMessage(CompiledMessage message, Map<String, Object> variables, boolean shouldEscapeHtml) {
+        return message.render(variables, shouldEscapeHtml, budget);
+    }
 
-        while (matcher.find()) {
-            String key = matcher.group(1).trim();
-            Object value = variables.get(key);
+    /**
+     * Variante do caminho de execução: falhas de payload não lançam exceção e são devolvidas em conjunto,
+     * para que a resposta liste todas as variáveis ausentes ou incompatíveis de uma só vez.
+     * @param message Mensagem compilada via {@link #compileMessage(String, String, String)}.
+     * @param variables Mapa de contexto fornecido para a execução.
+     * @param shouldEscapeHtml Ativa a sanitização do corpo para proteção contra Cross-Site Scripting (XSS).
+     * @return Mensagem renderizada ou a lista de falhas.
+     */
+    public RenderResult tryRenderMessage(CompiledMessage message, Map<String, Object> variables, boolean shouldEscapeHtml) {
+        return message.tryRender(variables, shouldEscapeHtml, budget);
+    }
+
+    /**
+     * Prepara uma execução em streaming: renderiza o assunto e verifica o corpo compartilhando a resolução de variáveis.
+     * @param message Mensagem compilada via {@link #compileMessage(String, String, String)}.
+     * @param variables Mapa de contexto fornecido para a execução.
+     * @return Assunto renderizado, ou null quando a versão não define assunto.
+     */
+    public String prepareStreaming(CompiledMessage message, Map<String, Object> variables) {
+        return message.prepareStreaming(variables, budget);
+    }
+
+    /**
+     * Confirma que o contexto atende a todos os placeholders e ao orçamento de execução antes de uma renderização em streaming.
+     * @param template Template compilado via {@link #compile(String, String)}.
+     * @param variables Mapa de contexto fornecido para a execução.
+     */
+    public void requireVariables(CompiledTemplate template, Map<String, Object> variables) {
+        template.requireVariables(variables, budget);
+    }
 
-            if (value == null) {
-                throw new BusinessException(
-                        "Variável obrigatória ausente no contexto: " + key,
-                        "MISSING_REQUIRED_VARIABLE"
-                );
-            }
+    /**
+     * Renderiza o template diretamente em um Writer, sem materializar o conteúdo completo no heap.
+     * @param template Template compilado via {@link #compile(String, String)}.
+     * @param variables Mapa de contexto previamente validado via {@link #requireVariables(CompiledTemplate, Map)}.
+     * @param shouldEscapeHtml Ativa a sanitização para proteção contra Cross-Site Scripting (XSS).
+     * @param writer Destino da escrita.
+     */
+    public void renderTo(CompiledTemplate template, Map<String, Object> variables, boolean shouldEscapeHtml, Writer writer) throws IOException {
+        template.renderTo(writer, variables, shouldEscapeHtml, budget);
+    }
 
-            String stringValue = value.toString();
-            String processedValue = shouldEscapeHtml ? HtmlUtils.htmlEscape(stringValue) : stringValue;
+    /**
+     * Renderiza o template como UTF-8 em um OutputStream, em blocos de tamanho fixo.
+     * Os trechos literais já estão codificados no template compilado; apenas os valores são codificados.
+     * @param template Template compilado via {@link #compile(String, String)}.
+     * @param variables Mapa de contexto previamente validado via {@link #requireVariables(CompiledTemplate, Map)}.
+     * @param shouldEscapeHtml Ativa a sanitização para proteção contra Cross-Site Scripting (XSS).
+     * @param out Destino da escrita; não é fechado ao final.
+     */
+    public void renderTo(CompiledTemplate template, Map<String, Object> variables, boolean shouldEscapeHtml, OutputStream out) throws IOException {
+        Utf8Buffer buffer = Utf8Buffer.streaming(out, STREAM_BUFFER_SIZE);
+        template.renderTo(buffer, variables, shouldEscapeHtml, budget);
+        buffer.flush();
+    }
 
-            matcher.appendReplacement(sb, Matcher.quoteReplacement(processedValue));
+    /**
+     * Renderiza o template como UTF-8 em um buffer reutilizável mantido pelo chamador.
+     * O conteúdo é acrescentado ao final do buffer; cabe ao chamador invocar {@link Utf8Buffer#clear()} entre usos.
+     * @param template Template compilado via {@link #compile(String, String)}.
+     * @param variables Mapa de contexto fornecido para a execução.
+     * @param shouldEscapeHtml Ativa a sanitização para proteção contra Cross-Site Scripting (XSS).
+     * @param buffer Buffer de destino.
+     */
+    public void renderUtf8(CompiledTemplate template, Map<String, Object> variables, boolean shouldEscapeHtml, Utf8Buffer buffer) {
+        try {
+            template.renderTo(buffer, variables, shouldEscapeHtml, budget);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        matcher.appendTail(sb);
+    }
 
-        return sb.toString();
+    private CompiledTemplate compile(String content, long specializationThreshold, Locale locale, Set<String> guaranteedPaths) {
+        if (content != null && content.length() > MAX_CONTENT_LENGTH) {
+            throw new BusinessException(
+                    "O conteúdo excede o limite de segurança operacional.",
+                    "TEMPLATE_TOO_LARGE"
+            );
+        }
+        return CompiledTemplate.compile(content, specializationThreshold, locale, guaranteedPaths);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,23 @@
+package com.vaas.templateengine.application.service;
+
+import com.vaas.templateengine.domain.model.ExecutionError;
+
+import java.util.List;
+
+/**
+ * Resultado de validação e renderização no caminho de execução, sem exceções como controle de fluxo.
+ * Falhas de payload (variáveis ausentes, tipos incompatíveis, orçamento excedido) são acumuladas e
+ * devolvidas em conjunto; exceções permanecem apenas nas variantes que as convertem para a fronteira HTTP.
+ */
+public sealed interface RenderResult permits RenderResult.Success, RenderResult.Failure {
+
+    /**
+     * @param message Assunto e corpo renderizados.
+     */
+    record Success(RenderedMessage message) implements RenderResult {}
+
+    /**
+     * @param errors Todas as falhas encontradas, na ordem em que ocorreram.
+     */
+    record Failure(List<ExecutionError> errors) implements RenderResult {}
+}
@@ -0,0 +1,195 @@
+package com.vaas.templateengine.application.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Memoização opcional de renderizações para disparos em massa (mesma versão, mesmas variáveis, destinatários diferentes).
+ * A chave combina o versionId (conteúdo imutável) com o SHA-256 de uma forma canônica das variáveis:
+ * mapas com chaves ordenadas e valores marcados pelo tipo, de modo que payloads equivalentes gerem a mesma chave.
+ * Cada inquilino (orgId) possui um cache próprio, limitado pelo tamanho estimado dos resultados em bytes
+ * (max-bytes-per-org), impedindo que um disparo monopolize a memória dos demais. Um orçamento global (max-bytes)
+ * limita a soma entre os inquilinos: sem espaço, o resultado é devolvido sem ser memorizado.
+ * Apenas renderizações bem-sucedidas são memorizadas. A renderização roda fora dos locks do cache, de modo que uma
+ * virtual thread nunca fica presa a um lock do Caffeine durante validação e renderização.
+ */
+@Component
+public class RenderResultCache {
+
+    private static final String METRIC_NAME = "notifications.render.result_cache";
+    /**
+     * Sobrecarga estimada, em bytes, de uma entrada além do texto renderizado (chave, hash e estruturas do cache).
+     */
+    private static final int ENTRY_OVERHEAD_BYTES = 160;
+
+    private final boolean enabled;
+    private final long maxBytesPerOrg;
+    private final long maxBytes;
+    /** Soma dos pesos das entradas de todos os inquilinos, atualizada na inserção e na remoção. */
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final Cache<String, Cache<ResultKey, RenderedMessage>> cachesByOrg;
+    private final MeterRegistry meterRegistry;
+
+    public RenderResultCache(
+            @Value("${template-engine.render.result-cache.enabled:false}") boolean enabled,
+            @Value("${template-engine.render.result-cache.max-bytes-per-org:8388608}") long maxBytesPerOrg,
+            @Value("${template-engine.render.result-cache.max-bytes:134217728}") long maxBytes,
+            @Value("${template-engine.render.result-cache.max-orgs:500}") long maxOrgs,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxBytesPerOrg = maxBytesPerOrg;
+        this.maxBytes = maxBytes;
+        this.cachesByOrg = Caffeine.newBuilder()
+                .executor(Runnable::run)
+                .maximumSize(maxOrgs)
+                // O cache descartado libera as entradas do orçamento global pelo próprio removalListener
+                .removalListener((String tenant, Cache<ResultKey, RenderedMessage> cache, RemovalCause cause) -> {
+                    if (cache != null) {
+                        cache.invalidateAll();
+                    }
+                })
+                .build();
+        this.meterRegistry = meterRegistry;
+        if (enabled) {
+            meterRegistry.gauge(METRIC_NAME + ".bytes", totalBytes);
+        }
+    }
+
+    /**
+     * Retorna a renderização memorizada para a combinação versão/variáveis ou executa o renderizador informado.
+     * Falhas do renderizador (validação, variáveis ausentes) são devolvidas ao chamador e nunca memorizadas.
+     * @param orgId Inquilino dono do template.
+     * @param versionId Versão publicada executada.
+     * @param variables Variáveis da execução.
+     * @param renderer Validação e renderização completas, executadas apenas em caso de ausência.
+     * @return Resultado memorizado ou recém-renderizado.
+     */
+    public RenderResult getOrRender(String orgId, String versionId, Map<String, Object> variables, Supplier<RenderResult> renderer) {
+        if (!enabled) {
+            return renderer.get();
+        }
+
+        String tenant = orgId != null ? orgId : "UNKNOWN";
+        Cache<ResultKey, RenderedMessage> cache = cachesByOrg.get(tenant, key -> Caffeine.newBuilder()
+                // Remoções processadas na própria thread mantêm o orçamento global em dia
+                .executor(Runnable::run)
+                .maximumWeight(maxBytesPerOrg)
+                .weigher((ResultKey resultKey, RenderedMessage message) -> weigh(message))
+                .removalListener((ResultKey resultKey, RenderedMessage message, RemovalCause cause) -> {
+                    if (message != null) {
+                        totalBytes.addAndGet(-weigh(message));
+                    }
+                })
+                .build());
+
+        // A renderização roda fora do compute do cache, que manteria o lock do bin durante validação e renderização;
+        // requisições simultâneas com a mesma chave podem renderizar em duplicidade, e a última gravação prevalece
+        ResultKey resultKey = new ResultKey(versionId, fingerprint(variables));
+        RenderedMessage cached = cache.getIfPresent(resultKey);
+        if (cached != null) {
+            meterRegistry.counter(METRIC_NAME, "result", "hit", "orgId", tenant).increment();
+            return new RenderResult.Success(cached);
+        }
+
+        RenderResult rendered = renderer.get();
+        if (rendered instanceof RenderResult.Success success && reserve(success.message())) {
+            cache.put(resultKey, success.message());
+        }
+        meterRegistry.counter(METRIC_NAME, "result", "miss", "orgId", tenant).increment();
+        return rendered;
+    }
+
+    /**
+     * Reserva o peso do resultado no orçamento global; a remoção da entrada, inclusive por exceder o limite do
+     * inquilino, devolve a reserva.
+     */
+    private boolean reserve(RenderedMessage message) {
+        int weight = weigh(message);
+        if (totalBytes.addAndGet(weight) > maxBytes) {
+            totalBytes.addAndGet(-weight);
+            return false;
+        }
+        return true;
+    }
+
+    private static int weigh(RenderedMessage message) {
+        long chars = length(message.subject()) + length(message.body());
+        return (int) Math.min(Integer.MAX_VALUE, ENTRY_OVERHEAD_BYTES + chars * Character.BYTES);
+    }
+
+    private static long length(String value) {
+        return value != null ? value.length() : 0;
+    }
+
+    static byte[] fingerprint(Map<String, Object> variables) {
+        StringBuilder canonical = new StringBuilder(256);
+        appendCanonical(canonical, variables);
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM.", e);
+        }
+    }
+
+    private static void appendCanonical(StringBuilder out, Object value) {
+        switch (value) {
+            case null -> out.append('n');
+            case Map<?, ?> map -> {
+                Map<String, Object> sorted = new TreeMap<>();
+                map.forEach((key, nested) -> sorted.put(String.valueOf(key), nested));
+                out.append('{');
+                sorted.forEach((key, nested) -> {
+                    appendText(out, key);
+                    appendCanonical(out, nested);
+                });
+                out.append('}');
+            }
+            case Collection<?> collection -> {
+                out.append('[');
+                collection.forEach(element -> appendCanonical(out, element));
+                out.append(']');
+            }
+            case CharSequence text -> {
+                out.append('s');
+                appendText(out, text.toString());
+            }
+            default -> {
+                out.append('v').append(value.getClass().getName()).append(':');
+                appendText(out, value.toString());
+            }
+        }
+    }
+
+    private static void appendText(StringBuilder out, String text) {
+        out.append(text.length()).append(':').append(text);
+    }
+
+    private record ResultKey(String versionId, byte[] variablesHash) {
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof ResultKey key
+                    && versionId.equals(key.versionId)
+                    && Arrays.equals(variablesHash, key.variablesHash);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * versionId.hashCode() + Arrays.hashCode(variablesHash);
+        }
+    }
+}
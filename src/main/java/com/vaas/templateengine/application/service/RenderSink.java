@@ -0,0 +1,66 @@
+package com.vaas.templateengine.application.service;
+
+import java.io.IOException;
+
+/**
+ * Destino de escrita do laço de renderização.
+ * Permite que o mesmo percurso sobre os segmentos compilados produza caracteres (Appendable)
+ * ou bytes UTF-8 (Utf8Buffer), sem duplicar a lógica de resolução de variáveis.
+ */
+interface RenderSink {
+
+    /**
+     * Escreve um trecho estático do template.
+     */
+    void literal(CompiledTemplate.Literal literal) throws IOException;
+
+    /**
+     * Escreve o valor resolvido de uma variável, aplicando a sanitização HTML quando solicitada.
+     */
+    void value(String value, boolean escapeHtml) throws IOException;
+
+    /**
+     * Destino sem saída, usado nas verificações antecipadas que apenas percorrem o template.
+     */
+    RenderSink DISCARD = new RenderSink() {
+        @Override
+        public void literal(CompiledTemplate.Literal literal) {
+        }
+
+        @Override
+        public void value(String value, boolean escapeHtml) {
+        }
+    };
+
+    static RenderSink of(Appendable out) {
+        return new RenderSink() {
+            @Override
+            public void literal(CompiledTemplate.Literal literal) throws IOException {
+                out.append(literal.text());
+            }
+
+            @Override
+            public void value(String value, boolean escapeHtml) throws IOException {
+                if (escapeHtml) {
+                    HtmlEscaper.escape(value, out);
+                } else {
+                    out.append(value);
+                }
+            }
+        };
+    }
+
+    static RenderSink of(Utf8Buffer out) {
+        return new RenderSink() {
+            @Override
+            public void literal(CompiledTemplate.Literal literal) throws IOException {
+                out.write(literal.utf8());
+            }
+
+            @Override
+            public void value(String value, boolean escapeHtml) throws IOException {
+                out.writeUtf8(value, escapeHtml);
+            }
+        };
+    }
+}
@@ -0,0 +1,8 @@
+package com.vaas.templateengine.application.service;
+
+/**
+ * Resultado da renderização conjunta de uma versão.
+ * @param subject Assunto renderizado em texto puro, ou null quando a versão não define assunto.
+ * @param body Corpo renderizado, sanitizado conforme o canal.
+ */
+public record RenderedMessage(String subject, String body) {}
@@ -1,11 +1,9 @@
 package com.vaas.templateengine.application.service;
 
+import com.vaas.templateengine.domain.model.ExecutionError;
 import com.vaas.templateengine.domain.model.InputVariable;
-import com.vaas.templateengine.domain.model.VariableType;
-import com.vaas.templateengine.shared.exception.BusinessException;
 import org.springframework.stereotype.Component;
 
-import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
 
@@ -13,66 +11,39 @@ import java.util.Map;
  * Componente de validação clínica de payloads de entrada.
  * Garante a conformidade entre os dados fornecidos em tempo de execução e o contrato
  * definido no schema do template, prevenindo falhas de renderização.
+ * O schema é executado na forma de um {@link ValidationPlan}; versões publicadas reutilizam o plano
+ * mantido no cache de compilação, enquanto schemas avulsos são compilados a cada chamada.
  */
 @Component
 public class SchemaValidator {
 
     /**
      * Valida recursivamente a obrigatoriedade e os tipos de dados das variáveis.
+     * Variáveis do tipo OBJECT têm seus atributos aninhados validados com o caminho pontuado completo;
+     * em variáveis do tipo LIST, cada item é validado com o seu índice no caminho (ex.: items.0.name).
      * @param inputVariables Definição do contrato esperado pelo template.
      * @param providedVariables Valores reais fornecidos para processamento.
      */
     public void validate(List<InputVariable> inputVariables, Map<String, Object> providedVariables) {
-        if (inputVariables == null || inputVariables.isEmpty()) {
-            return;
-        }
-
-        for (InputVariable schemaVar : inputVariables) {
-            Object value = providedVariables.get(schemaVar.name());
-
-            if (schemaVar.required() && value == null) {
-                throw new BusinessException(
-                        "Atributo obrigatório não informado: " + schemaVar.name(),
-                        "MISSING_REQUIRED_VARIABLE"
-                );
-            }
-
-            if (value != null) {
-                validateType(schemaVar.name(), schemaVar.type(), value);
-            }
-        }
+        ValidationPlan.of(inputVariables).validate(providedVariables);
     }
 
-    private void validateType(String name, VariableType expectedType, Object value) {
-        boolean isValid = switch (expectedType) {
-            case STRING -> value instanceof String;
-            case NUMBER -> value instanceof Number;
-            case BOOLEAN -> value instanceof Boolean;
-            case DATE -> isValidDate(value);
-        };
-
-        if (!isValid) {
-            throw new BusinessException(
-                    String.format("Incompatibilidade de tipo para '%s'. Esperado: %s", name, expectedType),
-                    "INVALID_VARIABLE_TYPE"
-            );
-        }
+    /**
+     * Executa um plano previamente compilado, sem reprocessar a definição do schema.
+     * @param plan Plano obtido de {@link CompiledMessage#validationPlan()}.
+     * @param providedVariables Valores reais fornecidos para processamento.
+     */
+    public void validate(ValidationPlan plan, Map<String, Object> providedVariables) {
+        plan.validate(providedVariables);
     }
 
-    private boolean isValidDate(Object value) {
-        if (value instanceof String str) {
-            try {
-                java.time.OffsetDateTime.parse(str);
-                return true;
-            } catch (DateTimeParseException e) {
-                try {
-                    java.time.LocalDate.parse(str);
-                    return true;
-                } catch (DateTimeParseException e2) {
-                    return false;
-                }
-            }
-        }
-        return false;
+    /**
+     * Variante do caminho de execução: reúne todas as falhas do payload em vez de interromper na primeira.
+     * @param plan Plano obtido de {@link CompiledMessage#validationPlan()}.
+     * @param providedVariables Valores reais fornecidos para processamento.
+     * @return Falhas encontradas; vazia quando o payload é válido.
+     */
+    public List<ExecutionError> check(ValidationPlan plan, Map<String, Object> providedVariables) {
+        return plan.check(providedVariables);
     }
-}
\ No newline at end of file
+}
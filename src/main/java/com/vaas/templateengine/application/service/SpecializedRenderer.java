@@ -0,0 +1,216 @@
+package com.vaas.templateengine.application.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Segunda camada de execução para versões quentes, gerada a partir da árvore do {@link CompiledTemplate}.
+ * Templates com seções viram uma árvore de MethodHandles montada uma única vez, com literais, caminhos e corpos
+ * ligados como constantes; sem despacho por tipo de segmento nem a indireção do {@link RenderSink} a cada
+ * renderização. Cada sequência de segmentos é um vetor de nós percorrido em laço, de modo que a profundidade
+ * da pilha acompanha apenas o aninhamento de seções, e não o tamanho do template.
+ * Templates sem seções seguem um roteiro ainda mais direto: as variáveis são resolvidas em ordem fixa,
+ * o tamanho exato da saída é calculado antes da escrita e o buffer é alocado uma única vez.
+ * A semântica (falhas registradas no contexto, orçamento, sanitização) é idêntica à da forma interpretada.
+ */
+final class SpecializedRenderer {
+
+    /** (out, context, escapeHtml, item) -> void, a assinatura de todos os nós da árvore. */
+    private static final MethodType NODE = MethodType.methodType(void.class,
+            StringBuilder.class, RenderContext.class, boolean.class, Object.class);
+    private static final MethodHandle LITERAL;
+    private static final MethodHandle PLACEHOLDER;
+    private static final MethodHandle EACH;
+    private static final MethodHandle TRUTHY;
+    private static final MethodHandle RUN;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            LITERAL = lookup.findStatic(SpecializedRenderer.class, "literal", NODE.insertParameterTypes(0, String.class));
+            PLACEHOLDER = lookup.findStatic(SpecializedRenderer.class, "placeholder",
+                    NODE.insertParameterTypes(0, CompiledTemplate.Placeholder.class));
+            EACH = lookup.findStatic(SpecializedRenderer.class, "each",
+                    NODE.insertParameterTypes(0, VariablePath.class, MethodHandle.class));
+            TRUTHY = lookup.findStatic(SpecializedRenderer.class, "truthy",
+                    NODE.changeReturnType(boolean.class).insertParameterTypes(0, VariablePath.class));
+            RUN = lookup.findStatic(SpecializedRenderer.class, "run", NODE.insertParameterTypes(0, MethodHandle[].class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final MethodHandle tree;
+    private final String[] literals;
+    private final CompiledTemplate.Placeholder[] slots;
+    private final int[] slotOfStep;
+    private final int literalLength;
+
+    private SpecializedRenderer(MethodHandle tree, String[] literals, CompiledTemplate.Placeholder[] slots, int[] slotOfStep,
+                                int literalLength) {
+        this.tree = tree;
+        this.literals = literals;
+        this.slots = slots;
+        this.slotOfStep = slotOfStep;
+        this.literalLength = literalLength;
+    }
+
+    static SpecializedRenderer of(List<CompiledTemplate.Segment> segments, int literalLength) {
+        boolean flat = segments.stream().allMatch(segment ->
+                segment instanceof CompiledTemplate.Literal || segment instanceof CompiledTemplate.Placeholder);
+        if (!flat) {
+            return new SpecializedRenderer(sequence(segments), null, null, null, literalLength);
+        }
+
+        Map<String, Integer> slotIndexes = new LinkedHashMap<>();
+        List<CompiledTemplate.Placeholder> slots = new ArrayList<>();
+        String[] literals = new String[segments.size()];
+        int[] slotOfStep = new int[segments.size()];
+        for (int i = 0; i < segments.size(); i++) {
+            if (segments.get(i) instanceof CompiledTemplate.Placeholder placeholder) {
+                slotOfStep[i] = slotIndexes.computeIfAbsent(placeholder.key(), key -> {
+                    slots.add(placeholder);
+                    return slots.size() - 1;
+                });
+            } else {
+                literals[i] = ((CompiledTemplate.Literal) segments.get(i)).text();
+                slotOfStep[i] = -1;
+            }
+        }
+        return new SpecializedRenderer(null, literals, slots.toArray(new CompiledTemplate.Placeholder[0]), slotOfStep, literalLength);
+    }
+
+    String render(RenderContext context, boolean escapeHtml) {
+        try {
+            return slots != null ? renderFlat(context, escapeHtml) : renderTree(context, escapeHtml);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Roteiro fixo: resolve (e formata) cada slot uma vez, na ordem da primeira ocorrência, e dimensiona a saída exatamente
+     * (ou com folga para entidades, quando há sanitização).
+     */
+    private String renderFlat(RenderContext context, boolean escapeHtml) throws IOException {
+        String[] values = new String[slots.length];
+        long length = 0;
+        for (int i = 0; i < slotOfStep.length; i++) {
+            int slot = slotOfStep[i];
+            int chars;
+            if (slot < 0) {
+                chars = literals[i].length();
+            } else {
+                if (values[slot] == null) {
+                    CompiledTemplate.Placeholder placeholder = slots[slot];
+                    values[slot] = placeholder.formatter() == null
+                            ? context.textOnce(placeholder.path(), placeholder.guaranteed())
+                            : placeholder.text(context, null);
+                }
+                chars = values[slot].length();
+            }
+            context.consumeOutput(chars);
+            if (context.halted()) {
+                return "";
+            }
+            length += chars;
+        }
+        if (context.failed()) {
+            return "";
+        }
+
+        StringBuilder out = new StringBuilder((int) Math.min(escapeHtml ? length + (length >> 3) : length, Integer.MAX_VALUE - 8));
+        for (int i = 0; i < slotOfStep.length; i++) {
+            int slot = slotOfStep[i];
+            if (slot < 0) {
+                out.append(literals[i]);
+            } else if (escapeHtml) {
+                HtmlEscaper.escape(values[slot], out);
+            } else {
+                out.append(values[slot]);
+            }
+        }
+        return out.toString();
+    }
+
+    private String renderTree(RenderContext context, boolean escapeHtml) throws IOException {
+        StringBuilder out = new StringBuilder(literalLength + 64);
+        try {
+            tree.invokeExact(out, context, escapeHtml, (Object) null);
+        } catch (IOException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Sequência de segmentos como vetor de nós executado por {@link #run}; aninhar um combinador por segmento
+     * faria a pilha crescer com o tamanho do template.
+     */
+    private static MethodHandle sequence(List<CompiledTemplate.Segment> segments) {
+        MethodHandle[] nodes = new MethodHandle[segments.size()];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = node(segments.get(i));
+        }
+        return MethodHandles.insertArguments(RUN, 0, (Object) nodes);
+    }
+
+    private static MethodHandle node(CompiledTemplate.Segment segment) {
+        return switch (segment) {
+            case CompiledTemplate.Literal literal -> MethodHandles.insertArguments(LITERAL, 0, literal.text());
+            case CompiledTemplate.Placeholder placeholder -> MethodHandles.insertArguments(PLACEHOLDER, 0, placeholder);
+            case CompiledTemplate.Each each -> MethodHandles.insertArguments(EACH, 0, each.path(), sequence(each.body()));
+            case CompiledTemplate.Conditional conditional -> MethodHandles.guardWithTest(
+                    MethodHandles.insertArguments(TRUTHY, 0, conditional.path()),
+                    sequence(conditional.whenTrue()),
+                    sequence(conditional.whenFalse()));
+        };
+    }
+
+    private static void literal(String text, StringBuilder out, RenderContext context, boolean escapeHtml, Object item) {
+        context.consumeOutput(text.length());
+        out.append(text);
+    }
+
+    private static void placeholder(CompiledTemplate.Placeholder placeholder, StringBuilder out, RenderContext context,
+                                    boolean escapeHtml, Object item) throws IOException {
+        String text = placeholder.text(context, item);
+        context.consumeOutput(text.length());
+        if (escapeHtml) {
+            HtmlEscaper.escape(text, out);
+        } else {
+            out.append(text);
+        }
+    }
+
+    private static void each(VariablePath path, MethodHandle body, StringBuilder out, RenderContext context,
+                             boolean escapeHtml, Object item) throws Throwable {
+        for (Object element : context.iterable(path, item)) {
+            context.consumeIteration();
+            if (context.halted()) {
+                return;
+            }
+            body.invokeExact(out, context, escapeHtml, element);
+        }
+    }
+
+    private static boolean truthy(VariablePath path, StringBuilder out, RenderContext context, boolean escapeHtml, Object item) {
+        return CompiledTemplate.isTruthy(context.resolve(path, item));
+    }
+
+    private static void run(MethodHandle[] nodes, StringBuilder out, RenderContext context, boolean escapeHtml,
+                            Object item) throws Throwable {
+        for (int i = 0; i < nodes.length && !context.halted(); i++) {
+            nodes[i].invokeExact(out, context, escapeHtml, item);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.vaas.templateengine.application.service;
+
+import com.vaas.templateengine.domain.model.Channel;
+import com.vaas.templateengine.domain.model.NotificationExecution;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Resultado de uma execução em modo streaming.
+ * Carrega o registro de auditoria já persistido e a escrita adiada do corpo renderizado,
+ * executada pelo adaptador de entrada diretamente sobre o canal de resposta.
+ * @param execution Registro de auditoria da execução.
+ * @param channel Canal do template, usado para definir o tipo de conteúdo da resposta.
+ * @param body Escrita do conteúdo renderizado em UTF-8.
+ */
+public record StreamingExecution(NotificationExecution execution, Channel channel, RenderedBody body) {
+
+    /**
+     * Escrita adiada do conteúdo renderizado.
+     */
+    @FunctionalInterface
+    public interface RenderedBody {
+        void writeTo(OutputStream out) throws IOException;
+    }
+}
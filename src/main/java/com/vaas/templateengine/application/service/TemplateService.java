@@ -18,8 +18,10 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
 
@@ -38,17 +40,22 @@ public class TemplateService {
     private final TemplateStatsRepository statsRepository;
     private final SchemaValidator schemaValidator;
     private final RenderEngine renderEngine;
+    private final RenderResultCache resultCache;
+    private final PublishedVersionCache publishedVersions;
     private final NotificationProducer eventProducer;
     private final MeterRegistry meterRegistry;
 
+    private static final String VALIDATION_FAILURE_CONTENT = "Falha de validação técnica.";
+
     @Transactional
-    public NotificationTemplate createTemplate(String name, String description, Channel channel, String orgId, String workspaceId) {
+    public NotificationTemplate createTemplate(String name, String description, Channel channel, String orgId, String workspaceId, String locale) {
         NotificationTemplate template = NotificationTemplate.builder()
                 .name(name)
                 .description(description)
                 .channel(channel)
                 .orgId(orgId)
                 .workspaceId(workspaceId)
+                .locale(normalizeLocale(locale))
                 .status(TemplateStatus.ACTIVE)
                 .createdAt(OffsetDateTime.now())
                 .updatedAt(OffsetDateTime.now())
@@ -98,7 +105,9 @@ public class TemplateService {
                 .build();
 
         template.addVersion(newVersion);
-        return templateRepository.save(template);
+        NotificationTemplate saved = templateRepository.save(template);
+        eventProducer.publish(new TemplateVersionUpdatedEvent(id, OffsetDateTime.now(), newVersion.getId()));
+        return saved;
     }
 
     @Transactional
@@ -110,10 +119,12 @@ public class TemplateService {
         version.updateContent(body, subject, schema, changelog);
         template.setUpdatedAt(OffsetDateTime.now());
 
-        return templateRepository.save(template);
+        NotificationTemplate saved = templateRepository.save(template);
+        eventProducer.publish(new TemplateVersionUpdatedEvent(templateId, OffsetDateTime.now(), versionId));
+        return saved;
     }
 
-    @Cacheable(value = "templates", key = "#id")
+    @Cacheable(value = "templates", key = "#id", sync = true)
     public NotificationTemplate getById(String id) {
         return templateRepository.findById(id)
                 .orElseThrow(() -> new BusinessException("Template não encontrado: " + id, "TEMPLATE_NOT_FOUND"));
@@ -124,14 +135,28 @@ public class TemplateService {
                 .orElse(TemplateStatsView.builder().templateId(templateId).build());
     }
 
+    /**
+     * Consulta o registro de auditoria de uma execução do template, com o conteúdo renderizado completo.
+     */
+    public NotificationExecution getExecution(String templateId, String executionId) {
+        return executionRepository.findById(executionId)
+                .filter(execution -> execution.getTemplateId().equals(templateId))
+                .orElseThrow(() -> new BusinessException("Execução não encontrada: " + executionId, "EXECUTION_NOT_FOUND"));
+    }
+
     @Transactional
     @CacheEvict(value = "templates", key = "#templateId")
     public NotificationTemplate publishVersion(String templateId, String versionId) {
         NotificationTemplate template = getById(templateId);
         TemplateVersion version = template.getVersion(versionId);
 
-        version.publish();
+        // Rejeita sintaxe inválida e placeholders não declarados antes que a versão se torne imutável
+        TemplateAnalysis analysis = renderEngine.analyze(version.getSubject(), version.getBody(),
+                version.getInputSchema(), template.resolveLocale());
+        template.publishVersion(versionId, analysis);
         NotificationTemplate saved = templateRepository.save(template);
+        publishedVersions.invalidate(templateId);
+        compile(template, version);
 
         eventProducer.publish(new TemplateVersionPublishedEvent(templateId, OffsetDateTime.now(), versionId));
         return saved;
@@ -143,13 +168,141 @@ public class TemplateService {
         NotificationTemplate template = getById(templateId);
         template.archive();
         templateRepository.save(template);
+        publishedVersions.invalidate(templateId);
         eventProducer.publish(new TemplateArchivedEvent(templateId, OffsetDateTime.now()));
     }
 
     @Transactional
     public NotificationExecution executeTemplate(String templateId, String versionId, List<String> recipients, Map<String, Object> variables) {
-        NotificationTemplate template = getById(templateId);
+        return execute(templateId, versionId, recipients, variables, false);
+    }
+
+    /**
+     * Variante para chamadores internos com variáveis de custo elevado (tabelas formatadas, consultas).
+     * O resolvedor é consultado apenas para as variáveis referenciadas pela versão executada, cada uma no máximo
+     * uma vez. O schema é validado somente para essas variáveis, e o snapshot de auditoria contém apenas
+     * os valores efetivamente resolvidos.
+     */
+    @Transactional
+    public NotificationExecution executeTemplate(String templateId, String versionId, List<String> recipients, VariableResolver resolver) {
+        return execute(templateId, versionId, recipients, new LazyVariables(resolver), true);
+    }
+
+    private NotificationExecution execute(String templateId, String versionId, List<String> recipients,
+                                          Map<String, Object> variables, boolean referencedSchemaOnly) {
+        NotificationTemplate template = publishedVersions.get(templateId, versionId);
+        TemplateVersion version = resolveExecutableVersion(template, versionId);
+
+        RenderResult result = render(template, version, variables, referencedSchemaOnly);
+        Map<String, Object> snapshot = variables instanceof LazyVariables lazy ? lazy.snapshot() : variables;
+        return recordExecution(template, toExecution(template, version, recipients, snapshot, result));
+    }
+
+    /**
+     * Executa o mesmo template para N itens (destinatários e variáveis) em uma única chamada.
+     * Template e versão são resolvidos uma vez; os itens são renderizados em paralelo, persistidos com uma
+     * única escrita em lote e reportados à projeção de estatísticas por um único evento com os totais.
+     * Falhas de um item não afetam os demais: cada um recebe o próprio status e lista de erros.
+     * @return Execuções na mesma ordem dos itens recebidos.
+     */
+    @Transactional
+    public List<NotificationExecution> executeBatch(String templateId, String versionId, List<BatchExecutionItem> items) {
+        NotificationTemplate template = publishedVersions.get(templateId, versionId);
+        TemplateVersion version = resolveExecutableVersion(template, versionId);
+
+        // A renderização é CPU-bound e sem I/O; o stream paralelo preserva a ordem dos itens no resultado
+        List<NotificationExecution> executions = items.parallelStream()
+                .map(item -> toExecution(template, version, item.recipients(), item.variables(),
+                        render(template, version, item.variables(), false)))
+                .toList();
+
+        List<NotificationExecution> saved = executionRepository.saveAll(executions);
+        long successes = saved.stream().filter(execution -> execution.getStatus() == ExecutionStatus.SUCCESS).count();
+        long errors = saved.size() - successes;
+
+        eventProducer.publish(new NotificationBatchDispatchedEvent(template.getId(), successes, errors));
+        recordMetric(template, ExecutionStatus.SUCCESS.name(), successes);
+        recordMetric(template, ExecutionStatus.VALIDATION_ERROR.name(), errors);
+        return saved;
+    }
+
+    private RenderResult render(NotificationTemplate template, TemplateVersion version,
+                                Map<String, Object> variables, boolean referencedSchemaOnly) {
+        try {
+            // O caminho preguiçoso não passa pela memoização: calcular a chave exigiria resolver todas as variáveis
+            return referencedSchemaOnly
+                    ? validateAndRender(template, version, variables, true)
+                    : resultCache.getOrRender(template.getOrgId(), version.getId(), variables,
+                            () -> validateAndRender(template, version, variables, false));
+        } catch (BusinessException e) {
+            // Falhas de compilação (conteúdo ou formato inválido) não dependem do payload e seguem como erro único
+            return new RenderResult.Failure(List.of(new ExecutionError(e.getCode(), null, e.getMessage())));
+        }
+    }
+
+    /**
+     * Variante de execução em que o corpo renderizado é escrito diretamente no destino do chamador.
+     * Validação e verificação de placeholders ocorrem antes do retorno, de modo que a escrita posterior
+     * não falhe após o envio parcial da resposta. O log de auditoria armazena apenas o assunto renderizado:
+     * materializar o corpo para gravá-lo anularia o ganho do streaming. A consulta da execução
+     * ({@link #getExecution}) o retorna sem renderedContent, como documentado no contrato da API; o corpo é
+     * reproduzível a partir da versão publicada (imutável) e do snapshot de variáveis.
+     */
+    @Transactional
+    public StreamingExecution executeTemplateStreaming(String templateId, String versionId, List<String> recipients, Map<String, Object> variables) {
+        NotificationTemplate template = publishedVersions.get(templateId, versionId);
+        TemplateVersion version = resolveExecutableVersion(template, versionId);
+        boolean escapeHtml = template.getChannel() == Channel.EMAIL;
 
+        try {
+            CompiledMessage compiled = compile(template, version);
+            schemaValidator.validate(compiled.validationPlan(), variables);
+            String renderedSubject = renderEngine.prepareStreaming(compiled, variables);
+
+            NotificationExecution saved = recordExecution(template, newExecution(template, version, recipients, variables,
+                    renderedSubject, null, ExecutionStatus.SUCCESS, null));
+            return new StreamingExecution(saved, template.getChannel(),
+                    out -> renderEngine.renderTo(compiled.body(), variables, escapeHtml, out));
+        } catch (BusinessException e) {
+            NotificationExecution saved = recordExecution(template, newExecution(template, version, recipients, variables,
+                    null, VALIDATION_FAILURE_CONTENT, ExecutionStatus.VALIDATION_ERROR,
+                    List.of(new ExecutionError(e.getCode(), null, e.getMessage()))));
+            return new StreamingExecution(saved, template.getChannel(),
+                    out -> out.write(VALIDATION_FAILURE_CONTENT.getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    private String normalizeLocale(String locale) {
+        if (locale == null || locale.isBlank()) {
+            return NotificationTemplate.DEFAULT_LOCALE;
+        }
+        Locale parsed = Locale.forLanguageTag(locale);
+        if (parsed.getLanguage().isEmpty()) {
+            throw new BusinessException("Localidade inválida: " + locale + ". Utilize o formato BCP 47 (ex.: pt-BR).", "INVALID_LOCALE");
+        }
+        return parsed.toLanguageTag();
+    }
+
+    /**
+     * Validação e renderização sem exceções por falha de payload: todas as variáveis ausentes ou incompatíveis
+     * são reunidas no resultado. A renderização só ocorre quando o payload atende ao schema.
+     */
+    private RenderResult validateAndRender(NotificationTemplate template, TemplateVersion version,
+                                           Map<String, Object> variables, boolean referencedSchemaOnly) {
+        CompiledMessage compiled = compile(template, version);
+        List<ExecutionError> errors = schemaValidator.check(
+                referencedSchemaOnly ? compiled.referencedValidationPlan() : compiled.validationPlan(), variables);
+        if (!errors.isEmpty()) {
+            return new RenderResult.Failure(errors);
+        }
+        return renderEngine.tryRenderMessage(compiled, variables, template.getChannel() == Channel.EMAIL);
+    }
+
+    private CompiledMessage compile(NotificationTemplate template, TemplateVersion version) {
+        return renderEngine.compileMessage(version, template.resolveLocale());
+    }
+
+    private TemplateVersion resolveExecutableVersion(NotificationTemplate template, String versionId) {
         if (template.getStatus() == TemplateStatus.ARCHIVED) {
             recordMetric(template, "ARCHIVED_ERROR");
             throw new BusinessException("Operação negada: template arquivado.", "TEMPLATE_ARCHIVED");
@@ -161,37 +314,53 @@ public class TemplateService {
             recordMetric(template, "DRAFT_ERROR");
             throw new BusinessException("Versão em rascunho não pode ser executada.", "VERSION_NOT_PUBLISHED");
         }
+        return version;
+    }
 
-        ExecutionStatus status = ExecutionStatus.SUCCESS;
-        String renderedContent;
-
-        try {
-            schemaValidator.validate(version.getInputSchema(), variables);
-            renderedContent = renderEngine.render(version.getBody(), variables, template.getChannel() == Channel.EMAIL);
-        } catch (BusinessException e) {
-            status = ExecutionStatus.VALIDATION_ERROR;
-            renderedContent = "Falha de validação técnica.";
-        }
+    private NotificationExecution toExecution(NotificationTemplate template, TemplateVersion version, List<String> recipients,
+                                              Map<String, Object> variables, RenderResult result) {
+        return switch (result) {
+            case RenderResult.Success success -> newExecution(template, version, recipients, variables,
+                    success.message().subject(), success.message().body(), ExecutionStatus.SUCCESS, null);
+            case RenderResult.Failure failure -> newExecution(template, version, recipients, variables,
+                    null, VALIDATION_FAILURE_CONTENT, ExecutionStatus.VALIDATION_ERROR, failure.errors());
+        };
+    }
 
-        NotificationExecution execution = NotificationExecution.builder()
-                .id(UUID.randomUUID().toString())
-                .templateId(templateId)
+    private NotificationExecution newExecution(NotificationTemplate template, TemplateVersion version, List<String> recipients,
+                                               Map<String, Object> variables, String renderedSubject, String renderedContent,
+                                               ExecutionStatus status, List<ExecutionError> errors) {
+        OffsetDateTime executedOn = OffsetDateTime.now();
+        return NotificationExecution.builder()
+                .id(NotificationExecution.newId(executedOn))
+                .templateId(template.getId())
                 .versionId(version.getId())
                 .recipients(recipients)
                 .variables(variables)
+                .renderedSubject(renderedSubject)
                 .renderedContent(renderedContent)
                 .status(status)
-                .executedOn(OffsetDateTime.now())
+                .errors(errors)
+                .executedOn(executedOn)
                 .build();
+    }
 
+    private NotificationExecution recordExecution(NotificationTemplate template, NotificationExecution execution) {
         NotificationExecution saved = executionRepository.save(execution);
-        eventProducer.publish(new NotificationDispatchedEvent(templateId, status.name()));
-        recordMetric(template, status.name());
+        eventProducer.publish(new NotificationDispatchedEvent(template.getId(), execution.getStatus().name()));
+        recordMetric(template, execution.getStatus().name());
 
         return saved;
     }
 
     private void recordMetric(NotificationTemplate template, String resultStatus) {
+        recordMetric(template, resultStatus, 1);
+    }
+
+    private void recordMetric(NotificationTemplate template, String resultStatus, long amount) {
+        if (amount == 0) {
+            return;
+        }
         String channel = template.getChannel() != null ? template.getChannel().name() : "UNKNOWN";
         String orgId = template.getOrgId() != null ? template.getOrgId() : "UNKNOWN";
 
@@ -199,6 +368,6 @@ public class TemplateService {
                 "channel", channel,
                 "status", resultStatus,
                 "orgId", orgId
-        ).increment();
+        ).increment(amount);
     }
 }
\ No newline at end of file
@@ -0,0 +1,182 @@
+package com.vaas.templateengine.application.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Buffer de bytes UTF-8 reutilizável para o caminho de renderização binário.
+ * Trechos literais chegam pré-codificados pelo template compilado e são apenas copiados;
+ * somente os valores das variáveis são codificados (e escapados) a cada chamada, sem Strings intermediárias.
+ * Em modo streaming, o conteúdo é descarregado no OutputStream a cada bloco completo, limitando o heap por requisição.
+ * Instâncias não são thread-safe: cada worker deve manter o próprio buffer e chamar {@link #clear()} entre usos.
+ */
+public final class Utf8Buffer {
+
+    private static final byte[] LT = "&lt;".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] GT = "&gt;".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] AMP = "&amp;".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] QUOT = "&quot;".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] APOS = "&#39;".getBytes(StandardCharsets.US_ASCII);
+    private static final byte REPLACEMENT = '?';
+    private static final int MAX_BYTES_PER_CHAR = 4;
+
+    private final OutputStream spill;
+    private byte[] bytes;
+    private int position;
+
+    /**
+     * Cria um buffer acumulativo que cresce conforme a necessidade.
+     * @param initialCapacity Capacidade inicial em bytes.
+     */
+    public Utf8Buffer(int initialCapacity) {
+        this(new byte[Math.max(initialCapacity, MAX_BYTES_PER_CHAR)], null);
+    }
+
+    private Utf8Buffer(byte[] bytes, OutputStream spill) {
+        this.bytes = bytes;
+        this.spill = spill;
+    }
+
+    /**
+     * Cria um buffer de tamanho fixo que descarrega seu conteúdo no destino sempre que enche.
+     * @param out Destino final dos bytes; não é fechado pelo buffer.
+     * @param chunkSize Tamanho do bloco em bytes.
+     */
+    public static Utf8Buffer streaming(OutputStream out, int chunkSize) {
+        return new Utf8Buffer(new byte[Math.max(chunkSize, MAX_BYTES_PER_CHAR)], out);
+    }
+
+    /**
+     * Descarta o conteúdo acumulado, preservando a capacidade já alocada para o próximo uso.
+     */
+    public void clear() {
+        position = 0;
+    }
+
+    public int size() {
+        return position;
+    }
+
+    /**
+     * Visão somente leitura do conteúdo acumulado, sem cópia. Válida até a próxima escrita ou {@link #clear()}.
+     */
+    public ByteBuffer asReadOnlyByteBuffer() {
+        return ByteBuffer.wrap(bytes, 0, position).slice().asReadOnlyBuffer();
+    }
+
+    public byte[] toByteArray() {
+        byte[] copy = new byte[position];
+        System.arraycopy(bytes, 0, copy, 0, position);
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        return new String(bytes, 0, position, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Descarrega o conteúdo pendente no destino de streaming, se houver.
+     */
+    public void flush() throws IOException {
+        if (spill != null) {
+            spill.write(bytes, 0, position);
+            position = 0;
+            spill.flush();
+        }
+    }
+
+    void write(byte[] source) throws IOException {
+        if (bytes.length - position >= source.length) {
+            System.arraycopy(source, 0, bytes, position, source.length);
+            position += source.length;
+            return;
+        }
+
+        if (spill != null) {
+            spill.write(bytes, 0, position);
+            position = 0;
+            if (source.length > bytes.length) {
+                spill.write(source);
+                return;
+            }
+        } else {
+            grow(source.length);
+        }
+        System.arraycopy(source, 0, bytes, position, source.length);
+        position += source.length;
+    }
+
+    /**
+     * Codifica o valor em UTF-8 diretamente no buffer, com sanitização HTML opcional fundida à codificação.
+     * Surrogates isolados são substituídos por '?', como em {@link String#getBytes(java.nio.charset.Charset)}.
+     */
+    void writeUtf8(CharSequence value, boolean escapeHtml) throws IOException {
+        int length = value.length();
+
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+
+            if (escapeHtml) {
+                byte[] entity = entityFor(c);
+                if (entity != null) {
+                    write(entity);
+                    continue;
+                }
+            }
+
+            ensureCapacity(MAX_BYTES_PER_CHAR);
+
+            if (c < 0x80) {
+                bytes[position++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[position++] = (byte) (0xC0 | (c >> 6));
+                bytes[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                bytes[position++] = (byte) (0xF0 | (codePoint >> 18));
+                bytes[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                bytes[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                bytes[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                bytes[position++] = REPLACEMENT;
+            } else {
+                bytes[position++] = (byte) (0xE0 | (c >> 12));
+                bytes[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private void ensureCapacity(int needed) throws IOException {
+        if (bytes.length - position >= needed) {
+            return;
+        }
+        if (spill != null) {
+            spill.write(bytes, 0, position);
+            position = 0;
+        } else {
+            grow(needed);
+        }
+    }
+
+    private void grow(int needed) {
+        int capacity = Math.max(bytes.length * 2, position + needed);
+        byte[] expanded = new byte[capacity];
+        System.arraycopy(bytes, 0, expanded, 0, position);
+        bytes = expanded;
+    }
+
+    private static byte[] entityFor(char c) {
+        return switch (c) {
+            case '<' -> LT;
+            case '>' -> GT;
+            case '&' -> AMP;
+            case '"' -> QUOT;
+            case '\'' -> APOS;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,172 @@
+package com.vaas.templateengine.application.service;
+
+import com.vaas.templateengine.domain.model.ExecutionError;
+import com.vaas.templateengine.domain.model.InputVariable;
+import com.vaas.templateengine.domain.model.VariableType;
+import com.vaas.templateengine.shared.exception.BusinessException;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Forma compilada e imutável do inputSchema de uma versão.
+ * Cada variável é convertida uma única vez em um verificador pré-construído do seu tipo, com o caminho
+ * pontuado já montado para as mensagens de erro; a validação apenas percorre o array de campos.
+ * As falhas são acumuladas em {@link ExecutionError}, sem exceções durante o percurso.
+ * Planos de versões publicadas são mantidos junto ao {@link CompiledMessage}, no cache de compilação.
+ */
+public final class ValidationPlan {
+
+    public static final ValidationPlan EMPTY = new ValidationPlan(new Field[0]);
+
+    private static final Map<VariableType, Predicate<Object>> CHECKERS = new EnumMap<>(Map.of(
+            VariableType.STRING, value -> value instanceof String,
+            VariableType.NUMBER, value -> value instanceof Number,
+            VariableType.BOOLEAN, value -> value instanceof Boolean,
+            VariableType.DATE, value -> value instanceof String text && IsoDates.isValid(text),
+            VariableType.OBJECT, value -> value instanceof Map,
+            VariableType.LIST, value -> value instanceof List
+    ));
+
+    private final Field[] fields;
+
+    private ValidationPlan(Field[] fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Compila o schema em um plano de validação.
+     * @param inputVariables Definição do contrato esperado pelo template; pode ser nula.
+     * @return Plano imutável, reutilizável entre execuções e threads.
+     */
+    public static ValidationPlan of(List<InputVariable> inputVariables) {
+        return compile("", inputVariables);
+    }
+
+    private static ValidationPlan compile(String prefix, List<InputVariable> inputVariables) {
+        if (inputVariables == null || inputVariables.isEmpty()) {
+            return EMPTY;
+        }
+
+        Field[] fields = new Field[inputVariables.size()];
+        for (int i = 0; i < fields.length; i++) {
+            InputVariable variable = inputVariables.get(i);
+            String path = prefix + variable.name();
+            boolean hasProperties = variable.properties() != null;
+
+            // Atributos de OBJECT herdam o caminho completo; itens de LIST recebem o índice na validação
+            ValidationPlan nested = hasProperties && variable.type() == VariableType.OBJECT
+                    ? compile(path + ".", variable.properties()) : null;
+            ValidationPlan items = hasProperties && variable.type() == VariableType.LIST
+                    ? compile("", variable.properties()) : null;
+
+            fields[i] = new Field(variable.name(), path, variable.required(), variable.type(),
+                    CHECKERS.get(variable.type()), nested, items);
+        }
+        return new ValidationPlan(fields);
+    }
+
+    /**
+     * Deriva um plano restrito às variáveis de primeiro nível informadas.
+     * Utilizado pela execução preguiçosa, que valida apenas as variáveis referenciadas pela versão.
+     * @param roots Nomes das variáveis de primeiro nível a manter.
+     */
+    public ValidationPlan restrictTo(Set<String> roots) {
+        List<Field> kept = new ArrayList<>(fields.length);
+        for (Field field : fields) {
+            if (roots.contains(field.name)) {
+                kept.add(field);
+            }
+        }
+        return kept.size() == fields.length ? this : new ValidationPlan(kept.toArray(new Field[0]));
+    }
+
+    /**
+     * Valida a obrigatoriedade e os tipos de dados das variáveis fornecidas.
+     * @param variables Valores reais fornecidos para processamento.
+     * @throws BusinessException com a primeira falha encontrada.
+     */
+    public void validate(Map<String, ?> variables) {
+        List<ExecutionError> errors = check(variables);
+        if (!errors.isEmpty()) {
+            ExecutionError first = errors.get(0);
+            throw new BusinessException(first.message(), first.code());
+        }
+    }
+
+    /**
+     * Percorre todo o payload sem interromper na primeira falha, reunindo cada variável ausente ou incompatível.
+     * Atributos aninhados de um valor com tipo incorreto não são inspecionados.
+     * @param variables Valores reais fornecidos para processamento.
+     * @return Falhas na ordem do schema; vazia quando o payload é válido.
+     */
+    public List<ExecutionError> check(Map<String, ?> variables) {
+        List<ExecutionError> errors = new ArrayList<>();
+        check(variables, null, errors);
+        return errors;
+    }
+
+    private void check(Map<?, ?> values, Scope scope, List<ExecutionError> errors) {
+        for (Field field : fields) {
+            Object value = values.get(field.name);
+
+            if (value == null) {
+                if (field.required) {
+                    String path = field.path(scope);
+                    errors.add(new ExecutionError("MISSING_REQUIRED_VARIABLE", path, "Atributo obrigatório não informado: " + path));
+                }
+                continue;
+            }
+
+            if (!field.checker.test(value)) {
+                errors.add(invalidType(field.path(scope), field.type));
+                continue;
+            }
+
+            if (field.nested != null) {
+                field.nested.check((Map<?, ?>) value, scope, errors);
+            } else if (field.items != null) {
+                checkItems(field, (List<?>) value, scope, errors);
+            }
+        }
+    }
+
+    private void checkItems(Field field, List<?> items, Scope scope, List<ExecutionError> errors) {
+        for (int i = 0; i < items.size(); i++) {
+            Scope itemScope = new Scope(scope, field, i);
+            if (!(items.get(i) instanceof Map<?, ?> item)) {
+                errors.add(invalidType(itemScope.path(), VariableType.OBJECT));
+                continue;
+            }
+            field.items.check(item, itemScope, errors);
+        }
+    }
+
+    private static ExecutionError invalidType(String path, VariableType expectedType) {
+        return new ExecutionError("INVALID_VARIABLE_TYPE", path,
+                String.format("Incompatibilidade de tipo para '%s'. Esperado: %s", path, expectedType));
+    }
+
+    private record Field(String name, String path, boolean required, VariableType type,
+                         Predicate<Object> checker, ValidationPlan nested, ValidationPlan items) {
+
+        String path(Scope scope) {
+            return scope == null ? path : scope.path() + "." + path;
+        }
+    }
+
+    /**
+     * Posição de um item de lista durante a validação. O caminho textual (ex.: items.1) só é montado
+     * quando há erro a reportar, evitando concatenações por item no caminho feliz.
+     */
+    private record Scope(Scope parent, Field list, int index) {
+
+        String path() {
+            return list.path(parent) + "." + index;
+        }
+    }
+}
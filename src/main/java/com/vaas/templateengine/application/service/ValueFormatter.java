@@ -0,0 +1,193 @@
+package com.vaas.templateengine.application.service;
+
+import com.vaas.templateengine.shared.exception.BusinessException;
+
+import java.math.BigDecimal;
+import java.text.NumberFormat;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Formatação de valores conforme o especificador do placeholder ({{valor:currency}}, {{vencimento:short}})
+ * e a localidade do template. Instâncias são resolvidas na compilação e compartilhadas por (localidade, especificador),
+ * de modo que nenhuma renderização crie formatadores.
+ * DateTimeFormatter é imutável e reutilizado diretamente; NumberFormat não é thread-safe e é emprestado
+ * de um pool sem bloqueio, sem ThreadLocal (inadequado para virtual threads) nem sincronização.
+ */
+abstract sealed class ValueFormatter permits ValueFormatter.NumberValueFormatter, ValueFormatter.DateValueFormatter {
+
+    private static final Map<String, ValueFormatter> SHARED = new ConcurrentHashMap<>();
+
+    /**
+     * Especificadores suportados: number, integer, percent, currency (números) e
+     * short, medium, long, full, datetime (datas no formato ISO-8601 ou tipos java.time).
+     * @param spec Especificador informado após ':' no placeholder.
+     * @param locale Localidade do template.
+     * @return Formatador compartilhado.
+     */
+    static ValueFormatter of(String spec, Locale locale) {
+        return SHARED.computeIfAbsent(locale.toLanguageTag() + '|' + spec, key -> create(spec, locale));
+    }
+
+    private static ValueFormatter create(String spec, Locale locale) {
+        return switch (spec) {
+            case "number" -> new NumberValueFormatter(spec, NumberFormat.getNumberInstance(locale));
+            case "integer" -> new NumberValueFormatter(spec, NumberFormat.getIntegerInstance(locale));
+            case "percent" -> new NumberValueFormatter(spec, NumberFormat.getPercentInstance(locale));
+            case "currency" -> new NumberValueFormatter(spec, NumberFormat.getCurrencyInstance(locale));
+            case "short" -> date(spec, FormatStyle.SHORT, locale);
+            case "medium" -> date(spec, FormatStyle.MEDIUM, locale);
+            case "long" -> date(spec, FormatStyle.LONG, locale);
+            case "full" -> date(spec, FormatStyle.FULL, locale);
+            case "datetime" -> new DateValueFormatter(spec,
+                    DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM, FormatStyle.SHORT).withLocale(locale), ChronoField.HOUR_OF_DAY);
+            default -> throw new BusinessException(
+                    "Formato desconhecido: '" + spec + "'. Suportados: number, integer, percent, currency, short, medium, long, full, datetime.",
+                    "INVALID_TEMPLATE_SYNTAX"
+            );
+        };
+    }
+
+    private static DateValueFormatter date(String spec, FormatStyle style, Locale locale) {
+        return new DateValueFormatter(spec, DateTimeFormatter.ofLocalizedDate(style).withLocale(locale), ChronoField.EPOCH_DAY);
+    }
+
+    private final String spec;
+
+    private ValueFormatter(String spec) {
+        this.spec = spec;
+    }
+
+    String spec() {
+        return spec;
+    }
+
+    /**
+     * Valores incompatíveis são sinalizados pelo retorno nulo, sem exceção: o chamador registra a falha
+     * no {@link RenderContext} e a renderização prossegue.
+     * @param value Valor já resolvido (não nulo).
+     * @return Texto formatado, ou null quando o formato não se aplica ao valor.
+     */
+    abstract String format(Object value);
+
+    static final class NumberValueFormatter extends ValueFormatter {
+
+        private final NumberFormat prototype;
+        private final Queue<NumberFormat> pool = new ConcurrentLinkedQueue<>();
+
+        private NumberValueFormatter(String spec, NumberFormat prototype) {
+            super(spec);
+            this.prototype = prototype;
+        }
+
+        @Override
+        String format(Object value) {
+            Object number;
+            if (value instanceof Number) {
+                number = value;
+            } else if (value instanceof String text && isDecimal(text)) {
+                number = new BigDecimal(text);
+            } else {
+                return null;
+            }
+
+            NumberFormat format = pool.poll();
+            if (format == null) {
+                format = (NumberFormat) prototype.clone();
+            }
+            try {
+                return format.format(number);
+            } finally {
+                pool.offer(format);
+            }
+        }
+
+        /**
+         * Gramática aceita por {@code new BigDecimal(String)}: [±]dígitos[.dígitos][e[±]dígitos], com ao menos um
+         * dígito na mantissa. Verificada antes da conversão para que textos inválidos não lancem exceção.
+         */
+        private static boolean isDecimal(String text) {
+            int length = text.length();
+            int i = 0;
+            if (i < length && (text.charAt(i) == '+' || text.charAt(i) == '-')) {
+                i++;
+            }
+            int digits = 0;
+            while (i < length && isDigit(text.charAt(i))) {
+                i++;
+                digits++;
+            }
+            if (i < length && text.charAt(i) == '.') {
+                i++;
+                while (i < length && isDigit(text.charAt(i))) {
+                    i++;
+                    digits++;
+                }
+            }
+            if (digits == 0) {
+                return false;
+            }
+            if (i < length && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+                i++;
+                if (i < length && (text.charAt(i) == '+' || text.charAt(i) == '-')) {
+                    i++;
+                }
+                int exponentStart = i;
+                while (i < length && isDigit(text.charAt(i))) {
+                    i++;
+                }
+                if (i == exponentStart || i - exponentStart > 9) {
+                    return false;
+                }
+            }
+            return i == length;
+        }
+
+        private static boolean isDigit(char c) {
+            return c >= '0' && c <= '9';
+        }
+    }
+
+    static final class DateValueFormatter extends ValueFormatter {
+
+        private final DateTimeFormatter formatter;
+        private final ChronoField requiredField;
+
+        private DateValueFormatter(String spec, DateTimeFormatter formatter, ChronoField requiredField) {
+            super(spec);
+            this.formatter = formatter;
+            this.requiredField = requiredField;
+        }
+
+        @Override
+        String format(Object value) {
+            TemporalAccessor temporal;
+            if (value instanceof TemporalAccessor accessor) {
+                temporal = accessor;
+            } else if (value instanceof String text && IsoDates.isValid(text)) {
+                temporal = text.indexOf('T') < 0 && text.indexOf('t') < 0 ? LocalDate.parse(text) : OffsetDateTime.parse(text);
+            } else {
+                return null;
+            }
+            if (!temporal.isSupported(requiredField)) {
+                return null;
+            }
+            try {
+                return formatter.format(temporal);
+            } catch (DateTimeException e) {
+                // Rede de segurança para tipos java.time exóticos (ex.: zona exigida pelo estilo); não ocorre com ISO-8601.
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.vaas.templateengine.application.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Acessor pré-compilado para caminhos pontuados como {{customer.address.city}} ou {{items.0.name}}.
+ * O caminho é segmentado uma única vez na compilação do template; índices numéricos são convertidos
+ * antecipadamente para acesso direto a listas, sem reprocessar a expressão a cada renderização.
+ * Caminhos iniciados por "this" referem-se ao item corrente de uma seção {{#each}}.
+ */
+final class VariablePath {
+
+    private static final int NOT_AN_INDEX = -1;
+    private static final String ITEM = "this";
+
+    private final String expression;
+    private final String[] segments;
+    private final int[] indexes;
+
+    private VariablePath(String expression, String[] segments, int[] indexes) {
+        this.expression = expression;
+        this.segments = segments;
+        this.indexes = indexes;
+    }
+
+    static VariablePath compile(String expression) {
+        if (expression.isEmpty() || expression.indexOf('.') < 0) {
+            return new VariablePath(expression, new String[]{expression}, new int[]{NOT_AN_INDEX});
+        }
+
+        String[] segments = expression.split("\\.", -1);
+        int[] indexes = new int[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = segments[i].trim();
+            indexes[i] = parseIndex(segments[i]);
+        }
+        return new VariablePath(expression, segments, indexes);
+    }
+
+    /**
+     * Percorre o contexto seguindo os segmentos do caminho sobre Maps e Lists aninhados.
+     * Para compatibilidade com payloads já achatados pelo cliente, uma chave literal igual
+     * à expressão completa (ex.: "customer.city") é aceita quando o percurso aninhado não encontra valor.
+     * @param variables Contexto raiz da execução.
+     * @param item Item corrente da seção {{#each}} mais interna, ou null fora de laços.
+     * @return Valor localizado ou null quando algum nível está ausente ou é incompatível.
+     */
+    Object resolve(Map<String, ?> variables, Object item) {
+        if (item != null && ITEM.equals(segments[0])) {
+            Object current = item;
+            for (int i = 1; i < segments.length && current != null; i++) {
+                current = step(current, i);
+            }
+            return current;
+        }
+
+        Object current = variables.get(segments[0]);
+
+        for (int i = 1; i < segments.length && current != null; i++) {
+            current = step(current, i);
+        }
+
+        if (current == null && segments.length > 1) {
+            return variables.get(expression);
+        }
+        return current;
+    }
+
+    String expression() {
+        return expression;
+    }
+
+    boolean isItemRelative() {
+        return ITEM.equals(segments[0]);
+    }
+
+    String root() {
+        return segments[0];
+    }
+
+    int length() {
+        return segments.length;
+    }
+
+    String segment(int i) {
+        return segments[i];
+    }
+
+    boolean isIndex(int i) {
+        return indexes[i] != NOT_AN_INDEX;
+    }
+
+    private Object step(Object current, int i) {
+        if (current instanceof Map<?, ?> map) {
+            return map.get(segments[i]);
+        }
+        if (current instanceof List<?> list && indexes[i] != NOT_AN_INDEX) {
+            return indexes[i] < list.size() ? list.get(indexes[i]) : null;
+        }
+        return null;
+    }
+
+    private static int parseIndex(String segment) {
+        if (segment.isEmpty() || segment.length() > 9) {
+            return NOT_AN_INDEX;
+        }
+        int value = 0;
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            if (c < '0' || c > '9') {
+                return NOT_AN_INDEX;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof VariablePath path && expression.equals(path.expression);
+    }
+
+    @Override
+    public int hashCode() {
+        return expression.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
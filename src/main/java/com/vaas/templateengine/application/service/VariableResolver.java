@@ -0,0 +1,29 @@
+package com.vaas.templateengine.application.service;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Fonte preguiçosa de variáveis para chamadores internos (uso embarcado do motor).
+ * Apenas as variáveis efetivamente referenciadas pela versão executada são solicitadas,
+ * e cada uma no máximo uma vez por execução, evitando o custo de valores que o template não utiliza.
+ */
+@FunctionalInterface
+public interface VariableResolver {
+
+    /**
+     * @param name Nome da variável de primeiro nível (ex.: "customer" para {{customer.address.city}}).
+     * @return Valor da variável, ou null quando indisponível.
+     */
+    Object resolve(String name);
+
+    /**
+     * Adapta um mapa de fornecedores: cada fornecedor só é invocado se a variável for referenciada.
+     */
+    static VariableResolver ofSuppliers(Map<String, ? extends Supplier<?>> suppliers) {
+        return name -> {
+            Supplier<?> supplier = suppliers.get(name);
+            return supplier != null ? supplier.get() : null;
+        };
+    }
+}
@@ -8,7 +8,8 @@ import java.time.OffsetDateTime;
  * Conforme as especificações do Java 21, as implementações permitidas devem estar no mesmo pacote.
  */
 public sealed interface DomainEvent
-        permits TemplateCreatedEvent, TemplateVersionPublishedEvent, NotificationDispatchedEvent, TemplateArchivedEvent {
+        permits TemplateCreatedEvent, TemplateVersionPublishedEvent, NotificationDispatchedEvent,
+                NotificationBatchDispatchedEvent, TemplateArchivedEvent, TemplateVersionUpdatedEvent {
 
     /**
      * Retorna o identificador único do agregado (template) que originou o evento.
@@ -0,0 +1,24 @@
+package com.vaas.templateengine.domain.event;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Evento disparado após a execução de um lote de notificações do mesmo template.
+ * Substitui os N eventos individuais de despacho por um único evento com os totais do lote.
+ */
+public record NotificationBatchDispatchedEvent(
+        String aggregateId,
+        OffsetDateTime occurredAt,
+        long successCount,
+        long errorCount
+) implements DomainEvent {
+    /**
+     * Construtor de conveniência que define automaticamente o timestamp de ocorrência.
+     * @param aggregateId ID do template executado.
+     * @param successCount Itens renderizados com sucesso.
+     * @param errorCount Itens registrados com VALIDATION_ERROR.
+     */
+    public NotificationBatchDispatchedEvent(String aggregateId, long successCount, long errorCount) {
+        this(aggregateId, OffsetDateTime.now(), successCount, errorCount);
+    }
+}
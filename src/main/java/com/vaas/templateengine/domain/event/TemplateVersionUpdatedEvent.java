@@ -0,0 +1,12 @@
+package com.vaas.templateengine.domain.event;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Evento disparado quando uma versão em rascunho é criada ou tem o conteúdo alterado.
+ */
+public record TemplateVersionUpdatedEvent(
+        String aggregateId,
+        OffsetDateTime occurredAt,
+        String versionId
+) implements DomainEvent {}
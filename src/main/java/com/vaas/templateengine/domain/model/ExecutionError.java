@@ -0,0 +1,10 @@
+package com.vaas.templateengine.domain.model;
+
+/**
+ * Value Object: falha estruturada de uma execução (validação do payload ou renderização).
+ * Execuções com status VALIDATION_ERROR registram todas as falhas encontradas, não apenas a primeira.
+ * @param code Código do dicionário de erros (ex.: MISSING_REQUIRED_VARIABLE).
+ * @param field Caminho pontuado da variável envolvida; nulo quando a falha não se refere a uma variável.
+ * @param message Descrição legível da falha.
+ */
+public record ExecutionError(String code, String field, String message) {}
@@ -0,0 +1,136 @@
+package com.vaas.templateengine.domain.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.PersistenceCreator;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Estado de uma execução assíncrona em lote, consultado pelo endpoint de status enquanto o job é processado.
+ * Persistido a cada mudança de estado, para que a consulta funcione em qualquer instância e sobreviva a
+ * reinicializações. Apenas a thread do worker escreve no job; leitores da instância que o processa observam os
+ * campos voláteis e podem ver contadores de lotes diferentes por um instante, nunca valores parciais de um
+ * mesmo campo.
+ */
+@Document(collection = "execution_jobs")
+public final class ExecutionJob {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    @Id
+    private final String id;
+    private final String templateId;
+    private final String versionId;
+    private final int total;
+    private final OffsetDateTime createdAt;
+
+    private volatile Status status = Status.QUEUED;
+    private volatile long processed;
+    private volatile long successCount;
+    private volatile long errorCount;
+    /** Última gravação do estado; renovada periodicamente enquanto a instância responsável está ativa. */
+    private volatile OffsetDateTime updatedAt;
+    private volatile OffsetDateTime finishedAt;
+    private volatile String errorCode;
+    private volatile String errorMessage;
+
+    public ExecutionJob(String id, String templateId, String versionId, int total) {
+        this(id, templateId, versionId, total, OffsetDateTime.now());
+        this.updatedAt = createdAt;
+    }
+
+    @PersistenceCreator
+    ExecutionJob(String id, String templateId, String versionId, int total, OffsetDateTime createdAt) {
+        this.id = id;
+        this.templateId = templateId;
+        this.versionId = versionId;
+        this.total = total;
+        this.createdAt = createdAt;
+    }
+
+    public void start() {
+        status = Status.RUNNING;
+        updatedAt = OffsetDateTime.now();
+    }
+
+    public void progress(long successes, long errors) {
+        successCount += successes;
+        errorCount += errors;
+        processed += successes + errors;
+        updatedAt = OffsetDateTime.now();
+    }
+
+    public void complete() {
+        finishedAt = OffsetDateTime.now();
+        updatedAt = finishedAt;
+        status = Status.COMPLETED;
+    }
+
+    public void fail(String code, String message) {
+        errorCode = code;
+        errorMessage = message;
+        finishedAt = OffsetDateTime.now();
+        updatedAt = finishedAt;
+        status = Status.FAILED;
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getTemplateId() {
+        return templateId;
+    }
+
+    /**
+     * @return Versão solicitada, ou null quando o job usa a última versão publicada.
+     */
+    public String getVersionId() {
+        return versionId;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public long getSuccessCount() {
+        return successCount;
+    }
+
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    public OffsetDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public OffsetDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getErrorCode() {
+        return errorCode;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+}
@@ -1,10 +1,25 @@
 package com.vaas.templateengine.domain.model;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
+import java.util.List;
+
 /**
  * Value Object: Variável esperada no inputSchema.
+ * Variáveis do tipo OBJECT descrevem seus atributos aninhados em properties,
+ * acessíveis no template por caminhos pontuados (ex.: {{customer.address.city}}).
+ * Em variáveis do tipo LIST, properties descreve os atributos de cada item.
  */
-public record InputVariable(@NotBlank String name, @NotNull VariableType type, boolean required) {
+public record InputVariable(
+        @NotBlank String name,
+        @NotNull VariableType type,
+        boolean required,
+        @Valid List<InputVariable> properties
+) {
+
+    public InputVariable(String name, VariableType type, boolean required) {
+        this(name, type, required, null);
+    }
 }
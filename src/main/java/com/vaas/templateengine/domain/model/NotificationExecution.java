@@ -4,9 +4,12 @@ import lombok.*;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Registro de Auditoria e Conformidade (Audit Log).
@@ -15,7 +18,7 @@ import java.util.Map;
  * destinatários e estado resultante, sendo fundamental para processos de compliance.
  */
 @Getter
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "notification_executions")
@@ -36,9 +39,59 @@ public class NotificationExecution {
      */
     private Map<String, Object> variables;
 
+    /**
+     * Assunto renderizado em texto puro. Ausente quando a versão não define assunto ou a execução falhou.
+     */
+    private String renderedSubject;
+
+    /**
+     * Conteúdo entregue ao cliente. Ausente em execuções em modo streaming, cujo corpo é
+     * reproduzível a partir da versão publicada (imutável) e do snapshot de variáveis.
+     */
     private String renderedContent;
 
+    /**
+     * Identificador (SHA-256) do corpo armazenado uma única vez fora do registro, quando o conteúdo é grande o
+     * bastante para ser compartilhado entre execuções. Nesse caso, renderedContent não é persistido no registro
+     * e é reconstituído na leitura.
+     */
+    private String renderedContentRef;
+
     private ExecutionStatus status;
 
+    /**
+     * Falhas de validação e renderização, presentes apenas em execuções com status VALIDATION_ERROR.
+     */
+    private List<ExecutionError> errors;
+
     private OffsetDateTime executedOn;
+
+    /**
+     * Identificador ordenado pelo tempo (UUID versão 7): os 48 bits iniciais são o executedOn em milissegundos,
+     * o que permite localizar o bucket mensal do registro sem consultar os demais. Os bits restantes são
+     * aleatórios, como em {@link UUID#randomUUID()}.
+     */
+    public static String newId(OffsetDateTime executedOn) {
+        UUID random = UUID.randomUUID();
+        long mostSignificant = (executedOn.toInstant().toEpochMilli() << 16)
+                | 0x7000L
+                | (random.getMostSignificantBits() & 0x0FFFL);
+        return new UUID(mostSignificant, random.getLeastSignificantBits()).toString();
+    }
+
+    /**
+     * Instante embutido em um identificador gerado por {@link #newId}; vazio para identificadores de outro formato,
+     * como os aleatórios anteriores.
+     */
+    public static Optional<Instant> timestampOf(String id) {
+        try {
+            UUID uuid = UUID.fromString(id);
+            if (uuid.version() != 7) {
+                return Optional.empty();
+            }
+            return Optional.of(Instant.ofEpochMilli(uuid.getMostSignificantBits() >>> 16));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
 }
\ No newline at end of file
@@ -9,6 +9,7 @@ import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * Agregado Raiz (Aggregate Root) que centraliza as regras de negócio de templates.
@@ -22,6 +23,8 @@ import java.util.List;
 @Document(collection = "notification_templates")
 public class NotificationTemplate {
 
+    public static final String DEFAULT_LOCALE = "pt-BR";
+
     @Id
     private String id;
 
@@ -33,6 +36,12 @@ public class NotificationTemplate {
     private String orgId;
     private String workspaceId;
 
+    /**
+     * Localidade (BCP 47, ex.: pt-BR) aplicada aos formatos de número e data dos placeholders.
+     * Definida na criação e imutável, pois as versões publicadas são compiladas com ela.
+     */
+    private String locale;
+
     @Setter(AccessLevel.PRIVATE)
     private TemplateStatus status;
 
@@ -53,6 +62,13 @@ public class NotificationTemplate {
     @Builder.Default
     private List<TemplateVersion> versions = new ArrayList<>();
 
+    /**
+     * Ponteiro desnormalizado para a versão publicada de maior número semântico, atualizado a cada publicação.
+     * Permite que a execução leia apenas essa versão, sem carregar o histórico completo do agregado.
+     * Ausente em templates sem versão publicada ou publicados antes da introdução do campo.
+     */
+    private String activePublishedVersionId;
+
     /**
      * Atualiza os metadados informativos do template.
      * Implementa validações de estado para garantir que templates arquivados
@@ -85,6 +101,19 @@ public class NotificationTemplate {
         this.updatedAt = OffsetDateTime.now();
     }
 
+    /**
+     * Publica uma versão do histórico e atualiza o ponteiro da versão publicada ativa.
+     * @param analysis Resultado da análise estática do conteúdo contra o inputSchema.
+     * @return A versão publicada.
+     */
+    public TemplateVersion publishVersion(String versionId, TemplateAnalysis analysis) {
+        TemplateVersion version = getVersion(versionId);
+        version.publish(analysis);
+        this.activePublishedVersionId = getLatestPublishedVersion().getId();
+        this.updatedAt = OffsetDateTime.now();
+        return version;
+    }
+
     /**
      * Realiza o arquivamento lógico (Soft Delete) do recurso.
      * Preserva a integridade referencial com os logs de execução passados.
@@ -95,6 +124,13 @@ public class NotificationTemplate {
         this.updatedAt = OffsetDateTime.now();
     }
 
+    /**
+     * Localidade efetiva do template; registros anteriores à introdução do campo assumem pt-BR.
+     */
+    public Locale resolveLocale() {
+        return Locale.forLanguageTag(locale != null ? locale : DEFAULT_LOCALE);
+    }
+
     public TemplateVersion getVersion(String versionId) {
         return this.versions.stream()
                 .filter(v -> v.getId().equals(versionId))
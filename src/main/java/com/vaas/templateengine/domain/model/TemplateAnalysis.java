@@ -0,0 +1,13 @@
+package com.vaas.templateengine.domain.model;
+
+import java.util.List;
+
+/**
+ * Value Object: resultado da análise estática de uma versão, calculado na publicação.
+ * Registra os caminhos referenciados pelo assunto e pelo corpo e, entre eles, os que o inputSchema
+ * garante presentes (variáveis obrigatórias em toda a cadeia do caminho), que dispensam a checagem
+ * de presença a cada renderização.
+ * @param placeholders Caminhos referenciados por placeholders e seções, na ordem de ocorrência.
+ * @param guaranteedPaths Caminhos de placeholders cuja presença é assegurada pela validação do schema.
+ */
+public record TemplateAnalysis(List<String> placeholders, List<String> guaranteedPaths) {}
@@ -38,12 +38,18 @@ public class TemplateStatsView {
      * @param isSuccess Se o despacho foi bem-sucedido.
      */
     public void increment(boolean isSuccess) {
-        this.totalSent++;
-        if (isSuccess) {
-            this.successCount++;
-        } else {
-            this.errorCount++;
-        }
+        increment(isSuccess ? 1 : 0, isSuccess ? 0 : 1);
+    }
+
+    /**
+     * Incrementa os contadores com os totais de um lote de despachos.
+     * @param successes Despachos bem-sucedidos no lote.
+     * @param errors Despachos com falha de validação no lote.
+     */
+    public void increment(long successes, long errors) {
+        this.totalSent += successes + errors;
+        this.successCount += successes;
+        this.errorCount += errors;
         this.lastExecutedAt = OffsetDateTime.now();
     }
 }
\ No newline at end of file
@@ -28,6 +28,11 @@ public class TemplateVersion implements Comparable<TemplateVersion> {
     private String changelog;
     private OffsetDateTime createdAt;
 
+    /**
+     * Análise estática registrada na publicação; ausente em rascunhos e em versões publicadas antes da análise.
+     */
+    private TemplateAnalysis analysis;
+
     /**
      * Realiza a atualização controlada do conteúdo da versão.
      * Esta mutação é permitida apenas enquanto a versão reside em estado de rascunho (DRAFT).
@@ -44,11 +49,13 @@ public class TemplateVersion implements Comparable<TemplateVersion> {
 
     /**
      * Transforma a versão em um artefato imutável pronto para execução.
+     * @param analysis Resultado da análise estática do conteúdo contra o inputSchema.
      */
-    public void publish() {
+    public void publish(TemplateAnalysis analysis) {
         if (isPublished()) {
             throw new BusinessException("A versão já se encontra publicada.", "VERSION_ALREADY_PUBLISHED");
         }
+        this.analysis = analysis;
         this.estado = VersionState.PUBLISHED;
     }
 
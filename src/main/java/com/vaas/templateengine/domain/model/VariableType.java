@@ -2,10 +2,14 @@ package com.vaas.templateengine.domain.model;
 
 /**
  * Define os tipos de dados suportados pelo motor de renderização.
+ * OBJECT representa um mapa aninhado cujos atributos são descritos em {@link InputVariable#properties()}.
+ * LIST representa uma coleção iterável por {{#each}}; quando há properties, cada item é validado como OBJECT.
  */
 public enum VariableType {
     STRING,
     NUMBER,
     BOOLEAN,
-    DATE
+    DATE,
+    OBJECT,
+    LIST
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.vaas.templateengine.domain.port;
+
+import com.vaas.templateengine.domain.model.ExecutionJob;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Port (Interface de Saída): Define a persistência do estado dos jobs de execução assíncrona.
+ */
+public interface ExecutionJobRepository {
+
+    /**
+     * Grava o estado atual do job, substituindo o anterior.
+     */
+    void save(ExecutionJob job);
+
+    Optional<ExecutionJob> findById(String id);
+
+    /**
+     * Renova o updatedAt dos jobs ainda em processamento pela instância, sinalizando que não foram abandonados.
+     */
+    void touch(Collection<String> ids);
+}
@@ -2,9 +2,22 @@ package com.vaas.templateengine.domain.port;
 
 import com.vaas.templateengine.domain.model.NotificationExecution;
 
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Port (Interface de Saída): Define a persistência do log de auditoria das execuções.
  */
 public interface NotificationExecutionRepository {
     NotificationExecution save(NotificationExecution execution);
+
+    /**
+     * Persiste um lote de execuções em uma única operação de escrita.
+     */
+    List<NotificationExecution> saveAll(List<NotificationExecution> executions);
+
+    /**
+     * Busca uma execução com o conteúdo renderizado completo, inclusive quando armazenado por referência.
+     */
+    Optional<NotificationExecution> findById(String id);
 }
\ No newline at end of file
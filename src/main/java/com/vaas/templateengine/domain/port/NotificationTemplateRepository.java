@@ -17,6 +17,17 @@ public interface NotificationTemplateRepository {
 
     Optional<NotificationTemplate> findById(String id);
 
+    /**
+     * Busca o template com apenas uma versão na lista de versões: a informada ou, com versionId nulo, a apontada
+     * por activePublishedVersionId. A lista vem vazia quando a versão não existe ou o ponteiro está ausente.
+     */
+    Optional<NotificationTemplate> findWithVersion(String id, String versionId);
+
+    /**
+     * Busca apenas os campos do template (status, canal, locale e ponteiro da versão ativa), sem as versões.
+     */
+    Optional<NotificationTemplate> findSummary(String id);
+
     /**
      * Busca templates de forma paginada aplicando filtros de organização, workspace, canal e status.
      */
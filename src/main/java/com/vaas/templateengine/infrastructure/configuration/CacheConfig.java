@@ -1,13 +1,18 @@
 package com.vaas.templateengine.infrastructure.configuration;
 
+import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vaas.templateengine.domain.port.NotificationTemplateRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
 
 /**
  * Configuração de cache local em memória.
@@ -20,16 +25,43 @@ public class CacheConfig {
 
     /**
      * Instancia o gerenciador de cache com políticas de retenção baseadas em tempo e tamanho.
-     * A estratégia de 'expireAfterWrite' garante que atualizações sejam propagadas após o TTL definido.
+     * O cache é assíncrono e com loader: ausências simultâneas da mesma chave compartilham uma única leitura
+     * (@Cacheable com sync), e entradas acessadas após refresh-after-write são relidas em segundo plano, em
+     * virtual threads, antes da expiração. Alterações de um template invalidam a entrada em todas as instâncias
+     * ({@code TemplateCacheInvalidationConsumer}); o 'expireAfterWrite' apenas limita a defasagem caso um
+     * evento se perca.
      */
     @Bean
-    public CacheManager cacheManager() {
+    public CacheManager cacheManager(
+            NotificationTemplateRepository templateRepository,
+            MeterRegistry meterRegistry,
+            @Value("${template-engine.cache.templates.max-size:500}") long maxSize,
+            @Value("${template-engine.cache.templates.refresh-after-write:PT15M}") Duration refreshAfterWrite,
+            @Value("${template-engine.cache.templates.expire-after-write:PT1H}") Duration expireAfterWrite) {
+        Counter refreshes = meterRegistry.counter("notifications.cache.refresh", "cache", "templates");
+
         CaffeineCacheManager cacheManager = new CaffeineCacheManager("templates");
+        cacheManager.setAsyncCacheMode(true);
         cacheManager.setCaffeine(Caffeine.newBuilder()
+                .executor(task -> Thread.ofVirtual().name("template-cache-loader").start(task))
                 .initialCapacity(100)
-                .maximumSize(500)
-                .expireAfterWrite(10, TimeUnit.MINUTES)
+                .maximumSize(maxSize)
+                .refreshAfterWrite(refreshAfterWrite)
+                .expireAfterWrite(expireAfterWrite)
                 .recordStats());
+        cacheManager.setCacheLoader(new CacheLoader<>() {
+            @Override
+            public Object load(Object id) {
+                // Ausências não são armazenadas: a próxima leitura volta ao MongoDB
+                return templateRepository.findById((String) id).orElse(null);
+            }
+
+            @Override
+            public Object reload(Object id, Object previous) {
+                refreshes.increment();
+                return load(id);
+            }
+        });
         return cacheManager;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,13 @@
+package com.vaas.templateengine.infrastructure.configuration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita tarefas agendadas de manutenção (ex.: tiering dos buckets de execuções).
+ * Com spring.threads.virtual.enabled, o agendador padrão executa as tarefas em virtual threads.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
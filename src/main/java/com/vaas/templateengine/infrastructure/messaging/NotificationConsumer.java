@@ -1,5 +1,6 @@
 package com.vaas.templateengine.infrastructure.messaging;
 
+import com.vaas.templateengine.domain.event.NotificationBatchDispatchedEvent;
 import com.vaas.templateengine.domain.event.NotificationDispatchedEvent;
 import com.vaas.templateengine.domain.event.TemplateCreatedEvent;
 import com.vaas.templateengine.domain.model.TemplateStatsView;
@@ -70,4 +71,28 @@ public class NotificationConsumer {
                     event.aggregateId(), e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Processa os totais de um lote de despachos com uma única atualização da projeção.
+     */
+    @KafkaListener(topics = "notification-batch-dispatched", groupId = "template-engine-stats")
+    public void consumeNotificationBatchDispatched(NotificationBatchDispatchedEvent event) {
+        try {
+            TemplateStatsView stats = statsRepository.findById(event.aggregateId())
+                    .orElse(TemplateStatsView.builder()
+                            .templateId(event.aggregateId())
+                            .totalSent(0)
+                            .successCount(0)
+                            .errorCount(0)
+                            .build());
+
+            stats.increment(event.successCount(), event.errorCount());
+            statsRepository.save(stats);
+
+            log.debug("Estatísticas do lote atualizadas para o template ID: {}", event.aggregateId());
+        } catch (Exception e) {
+            log.error("Erro no incremento da projeção analítica do lote para o template {}: {}",
+                    event.aggregateId(), e.getMessage());
+        }
+    }
+}
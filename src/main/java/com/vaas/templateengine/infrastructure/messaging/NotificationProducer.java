@@ -1,41 +1,67 @@
 package com.vaas.templateengine.infrastructure.messaging;
 
 import com.vaas.templateengine.domain.event.DomainEvent;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 /**
  * Adapter de saída responsável pela publicação de eventos de domínio no Kafka.
  * Implementa a integração assíncrona necessária para o padrão CQRS e auditoria externa.
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class NotificationProducer {
 
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    /** Executor dos callbacks de confirmação; nulo quando eles rodam na própria thread de I/O do producer. */
+    private final Executor callbackExecutor;
+
+    /**
+     * @param callbackExecutor Executor padrão do Spring Boot. Só é usado com spring.threads.virtual.enabled,
+     *                         em que cada callback roda em uma virtual thread; no modo de plataforma ele é um
+     *                         pool de 8 threads com fila sem limite, que cresceria com a carga de envios.
+     */
+    public NotificationProducer(KafkaTemplate<String, Object> kafkaTemplate,
+                                @Qualifier("applicationTaskExecutor") Executor callbackExecutor,
+                                @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.callbackExecutor = virtualThreads ? callbackExecutor : null;
+    }
 
     /**
      * Publica um evento de domínio no tópico correspondente.
      * Utiliza a chave do agregado como chave da mensagem para garantir a ordenação por partição.
+     * Com virtual threads, o callback de confirmação roda fora da thread de I/O do producer Kafka, que é
+     * compartilhada por todos os envios e não deve esperar por appenders de log.
      * @param event O evento de domínio a ser disparado.
      */
     public void publish(DomainEvent event) {
         String topic = resolveTopic(event);
         String key = event.aggregateId();
 
-        kafkaTemplate.send(topic, key, event)
-                .whenComplete((result, ex) -> {
-                    if (ex == null) {
-                        log.info("Evento [{} : {}] publicado com sucesso na partição {}",
-                                event.getClass().getSimpleName(), key, result.getRecordMetadata().partition());
-                    } else {
-                        log.error("Falha ao publicar evento [{} : {}]: {}",
-                                event.getClass().getSimpleName(), key, ex.getMessage());
-                    }
-                });
+        CompletableFuture<SendResult<String, Object>> sent = kafkaTemplate.send(topic, key, event);
+        if (callbackExecutor != null) {
+            sent.whenCompleteAsync((result, ex) -> logOutcome(event, key, result, ex), callbackExecutor);
+        } else {
+            sent.whenComplete((result, ex) -> logOutcome(event, key, result, ex));
+        }
+    }
+
+    private void logOutcome(DomainEvent event, String key, SendResult<String, Object> result, Throwable ex) {
+        if (ex == null) {
+            log.info("Evento [{} : {}] publicado com sucesso na partição {}",
+                    event.getClass().getSimpleName(), key, result.getRecordMetadata().partition());
+        } else {
+            log.error("Falha ao publicar evento [{} : {}]: {}",
+                    event.getClass().getSimpleName(), key, ex.getMessage());
+        }
     }
 
     private String resolveTopic(DomainEvent event) {
@@ -43,7 +69,9 @@ public class NotificationProducer {
             case com.vaas.templateengine.domain.event.TemplateCreatedEvent e -> "template-created";
             case com.vaas.templateengine.domain.event.TemplateVersionPublishedEvent e -> "template-published";
             case com.vaas.templateengine.domain.event.NotificationDispatchedEvent e -> "notification-dispatched";
+            case com.vaas.templateengine.domain.event.NotificationBatchDispatchedEvent e -> "notification-batch-dispatched";
             case com.vaas.templateengine.domain.event.TemplateArchivedEvent e -> "template-archived";
+            case com.vaas.templateengine.domain.event.TemplateVersionUpdatedEvent e -> "template-version-updated";
         };
     }
 }
\ No newline at end of file
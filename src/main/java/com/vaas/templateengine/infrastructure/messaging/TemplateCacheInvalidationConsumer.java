@@ -0,0 +1,66 @@
+package com.vaas.templateengine.infrastructure.messaging;
+
+import com.vaas.templateengine.application.service.PublishedVersionCache;
+import com.vaas.templateengine.domain.event.TemplateArchivedEvent;
+import com.vaas.templateengine.domain.event.TemplateVersionPublishedEvent;
+import com.vaas.templateengine.domain.event.TemplateVersionUpdatedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.kafka.annotation.KafkaHandler;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Invalidação dos caches locais de template em todas as instâncias, a partir dos eventos de domínio.
+ * Cada instância consome com um grupo próprio (sufixo aleatório por inicialização), de modo que todas recebem
+ * cada evento, e não apenas uma do grupo. O consumo começa do fim dos tópicos, pois os caches de uma instância
+ * recém-iniciada estão vazios. Na instância de origem, que já invalidou os próprios caches, o evento é inócuo.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@KafkaListener(
+        topics = {"template-published", "template-archived", "template-version-updated"},
+        groupId = "#{'template-engine-cache-' + T(java.util.UUID).randomUUID()}",
+        properties = "auto.offset.reset=latest")
+public class TemplateCacheInvalidationConsumer {
+
+    private final CacheManager cacheManager;
+    private final PublishedVersionCache publishedVersions;
+
+    /**
+     * A publicação altera o ponteiro da última versão publicada e o estado da versão no agregado.
+     */
+    @KafkaHandler
+    public void consumeVersionPublished(TemplateVersionPublishedEvent event) {
+        evictTemplate(event.aggregateId());
+        publishedVersions.invalidate(event.aggregateId());
+    }
+
+    /**
+     * O arquivamento altera o status consultado antes de toda execução.
+     */
+    @KafkaHandler
+    public void consumeTemplateArchived(TemplateArchivedEvent event) {
+        evictTemplate(event.aggregateId());
+        publishedVersions.invalidate(event.aggregateId());
+    }
+
+    /**
+     * Rascunhos só existem no agregado completo; versões publicadas em cache não são afetadas.
+     */
+    @KafkaHandler
+    public void consumeVersionUpdated(TemplateVersionUpdatedEvent event) {
+        evictTemplate(event.aggregateId());
+    }
+
+    private void evictTemplate(String templateId) {
+        Cache templates = cacheManager.getCache("templates");
+        if (templates != null) {
+            templates.evict(templateId);
+        }
+        log.debug("Caches locais invalidados para o template ID: {}", templateId);
+    }
+}
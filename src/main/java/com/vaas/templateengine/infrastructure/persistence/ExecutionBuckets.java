@@ -0,0 +1,253 @@
+package com.vaas.templateengine.infrastructure.persistence;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.CreateCollectionOptions;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Particionamento temporal do log de auditoria: cada execução é gravada na coleção do mês (UTC) em que ocorreu,
+ * notification_executions_AAAA_MM. Coleções pequenas mantêm o índice e o working set de escrita restritos ao
+ * mês corrente, em vez de crescerem indefinidamente.
+ * A manutenção agendada move meses com mais de cold-after para coleções frias (sufixo _cold), criadas com
+ * compressão de bloco mais agressiva. A retenção é opcional: apenas com retention configurada os buckets
+ * recebem índice TTL em executedOn e meses inteiramente fora dela são descartados; sem ela, nada é removido.
+ * A coleção notification_executions, anterior ao particionamento, permanece apenas para leitura.
+ */
+@Slf4j
+@Component
+public class ExecutionBuckets {
+
+    static final String LEGACY_COLLECTION = "notification_executions";
+    static final String PREFIX = LEGACY_COLLECTION + "_";
+    static final String COLD_SUFFIX = "_cold";
+
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final int NAMESPACE_EXISTS = 48;
+    private static final int INDEX_OPTIONS_CONFLICT = 85;
+    private static final int INDEX_NOT_FOUND = 27;
+    private static final long READ_ORDER_REFRESH_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    /** Nula quando a retenção não está configurada: o log de auditoria é mantido por completo. */
+    private final Duration retention;
+    private final Duration coldAfter;
+    private final String coldCompressor;
+    private final Set<String> ensured = ConcurrentHashMap.newKeySet();
+    private volatile List<String> readOrder;
+    private volatile long readOrderLoadedAt;
+
+    public ExecutionBuckets(
+            MongoTemplate mongoTemplate,
+            @Value("${template-engine.execution.audit.buckets.enabled:true}") boolean enabled,
+            @Value("${template-engine.execution.audit.buckets.retention:}") Duration retention,
+            @Value("${template-engine.execution.audit.buckets.cold-after:P90D}") Duration coldAfter,
+            @Value("${template-engine.execution.audit.buckets.cold-compressor:zstd}") String coldCompressor) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.retention = retention;
+        this.coldAfter = coldAfter;
+        this.coldCompressor = coldCompressor;
+    }
+
+    /**
+     * Retenção das execuções, vazia quando elas não expiram (retenção não configurada ou coleção anterior ao
+     * particionamento).
+     */
+    public Optional<Duration> retention() {
+        return enabled ? Optional.ofNullable(retention) : Optional.empty();
+    }
+
+    /**
+     * Coleção de destino de uma execução; o bucket do mês é criado (com o índice TTL, se houver retenção) na
+     * primeira gravação.
+     */
+    public String collectionFor(OffsetDateTime executedOn) {
+        if (!enabled) {
+            return LEGACY_COLLECTION;
+        }
+        String name = bucketName(YearMonth.from((executedOn != null ? executedOn : OffsetDateTime.now()).withOffsetSameInstant(ZoneOffset.UTC)));
+        if (ensured.add(name)) {
+            try {
+                create(name, false);
+            } catch (RuntimeException e) {
+                ensured.remove(name);
+                throw e;
+            }
+            readOrder = null;
+        }
+        return name;
+    }
+
+    /**
+     * Coleções consultadas na leitura por identificador: buckets do mais recente ao mais antigo (o quente antes do
+     * frio do mesmo mês, que pode coexistir durante a migração) e, por último, a coleção anterior ao particionamento.
+     * A lista é recarregada periodicamente para incluir buckets criados por outras instâncias.
+     */
+    public List<String> readOrder() {
+        List<String> order = readOrder;
+        if (order == null || System.nanoTime() - readOrderLoadedAt > READ_ORDER_REFRESH_NANOS) {
+            order = new ArrayList<>(bucketNames().stream()
+                    .sorted(Comparator.comparing(ExecutionBuckets::monthOf).reversed()
+                            .thenComparing(ExecutionBuckets::isCold))
+                    .toList());
+            order.add(LEGACY_COLLECTION);
+            order = List.copyOf(order);
+            readOrder = order;
+            readOrderLoadedAt = System.nanoTime();
+        }
+        return order;
+    }
+
+    /**
+     * Coleções que podem conter a execução gravada no instante informado (extraído do identificador): o bucket
+     * do mês, quente e frio, e a coleção anterior ao particionamento, sem percorrer os demais meses.
+     */
+    public List<String> readOrderFor(Instant executedOn) {
+        if (!enabled) {
+            return List.of(LEGACY_COLLECTION);
+        }
+        String name = bucketName(YearMonth.from(executedOn.atOffset(ZoneOffset.UTC)));
+        return List.of(name, name + COLD_SUFFIX, LEGACY_COLLECTION);
+    }
+
+    /**
+     * Tiering diário: com retenção configurada, meses fora dela são descartados por inteiro (o TTL já os teria
+     * removido documento a documento); meses com mais de cold-after, exceto o corrente, são copiados para a coleção fria e removidos
+     * da quente. A cópia usa $merge com keepExisting, o que torna a tarefa idempotente entre instâncias.
+     */
+    @Scheduled(cron = "${template-engine.execution.audit.buckets.maintenance-cron:0 30 3 * * *}", zone = "UTC")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        YearMonth current = YearMonth.from(now);
+
+        for (String name : bucketNames()) {
+            OffsetDateTime monthEnd = monthOf(name).plusMonths(1).atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC);
+            if (retention != null && monthEnd.plus(retention).isBefore(now)) {
+                mongoTemplate.getCollection(name).drop();
+                ensured.remove(name);
+                log.info("Bucket de execuções {} descartado: fora da retenção de {}.", name, retention);
+            } else if (!isCold(name) && !monthOf(name).equals(current) && monthEnd.plus(coldAfter).isBefore(now)) {
+                moveToCold(name);
+            }
+        }
+        readOrder = null;
+    }
+
+    private void moveToCold(String hot) {
+        String cold = hot + COLD_SUFFIX;
+        create(cold, true);
+        mongoTemplate.getCollection(hot).aggregate(List.of(new Document("$merge", new Document("into", cold)
+                .append("whenMatched", "keepExisting")
+                .append("whenNotMatched", "insert")))).toCollection();
+        mongoTemplate.getCollection(hot).drop();
+        ensured.remove(hot);
+        log.info("Bucket de execuções {} movido para a camada fria ({}).", hot, cold);
+    }
+
+    private void create(String name, boolean cold) {
+        CreateCollectionOptions options = new CreateCollectionOptions();
+        if (cold) {
+            options.storageEngineOptions(new Document("wiredTiger",
+                    new Document("configString", "block_compressor=" + coldCompressor)));
+        }
+        try {
+            mongoTemplate.getDb().createCollection(name, options);
+        } catch (MongoCommandException e) {
+            if (e.getErrorCode() != NAMESPACE_EXISTS) {
+                throw e;
+            }
+        }
+
+        MongoCollection<Document> collection = mongoTemplate.getCollection(name);
+        if (retention == null) {
+            removeTtl(collection);
+            return;
+        }
+        try {
+            collection.createIndex(Indexes.ascending("executedOn"),
+                    new IndexOptions().expireAfter(retention.toSeconds(), TimeUnit.SECONDS));
+        } catch (MongoCommandException e) {
+            if (e.getErrorCode() != INDEX_OPTIONS_CONFLICT) {
+                throw e;
+            }
+            // Retenção alterada na configuração: ajusta o índice existente em vez de recriá-lo
+            mongoTemplate.getDb().runCommand(new Document("collMod", name).append("index", new Document()
+                    .append("keyPattern", new Document("executedOn", 1))
+                    .append("expireAfterSeconds", retention.toSeconds())));
+        }
+    }
+
+    /**
+     * Sem retenção, remove o índice TTL criado por uma configuração anterior, que continuaria apagando registros.
+     */
+    private void removeTtl(MongoCollection<Document> collection) {
+        try {
+            collection.dropIndex(Indexes.ascending("executedOn"));
+        } catch (MongoCommandException e) {
+            if (e.getErrorCode() != INDEX_NOT_FOUND) {
+                throw e;
+            }
+        }
+    }
+
+    private List<String> bucketNames() {
+        return mongoTemplate.getCollectionNames().stream()
+                .filter(ExecutionBuckets::isBucket)
+                .toList();
+    }
+
+    static String bucketName(YearMonth month) {
+        return PREFIX + MONTH.format(month);
+    }
+
+    static boolean isBucket(String name) {
+        if (!name.startsWith(PREFIX)) {
+            return false;
+        }
+        String suffix = name.substring(PREFIX.length());
+        if (!suffix.matches("\\d{4}_\\d{2}(" + COLD_SUFFIX + ")?")) {
+            return false;
+        }
+        try {
+            monthOf(name);
+            return true;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    static YearMonth monthOf(String bucket) {
+        return YearMonth.parse(bucket.substring(PREFIX.length(), PREFIX.length() + 7), MONTH);
+    }
+
+    static boolean isCold(String bucket) {
+        return bucket.endsWith(COLD_SUFFIX);
+    }
+}
@@ -0,0 +1,83 @@
+package com.vaas.templateengine.infrastructure.persistence;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.vaas.templateengine.domain.model.ExecutionJob;
+import com.vaas.templateengine.domain.port.ExecutionJobRepository;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adaptador de infraestrutura para o estado dos jobs de execução, na coleção execution_jobs.
+ * Um índice TTL em updatedAt remove os jobs após a retenção: jobs concluídos a partir do término, e jobs
+ * abandonados por uma instância que caiu a partir da última renovação. Jobs em processamento são renovados
+ * periodicamente e não expiram.
+ */
+@Component
+public class ExecutionJobRepositoryAdapter implements ExecutionJobRepository {
+
+    private static final int INDEX_OPTIONS_CONFLICT = 85;
+
+    private final MongoTemplate mongoTemplate;
+    private final Duration retention;
+    private volatile boolean ttlIndexEnsured;
+
+    public ExecutionJobRepositoryAdapter(
+            MongoTemplate mongoTemplate,
+            @Value("${template-engine.execution.jobs.retention:PT1H}") Duration retention) {
+        this.mongoTemplate = mongoTemplate;
+        this.retention = retention;
+    }
+
+    @Override
+    public void save(ExecutionJob job) {
+        ensureTtlIndex();
+        mongoTemplate.save(job);
+    }
+
+    @Override
+    public Optional<ExecutionJob> findById(String id) {
+        return Optional.ofNullable(mongoTemplate.findById(id, ExecutionJob.class));
+    }
+
+    @Override
+    public void touch(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(ids).and("finishedAt").isNull()),
+                Update.update("updatedAt", OffsetDateTime.now()), ExecutionJob.class);
+    }
+
+    private void ensureTtlIndex() {
+        if (ttlIndexEnsured) {
+            return;
+        }
+        String collection = mongoTemplate.getCollectionName(ExecutionJob.class);
+        try {
+            mongoTemplate.getCollection(collection).createIndex(Indexes.ascending("updatedAt"),
+                    new IndexOptions().expireAfter(retention.toSeconds(), TimeUnit.SECONDS));
+        } catch (MongoCommandException e) {
+            if (e.getErrorCode() != INDEX_OPTIONS_CONFLICT) {
+                throw e;
+            }
+            // Retenção alterada na configuração: ajusta o índice existente em vez de recriá-lo
+            mongoTemplate.getDb().runCommand(new Document("collMod", collection).append("index", new Document()
+                    .append("keyPattern", new Document("updatedAt", 1))
+                    .append("expireAfterSeconds", retention.toSeconds())));
+        }
+        ttlIndexEnsured = true;
+    }
+}
@@ -2,27 +2,128 @@ package com.vaas.templateengine.infrastructure.persistence;
 
 import com.vaas.templateengine.domain.model.NotificationExecution;
 import com.vaas.templateengine.domain.port.NotificationExecutionRepository;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.mongodb.repository.MongoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.stereotype.Component;
-import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * Adaptador de infraestrutura para persistência de logs de execução.
  * Implementa o contrato definido na camada de domínio, isolando a tecnologia
  * de persistência (MongoDB) das regras de negócio.
+ * Corpos renderizados grandes são gravados uma única vez pelo {@link RenderedBodyStore} e referenciados
+ * pelo registro; a leitura os reconstitui de forma transparente. Os registros são distribuídos nas coleções
+ * mensais de {@link ExecutionBuckets}.
  */
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class ExecutionRepositoryAdapter implements NotificationExecutionRepository {
 
-    private final SpringDataMongoExecutionRepository repository;
+    /** Código atribuído aos registros de um bucket cuja gravação falhou sem resposta por documento. */
+    static final int UNKNOWN_ERROR = -1;
+
+    private final MongoTemplate mongoTemplate;
+    private final RenderedBodyStore bodyStore;
+    private final ExecutionBuckets buckets;
 
     @Override
     public NotificationExecution save(NotificationExecution execution) {
-        return repository.save(execution);
+        NotificationExecution stored = bodyStore.externalize(List.of(execution)).get(0);
+        mongoTemplate.insert(stored, buckets.collectionFor(stored.getExecutedOn()));
+        return execution;
     }
-}
 
-@Repository
-interface SpringDataMongoExecutionRepository extends MongoRepository<NotificationExecution, String> {}
\ No newline at end of file
+    /**
+     * Execuções são sempre novas (ID gerado na aplicação): insert evita o upsert por documento do save
+     * e é enviado ao MongoDB como um único insertMany por bucket. O lote é não ordenado, pois os registros são
+     * independentes: o servidor pode paralelizar a escrita, e a falha de um documento não interrompe os demais
+     * (reportados em {@link BulkOperationException}, com índices relativos ao lote recebido).
+     * Um lote que atravessa a virada do mês é gravado em um insert por bucket, e os buckets são independentes:
+     * as falhas de cada um, inclusive a de um bucket inteiro, são reportadas juntas, com os índices convertidos
+     * para o lote recebido, e os registros dos demais buckets não são dados como falhos. Quando nenhum registro
+     * foi gravado por falhas fora do insert (conexão, timeout), a exceção original é propagada.
+     */
+    @Override
+    public List<NotificationExecution> saveAll(List<NotificationExecution> executions) {
+        List<NotificationExecution> stored = bodyStore.externalize(executions);
+        Map<String, List<Integer>> byBucket = new LinkedHashMap<>();
+        for (int i = 0; i < stored.size(); i++) {
+            byBucket.computeIfAbsent(buckets.collectionFor(stored.get(i).getExecutedOn()), bucket -> new ArrayList<>()).add(i);
+        }
+
+        List<BulkWriteError> errors = new ArrayList<>();
+        RuntimeException firstFailure = null;
+        for (Map.Entry<String, List<Integer>> bucket : byBucket.entrySet()) {
+            List<Integer> indexes = bucket.getValue();
+            try {
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NotificationExecution.class, bucket.getKey())
+                        .insert(indexes.stream().map(stored::get).toList())
+                        .execute();
+            } catch (BulkOperationException e) {
+                if (byBucket.size() == 1) {
+                    throw e;
+                }
+                firstFailure = firstFailure != null ? firstFailure : e;
+                for (BulkWriteError error : e.getErrors()) {
+                    errors.add(new BulkWriteError(error.getCode(), error.getMessage(), error.getDetails(), indexes.get(error.getIndex())));
+                }
+            } catch (RuntimeException e) {
+                if (byBucket.size() == 1) {
+                    throw e;
+                }
+                firstFailure = firstFailure != null ? firstFailure : e;
+                log.error("Falha na gravação de {} registros de auditoria em {}: {}", indexes.size(), bucket.getKey(), e.getMessage());
+                for (int index : indexes) {
+                    errors.add(new BulkWriteError(UNKNOWN_ERROR, String.valueOf(e.getMessage()), new BsonDocument(), index));
+                }
+            }
+        }
+
+        if (errors.size() == stored.size() && firstFailure != null && !(firstFailure instanceof BulkOperationException)) {
+            // Nada foi gravado: a falha do primeiro bucket vale para o lote inteiro
+            throw firstFailure;
+        }
+        if (!errors.isEmpty()) {
+            errors.sort(Comparator.comparingInt(BulkWriteError::getIndex));
+            BulkWriteResult result = BulkWriteResult.acknowledged(stored.size() - errors.size(), 0, 0, 0, List.of(), List.of());
+            throw new BulkOperationException("Falha parcial na gravação do lote em " + byBucket.size() + " buckets",
+                    new MongoBulkWriteException(result, errors, null, new ServerAddress(), Set.of()));
+        }
+        return executions;
+    }
+
+    /**
+     * Identificadores ordenados pelo tempo levam direto ao bucket do mês em que a execução ocorreu. Os aleatórios,
+     * anteriores, consultam os buckets do mais recente ao mais antigo; execuções são lidas, em geral, logo após o
+     * disparo.
+     */
+    @Override
+    public Optional<NotificationExecution> findById(String id) {
+        List<String> collections = NotificationExecution.timestampOf(id)
+                .map(buckets::readOrderFor)
+                .orElseGet(buckets::readOrder);
+        for (String collection : collections) {
+            NotificationExecution execution = mongoTemplate.findById(id, NotificationExecution.class, collection);
+            if (execution != null) {
+                return Optional.of(bodyStore.rehydrate(execution));
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,284 @@
+package com.vaas.templateengine.infrastructure.persistence;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.InsertManyOptions;
+import com.vaas.templateengine.domain.model.NotificationExecution;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Spool local dos registros de auditoria para degradações do MongoDB.
+ * Quando a gravação direta excede latency-threshold ou falha, o {@link WriteBehindExecutionRepository} passa a
+ * gravar os lotes aqui, em um {@link SpoolLog} mapeado em memória, e a latência das execuções deixa de depender
+ * do banco. Um drenador em segundo plano reenvia os registros ao MongoDB em lotes, com insert não ordenado,
+ * e só confirma o checkpoint após a gravação; registros já presentes (chave duplicada) contam como entregues,
+ * o que torna seguro o reenvio após uma queda. A degradação termina quando um lote drenado, ou um ping
+ * com o spool vazio, responde abaixo do limite.
+ * Falhas transitórias (rede, timeout, write concern) mantêm o lote no spool para nova tentativa. Registros que o
+ * servidor recusa individualmente (erro de escrita por documento, como validação de schema) nunca seriam aceitos:
+ * são anexados a dead-letter.bson, no diretório do spool, e o lote é confirmado sem eles, para que um único
+ * registro não bloqueie a drenagem. O arquivo é BSON concatenado, legível por bsondump e importável por
+ * mongorestore após a correção; uma queda entre a gravação e o checkpoint pode repetir registros nele.
+ * Os registros são serializados pelo conversor do Spring Data, com o mesmo formato BSON das gravações diretas,
+ * e reenviados ao bucket mensal de {@link ExecutionBuckets} correspondente ao executedOn de cada um.
+ * Registros no spool já foram confirmados ao chamador: o diretório não tem valor padrão e deve apontar para um
+ * volume persistente, nunca para o diretório temporário do contêiner, que se perde na substituição do pod.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = {
+        "template-engine.execution.audit.write-behind.enabled",
+        "template-engine.execution.audit.spool.enabled"
+}, havingValue = "true")
+public class ExecutionSpool {
+
+    private static final String METRIC_NAME = "notifications.execution.audit.spool";
+    private static final int DUPLICATE_KEY = 11000;
+    static final String DEAD_LETTER = "dead-letter.bson";
+
+    private final MongoTemplate mongoTemplate;
+    private final ExecutionBuckets buckets;
+    private final Codec<Document> codec;
+    private final SpoolLog spoolLog;
+    private final Path deadLetter;
+    private final long latencyThresholdNanos;
+    private final int drainBatchSize;
+    private final Duration drainInterval;
+    private final Counter drained;
+    private final Counter deadLettered;
+    private final Thread drainer;
+    private volatile boolean degraded;
+    private volatile boolean running = true;
+
+    public ExecutionSpool(
+            MongoTemplate mongoTemplate,
+            ExecutionBuckets buckets,
+            MeterRegistry meterRegistry,
+            @Value("${template-engine.execution.audit.spool.directory:}") String directory,
+            @Value("${template-engine.execution.audit.spool.segment-size:67108864}") int segmentSize,
+            @Value("${template-engine.execution.audit.spool.latency-threshold:PT0.2S}") Duration latencyThreshold,
+            @Value("${template-engine.execution.audit.spool.drain-batch-size:500}") int drainBatchSize,
+            @Value("${template-engine.execution.audit.spool.drain-interval:PT1S}") Duration drainInterval) throws IOException {
+        this.mongoTemplate = mongoTemplate;
+        this.buckets = buckets;
+        if (directory.isBlank()) {
+            throw new IllegalStateException("template-engine.execution.audit.spool.directory é obrigatório com o spool "
+                    + "habilitado e deve apontar para um volume persistente.");
+        }
+        this.codec = mongoTemplate.getDb().getCodecRegistry().get(Document.class);
+        this.spoolLog = new SpoolLog(Path.of(directory), segmentSize);
+        this.deadLetter = Path.of(directory).resolve(DEAD_LETTER);
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.drainBatchSize = drainBatchSize;
+        this.drainInterval = drainInterval;
+        this.drained = meterRegistry.counter(METRIC_NAME + ".drained");
+        this.deadLettered = meterRegistry.counter(METRIC_NAME + ".dead_lettered");
+        meterRegistry.gauge(METRIC_NAME + ".pending", spoolLog, SpoolLog::pending);
+        meterRegistry.gauge(METRIC_NAME + ".degraded", this, spool -> spool.degraded ? 1 : 0);
+
+        if (spoolLog.pending() > 0) {
+            log.warn("Spool de auditoria com {} registros pendentes de uma execução anterior; reenvio ao MongoDB agendado.",
+                    spoolLog.pending());
+        }
+        this.drainer = Thread.ofVirtual().name("execution-audit-spool-drainer").start(this::drain);
+    }
+
+    /**
+     * @return Verdadeiro enquanto as gravações devem ser desviadas para o spool.
+     */
+    public boolean isDegraded() {
+        return degraded;
+    }
+
+    public boolean exceedsThreshold(long elapsedNanos) {
+        return elapsedNanos > latencyThresholdNanos;
+    }
+
+    public void markDegraded() {
+        if (!degraded) {
+            degraded = true;
+            log.warn("MongoDB acima do limite de latência para a auditoria: gravações desviadas para o spool local.");
+        }
+    }
+
+    /**
+     * Grava os registros no spool; ao retornar, estão persistidos no disco local.
+     * @throws UncheckedIOException se o disco local falhar.
+     */
+    public void append(List<NotificationExecution> executions) {
+        List<byte[]> records = new ArrayList<>(executions.size());
+        for (NotificationExecution execution : executions) {
+            Document document = new Document();
+            mongoTemplate.getConverter().write(execution, document);
+            ByteBuffer bytes = new RawBsonDocument(document, codec).getByteBuffer().asNIO();
+            byte[] record = new byte[bytes.remaining()];
+            bytes.get(record);
+            records.add(record);
+        }
+        try {
+            spoolLog.append(records);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar registros de auditoria no spool local.", e);
+        }
+    }
+
+    /**
+     * Laço do drenador: reenvia lotes enquanto houver registros e o MongoDB responder dentro do limite;
+     * com o spool vazio e a degradação ativa, sonda o MongoDB até a recuperação.
+     */
+    private void drain() {
+        while (running) {
+            try {
+                boolean caughtUp = spoolLog.pending() == 0 ? probe() : drainBatch();
+                if (caughtUp) {
+                    Thread.sleep(drainInterval);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException | IOException e) {
+                markDegraded();
+                log.warn("Reenvio do spool de auditoria adiado: {}", e.getMessage());
+                sleep();
+            }
+        }
+    }
+
+    /**
+     * @return Verdadeiro quando o drenador deve aguardar antes da próxima iteração.
+     */
+    private boolean probe() {
+        if (degraded) {
+            long start = System.nanoTime();
+            mongoTemplate.executeCommand("{ ping: 1 }");
+            recover(System.nanoTime() - start);
+        }
+        return true;
+    }
+
+    private boolean drainBatch() throws IOException {
+        SpoolLog.Batch batch = spoolLog.read(drainBatchSize);
+        Map<String, List<RawBsonDocument>> byBucket = new LinkedHashMap<>();
+        for (byte[] record : batch.records()) {
+            RawBsonDocument document = new RawBsonDocument(record);
+            BsonValue executedOn = document.get("executedOn");
+            OffsetDateTime timestamp = executedOn != null && executedOn.isDateTime()
+                    ? Instant.ofEpochMilli(executedOn.asDateTime().getValue()).atOffset(ZoneOffset.UTC)
+                    : null;
+            byBucket.computeIfAbsent(buckets.collectionFor(timestamp), bucket -> new ArrayList<>()).add(document);
+        }
+
+        long start = System.nanoTime();
+        List<RawBsonDocument> rejected = new ArrayList<>();
+        for (Map.Entry<String, List<RawBsonDocument>> bucket : byBucket.entrySet()) {
+            rejected.addAll(insert(bucket.getKey(), bucket.getValue()));
+        }
+        long elapsed = System.nanoTime() - start;
+
+        if (!rejected.isEmpty()) {
+            deadLetter(rejected);
+        }
+        spoolLog.commit(batch);
+        drained.increment(batch.records().size() - rejected.size());
+        recover(elapsed);
+        // Com o MongoDB ainda lento, espaça os lotes para não competir com a recuperação do banco
+        return degraded;
+    }
+
+    /**
+     * Insert não ordenado no bucket. Falhas transitórias são propagadas, e o lote inteiro é reenviado na próxima
+     * iteração (os registros já gravados voltam como chave duplicada).
+     * @return Registros recusados de forma permanente pelo servidor.
+     */
+    private List<RawBsonDocument> insert(String collection, List<RawBsonDocument> documents) {
+        try {
+            mongoTemplate.getCollection(collection)
+                    .withDocumentClass(RawBsonDocument.class)
+                    .insertMany(documents, new InsertManyOptions().ordered(false));
+            return List.of();
+        } catch (MongoBulkWriteException e) {
+            if (e.getWriteConcernError() != null) {
+                throw e;
+            }
+            List<RawBsonDocument> rejected = new ArrayList<>();
+            for (BulkWriteError error : e.getWriteErrors()) {
+                // Registros reenviados após uma queda já podem ter sido gravados antes do checkpoint
+                if (error.getCode() != DUPLICATE_KEY) {
+                    log.error("Registro de auditoria recusado pelo MongoDB em {} (código {}), movido para {}: {}",
+                            collection, error.getCode(), DEAD_LETTER, error.getMessage());
+                    rejected.add(documents.get(error.getIndex()));
+                }
+            }
+            return rejected;
+        }
+    }
+
+    private void deadLetter(List<RawBsonDocument> documents) throws IOException {
+        try (FileChannel channel = FileChannel.open(deadLetter,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            for (RawBsonDocument document : documents) {
+                ByteBuffer bytes = document.getByteBuffer().asNIO();
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+            }
+            channel.force(true);
+        }
+        deadLettered.increment(documents.size());
+    }
+
+    private void recover(long elapsedNanos) {
+        if (!exceedsThreshold(elapsedNanos)) {
+            if (degraded) {
+                log.info("MongoDB dentro do limite de latência: gravações da auditoria retomadas diretamente.");
+            }
+            degraded = false;
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(drainInterval);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    /**
+     * Encerra o drenador; os registros pendentes permanecem no disco e são reenviados na próxima inicialização.
+     */
+    @PreDestroy
+    void shutdown() throws InterruptedException, IOException {
+        // Sem interrupção: um lote em reenvio termina e confirma o checkpoint antes do encerramento
+        running = false;
+        drainer.join();
+        spoolLog.close();
+    }
+}
@@ -0,0 +1,15 @@
+package com.vaas.templateengine.infrastructure.persistence;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Corpo renderizado armazenado uma única vez, identificado pelo SHA-256 do conteúdo.
+ * @param encoding "gzip" para conteúdo comprimido ou "identity" para UTF-8 sem compressão.
+ * @param length Tamanho do conteúdo original, em caracteres.
+ * @param expiresAt Remoção pelo índice TTL, renovada enquanto o corpo é referenciado; nulo sem retenção.
+ */
+@Document(collection = "rendered_bodies")
+record RenderedBody(@Id String id, String encoding, byte[] data, int length, Instant expiresAt) {}
@@ -0,0 +1,240 @@
+package com.vaas.templateengine.infrastructure.persistence;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.vaas.templateengine.domain.model.NotificationExecution;
+import com.vaas.templateengine.shared.exception.BusinessException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Armazenamento endereçado por conteúdo dos corpos renderizados do log de auditoria.
+ * Disparos em massa repetem o mesmo corpo em milhões de execuções: um corpo a partir de min-size que se repete
+ * (visto antes pela instância ou mais de uma vez no mesmo lote) é gravado uma única vez na coleção
+ * rendered_bodies, identificado pelo SHA-256 do conteúdo e opcionalmente comprimido com gzip, e a execução
+ * guarda apenas a referência. Corpos vistos pela primeira vez permanecem no registro, sem a gravação adicional.
+ * Os identificadores já gravados são lembrados localmente por ttl-refresh, de modo que um corpo repetido não é
+ * reenviado ao MongoDB a cada execução.
+ * Com a retenção das execuções ativa, cada corpo expira pelo índice TTL em expiresAt, renovado a cada nova
+ * gravação para além da retenção do último registro que pode referenciá-lo.
+ * Consultas ao MongoDB ocorrem fora de computações dos caches, que nunca bloqueiam por I/O.
+ */
+@Component
+class RenderedBodyStore {
+
+    static final String IDENTITY = "identity";
+    static final String GZIP = "gzip";
+
+    private static final String COLLECTION = "rendered_bodies";
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final int minSize;
+    private final boolean compression;
+    private final Optional<Duration> retention;
+    private final Duration ttlRefresh;
+    private final Cache<String, Boolean> seenHashes;
+    private final Cache<String, Boolean> storedHashes;
+    private final Cache<String, String> contents;
+    private volatile boolean ttlIndexEnsured;
+
+    RenderedBodyStore(
+            MongoTemplate mongoTemplate,
+            ExecutionBuckets buckets,
+            @Value("${template-engine.execution.audit.content-store.min-size:1024}") int minSize,
+            @Value("${template-engine.execution.audit.content-store.compression:true}") boolean compression,
+            @Value("${template-engine.execution.audit.content-store.known-hashes:10000}") long knownHashes,
+            @Value("${template-engine.execution.audit.content-store.read-cache-max-chars:16000000}") long readCacheMaxChars,
+            @Value("${template-engine.execution.audit.content-store.ttl-refresh:P1D}") Duration ttlRefresh) {
+        this.mongoTemplate = mongoTemplate;
+        this.minSize = minSize;
+        this.compression = compression;
+        this.retention = buckets.retention();
+        this.ttlRefresh = ttlRefresh;
+        this.seenHashes = Caffeine.newBuilder().maximumSize(knownHashes).build();
+        // A expiração local força a regravação periódica, que renova o expiresAt dos corpos ainda em uso
+        this.storedHashes = Caffeine.newBuilder().maximumSize(knownHashes).expireAfterWrite(ttlRefresh).build();
+        this.contents = Caffeine.newBuilder()
+                .maximumWeight(readCacheMaxChars)
+                .weigher((String hash, String content) -> content.length())
+                .build();
+    }
+
+    /**
+     * Substitui o corpo de cada execução elegível que se repete pela referência ao conteúdo, gravando antes os
+     * corpos ainda não conhecidos. As execuções recebidas não são alteradas.
+     * @return Execuções na mesma ordem, na forma em que devem ser persistidas.
+     */
+    List<NotificationExecution> externalize(List<NotificationExecution> executions) {
+        String[] hashes = new String[executions.size()];
+        Map<String, Integer> occurrences = new HashMap<>();
+        for (int i = 0; i < executions.size(); i++) {
+            String content = executions.get(i).getRenderedContent();
+            if (content != null && content.length() >= minSize) {
+                hashes[i] = hash(content);
+                occurrences.merge(hashes[i], 1, Integer::sum);
+            }
+        }
+
+        Map<String, String> unknownBodies = new LinkedHashMap<>();
+        List<NotificationExecution> stored = new ArrayList<>(executions.size());
+        for (int i = 0; i < executions.size(); i++) {
+            NotificationExecution execution = executions.get(i);
+            String hash = hashes[i];
+            if (hash == null) {
+                stored.add(execution);
+                continue;
+            }
+            if (storedHashes.getIfPresent(hash) == null) {
+                if (occurrences.get(hash) == 1 && seenHashes.getIfPresent(hash) == null) {
+                    // Primeira ocorrência: a referência só compensa a gravação adicional se o corpo se repetir
+                    seenHashes.put(hash, Boolean.TRUE);
+                    stored.add(execution);
+                    continue;
+                }
+                unknownBodies.putIfAbsent(hash, execution.getRenderedContent());
+            }
+            stored.add(execution.toBuilder().renderedContent(null).renderedContentRef(hash).build());
+        }
+
+        if (!unknownBodies.isEmpty()) {
+            store(unknownBodies);
+            unknownBodies.keySet().forEach(hash -> {
+                storedHashes.put(hash, Boolean.TRUE);
+                seenHashes.put(hash, Boolean.TRUE);
+            });
+        }
+        return stored;
+    }
+
+    /**
+     * Reconstitui o corpo de uma execução gravada por referência; execuções com corpo próprio retornam inalteradas.
+     * @throws BusinessException EXECUTION_CONTENT_EXPIRED se o corpo já foi removido pela retenção.
+     */
+    NotificationExecution rehydrate(NotificationExecution execution) {
+        String hash = execution.getRenderedContentRef();
+        if (hash == null) {
+            return execution;
+        }
+        return execution.toBuilder().renderedContent(load(hash)).build();
+    }
+
+    private String load(String hash) {
+        String content = contents.getIfPresent(hash);
+        if (content == null) {
+            RenderedBody body = mongoTemplate.findById(hash, RenderedBody.class);
+            if (body == null) {
+                throw new BusinessException("Conteúdo renderizado da execução expirou e não está mais disponível.",
+                        "EXECUTION_CONTENT_EXPIRED");
+            }
+            content = decode(body);
+            contents.put(hash, content);
+        }
+        return content;
+    }
+
+    /**
+     * Upserts não ordenados com $setOnInsert: corpos já gravados por outra instância permanecem intactos,
+     * e a colisão de inserções concorrentes (chave duplicada) equivale a sucesso.
+     * O expiresAt só avança ($max): cobre a retenção de execuções gravadas até a próxima renovação, que ocorre
+     * em até ttl-refresh enquanto o corpo continuar em uso.
+     */
+    private void store(Map<String, String> bodies) {
+        Instant expiresAt = retention.map(duration -> Instant.now().plus(duration).plus(ttlRefresh)).orElse(null);
+        if (expiresAt != null) {
+            ensureTtlIndex();
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RenderedBody.class);
+        bodies.forEach((hash, content) -> {
+            RenderedBody body = encode(hash, content);
+            Update update = new Update()
+                    .setOnInsert("encoding", body.encoding())
+                    .setOnInsert("data", body.data())
+                    .setOnInsert("length", body.length());
+            if (expiresAt != null) {
+                update.max("expiresAt", expiresAt);
+            }
+            bulk.upsert(Query.query(Criteria.where("_id").is(hash)), update);
+        });
+        try {
+            bulk.execute();
+        } catch (BulkOperationException e) {
+            if (!e.getErrors().stream().allMatch(error -> error.getCode() == DUPLICATE_KEY)) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Corpos sem expiresAt (gravados sem retenção) nunca expiram.
+     */
+    private void ensureTtlIndex() {
+        if (!ttlIndexEnsured) {
+            mongoTemplate.getCollection(COLLECTION).createIndex(Indexes.ascending("expiresAt"),
+                    new IndexOptions().expireAfter(0L, TimeUnit.SECONDS));
+            ttlIndexEnsured = true;
+        }
+    }
+
+    RenderedBody encode(String hash, String content) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        if (!compression) {
+            return new RenderedBody(hash, IDENTITY, bytes, content.length(), null);
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new RenderedBody(hash, GZIP, compressed.toByteArray(), content.length(), null);
+    }
+
+    static String decode(RenderedBody body) {
+        if (!GZIP.equals(body.encoding())) {
+            return new String(body.data(), StandardCharsets.UTF_8);
+        }
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body.data()))) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corpo renderizado corrompido: " + body.id(), e);
+        }
+    }
+
+    static String hash(String content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
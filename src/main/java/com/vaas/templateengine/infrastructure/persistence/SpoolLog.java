@@ -0,0 +1,297 @@
+package com.vaas.templateengine.infrastructure.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Log local append-only em segmentos de arquivo mapeados em memória.
+ * Cada registro é gravado como [tamanho][CRC32][conteúdo]. Um tamanho zero ou um CRC divergente marca o fim dos
+ * dados válidos de um segmento: um registro escrito pela metade em uma queda é descartado na recuperação.
+ * A posição já consumida é persistida em um checkpoint substituído atomicamente; na reinicialização, a leitura
+ * recomeça do checkpoint, e registros consumidos depois dele são entregues de novo (o consumidor deve tolerar
+ * duplicatas). Segmentos inteiramente consumidos são removidos.
+ * Escrita e leitura são serializadas por um lock explícito, sem synchronized (adequado a virtual threads).
+ */
+final class SpoolLog implements Closeable {
+
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+    private static final int CHECKPOINT_BYTES = Long.BYTES + Integer.BYTES + Long.BYTES;
+    private static final String SEGMENT_PREFIX = "spool-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT = "checkpoint";
+
+    /**
+     * Posição no log: segmento e deslocamento em bytes dentro dele.
+     */
+    record Position(long segment, int offset) {}
+
+    /**
+     * Registros lidos e a posição imediatamente após o último deles, a ser confirmada por {@link #commit}.
+     */
+    record Batch(List<byte[]> records, Position end) {}
+
+    private record Segment(FileChannel channel, MappedByteBuffer buffer) {}
+
+    private record Scan(Position end, long count) {}
+
+    private final Path directory;
+    private final int segmentSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private Position readPosition;
+    private long writeSegment;
+    private int writeOffset;
+    private volatile long pending;
+
+    /**
+     * Abre o log no diretório informado, recuperando segmentos e checkpoint de uma execução anterior.
+     */
+    SpoolLog(Path directory, int segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+
+        Position checkpoint = readCheckpoint();
+        List<Long> existing = listSegments();
+        long first = existing.isEmpty() ? (checkpoint != null ? checkpoint.segment() : 0) : existing.get(0);
+        readPosition = checkpoint != null && checkpoint.segment() >= first ? checkpoint : new Position(first, 0);
+
+        for (long sequence : existing) {
+            if (sequence < readPosition.segment()) {
+                Files.deleteIfExists(segmentPath(sequence));
+            } else {
+                segments.put(sequence, open(sequence));
+            }
+        }
+        if (segments.isEmpty()) {
+            readPosition = new Position(readPosition.segment(), 0);
+            segments.put(readPosition.segment(), open(readPosition.segment()));
+        }
+
+        writeSegment = segments.lastKey();
+        MappedByteBuffer tail = segments.get(writeSegment).buffer();
+        writeOffset = validEnd(tail, writeSegment == readPosition.segment() ? readPosition.offset() : 0);
+        // Descarta o registro parcial de uma queda, para que a próxima escrita não deixe resíduos após o fim
+        if (writeOffset + HEADER_BYTES <= tail.capacity() && tail.getInt(writeOffset) != 0) {
+            for (int i = writeOffset; i < tail.capacity(); i++) {
+                tail.put(i, (byte) 0);
+            }
+            tail.force();
+        }
+        pending = scan(readPosition, Long.MAX_VALUE, null).count();
+    }
+
+    /**
+     * Acrescenta os registros ao final do log e os força para o disco antes de retornar.
+     * @throws IllegalArgumentException se um registro não couber em um segmento.
+     */
+    void append(List<byte[]> records) throws IOException {
+        lock.lock();
+        try {
+            for (byte[] record : records) {
+                int needed = HEADER_BYTES + record.length;
+                if (needed > segmentSize) {
+                    throw new IllegalArgumentException("Registro de " + record.length + " bytes excede o tamanho do segmento do spool.");
+                }
+                MappedByteBuffer buffer = segments.get(writeSegment).buffer();
+                if (writeOffset + needed > buffer.capacity()) {
+                    buffer.force();
+                    writeSegment++;
+                    writeOffset = 0;
+                    segments.put(writeSegment, open(writeSegment));
+                    buffer = segments.get(writeSegment).buffer();
+                }
+                buffer.put(writeOffset + HEADER_BYTES, record);
+                buffer.putInt(writeOffset + Integer.BYTES, crc(record));
+                buffer.putInt(writeOffset, record.length);
+                writeOffset += needed;
+            }
+            segments.get(writeSegment).buffer().force();
+            pending += records.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Lê até maxRecords registros a partir da última posição confirmada, sem consumi-los.
+     */
+    Batch read(int maxRecords) {
+        lock.lock();
+        try {
+            List<byte[]> records = new ArrayList<>();
+            Position end = scan(readPosition, maxRecords, records).end();
+            return new Batch(records, end);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Confirma a entrega de um lote lido: persiste o checkpoint e remove os segmentos já consumidos.
+     */
+    void commit(Batch batch) throws IOException {
+        lock.lock();
+        try {
+            writeCheckpoint(batch.end());
+            readPosition = batch.end();
+            pending -= batch.records().size();
+            while (segments.firstKey() < readPosition.segment()) {
+                long sequence = segments.firstKey();
+                segments.remove(sequence).channel().close();
+                Files.deleteIfExists(segmentPath(sequence));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Registros gravados e ainda não confirmados.
+     */
+    long pending() {
+        return pending;
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            for (Segment segment : segments.values()) {
+                segment.buffer().force();
+                segment.channel().close();
+            }
+            segments.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Percorre registros válidos a partir de uma posição, copiando-os para sink quando informado.
+     */
+    private Scan scan(Position from, long maxRecords, List<byte[]> sink) {
+        long segment = from.segment();
+        int offset = from.offset();
+        long count = 0;
+
+        while (count < maxRecords) {
+            MappedByteBuffer buffer = segments.get(segment).buffer();
+            int limit = segment == writeSegment ? writeOffset : buffer.capacity();
+            int length = recordLength(buffer, offset, limit);
+            if (length > 0) {
+                if (sink != null) {
+                    byte[] record = new byte[length];
+                    buffer.get(offset + HEADER_BYTES, record);
+                    sink.add(record);
+                }
+                offset += HEADER_BYTES + length;
+                count++;
+            } else if (segment < writeSegment) {
+                segment = segments.higherKey(segment);
+                offset = 0;
+            } else {
+                break;
+            }
+        }
+        return new Scan(new Position(segment, offset), count);
+    }
+
+    /**
+     * @return Tamanho do registro válido na posição, ou zero no fim dos dados válidos do segmento.
+     */
+    private static int recordLength(ByteBuffer buffer, int offset, int limit) {
+        if (offset + HEADER_BYTES > limit) {
+            return 0;
+        }
+        int length = buffer.getInt(offset);
+        if (length <= 0 || length > limit - offset - HEADER_BYTES) {
+            return 0;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset + HEADER_BYTES, length));
+        return (int) crc.getValue() == buffer.getInt(offset + Integer.BYTES) ? length : 0;
+    }
+
+    private static int validEnd(ByteBuffer buffer, int offset) {
+        int length;
+        while ((length = recordLength(buffer, offset, buffer.capacity())) > 0) {
+            offset += HEADER_BYTES + length;
+        }
+        return offset;
+    }
+
+    private static int crc(byte[] record) {
+        CRC32 crc = new CRC32();
+        crc.update(record);
+        return (int) crc.getValue();
+    }
+
+    private Segment open(long sequence) throws IOException {
+        FileChannel channel = FileChannel.open(segmentPath(sequence),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = Math.max(channel.size(), segmentSize);
+        return new Segment(channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+    }
+
+    private Path segmentPath(long sequence) {
+        return directory.resolve(String.format("%s%019d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+    }
+
+    private List<Long> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * @return Checkpoint persistido, ou null se ausente ou corrompido (a leitura recomeça do segmento mais antigo).
+     */
+    private Position readCheckpoint() throws IOException {
+        Path path = directory.resolve(CHECKPOINT);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (content.remaining() != CHECKPOINT_BYTES) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(content.slice(0, Long.BYTES + Integer.BYTES));
+        Position position = new Position(content.getLong(), content.getInt());
+        return crc.getValue() == content.getLong() ? position : null;
+    }
+
+    private void writeCheckpoint(Position position) throws IOException {
+        ByteBuffer content = ByteBuffer.allocate(CHECKPOINT_BYTES);
+        content.putLong(position.segment()).putInt(position.offset());
+        CRC32 crc = new CRC32();
+        crc.update(content.array(), 0, Long.BYTES + Integer.BYTES);
+        content.putLong(crc.getValue()).flip();
+
+        Path temporary = directory.resolve(CHECKPOINT + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(content);
+            channel.force(true);
+        }
+        Files.move(temporary, directory.resolve(CHECKPOINT), StandardCopyOption.ATOMIC_MOVE);
+    }
+}
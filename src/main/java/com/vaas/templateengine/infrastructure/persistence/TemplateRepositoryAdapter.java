@@ -3,12 +3,19 @@ package com.vaas.templateengine.infrastructure.persistence;
 import com.vaas.templateengine.domain.model.Channel;
 import com.vaas.templateengine.domain.model.NotificationTemplate;
 import com.vaas.templateengine.domain.model.TemplateStatus;
+import com.vaas.templateengine.domain.model.TemplateVersion;
 import com.vaas.templateengine.domain.port.NotificationTemplateRepository;
 import lombok.RequiredArgsConstructor;
+import org.bson.Document;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -21,6 +28,7 @@ import java.util.Optional;
 public class TemplateRepositoryAdapter implements NotificationTemplateRepository {
 
     private final SpringDataMongoTemplateRepository repository;
+    private final MongoTemplate mongoTemplate;
 
     /**
      * Persiste ou atualiza um agregado de template no repositório.
@@ -42,6 +50,44 @@ public class TemplateRepositoryAdapter implements NotificationTemplateRepository
         return repository.findById(id);
     }
 
+    /**
+     * Leitura do caminho de execução: um único aggregate que mantém os campos do template e reduz o array de
+     * versões, com $filter, à versão informada ou à apontada por activePublishedVersionId. Apenas essa versão
+     * trafega do MongoDB, independentemente do tamanho do histórico.
+     * @param id Identificador do template.
+     * @param versionId Versão desejada; nulo para a versão publicada ativa.
+     * @return Optional contendo o template, com no máximo uma versão, se encontrado.
+     */
+    @Override
+    public Optional<NotificationTemplate> findWithVersion(String id, String versionId) {
+        // Nome do campo de id da versão embutida, conforme o mapeamento do Spring Data
+        String versionIdField = mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(TemplateVersion.class)
+                .getRequiredPersistentProperty("id").getFieldName();
+        Object targetVersion = versionId != null ? new Document("$literal", versionId) : "$activePublishedVersionId";
+
+        Aggregation aggregation = Aggregation.newAggregation(NotificationTemplate.class,
+                Aggregation.match(Criteria.where("id").is(id)),
+                context -> new Document("$set", new Document("versions", new Document("$filter", new Document()
+                        .append("input", "$versions")
+                        .append("as", "version")
+                        .append("cond", new Document("$eq", List.of("$$version." + versionIdField, targetVersion)))))));
+
+        return Optional.ofNullable(mongoTemplate.aggregate(aggregation, NotificationTemplate.class).getUniqueMappedResult());
+    }
+
+    /**
+     * Leitura do ponteiro da versão ativa e dos campos do template, com o array de versões excluído da projeção.
+     * @param id Identificador do template.
+     * @return Optional contendo o template sem versões, se encontrado.
+     */
+    @Override
+    public Optional<NotificationTemplate> findSummary(String id) {
+        Query query = Query.query(Criteria.where("id").is(id));
+        query.fields().exclude("versions");
+        return Optional.ofNullable(mongoTemplate.findOne(query, NotificationTemplate.class));
+    }
+
     /**
      * Recupera templates de forma paginada aplicando filtros dinâmicos de busca.
      * @param orgId Identificador da organização proprietária (Multi-tenancy).
@@ -0,0 +1,381 @@
+package com.vaas.templateengine.infrastructure.persistence;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.vaas.templateengine.domain.model.NotificationExecution;
+import com.vaas.templateengine.domain.port.NotificationExecutionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Escrita diferida (write-behind) do log de auditoria das execuções.
+ * Cada {@link #save} entra em uma fila limitada; writers dedicados agrupam os registros pendentes e os gravam
+ * com um único insert em lote não ordenado ({@link ExecutionRepositoryAdapter#saveAll}), quando o lote atinge
+ * batch-size ou quando max-delay se esgota desde o primeiro registro (group commit).
+ * A durabilidade é configurável: em WAIT_FOR_FLUSH a chamada aguarda a gravação do lote e recebe a falha,
+ * se houver, por no máximo flush-timeout (HTTP 503 ao esgotar); em ACK_ON_ENQUEUE a chamada retorna ao enfileirar e falhas de gravação são apenas registradas.
+ * Com a fila cheia, a chamada aguarda até enqueue-timeout e é rejeitada com {@link RejectedExecutionException}
+ * (HTTP 429), preservando a contrapressão sobre o MongoDB.
+ * Com o {@link ExecutionSpool} habilitado, lotes que falham ou encontram o MongoDB degradado (gravação acima do
+ * limite de latência, inclusive uma ainda em andamento) são gravados no spool local, e a execução não espera
+ * pela recuperação do banco.
+ * Nenhum registro fica sem resposta: uma falha inesperada do writer (inclusive {@link Error}) falha o lote
+ * inteiro e o writer segue ativo. Após o desligamento, as chamadas gravam diretamente no MongoDB; o aceite pela
+ * fila e o desligamento são serializados, de modo que nenhum registro entra na fila depois da última drenagem.
+ */
+@Slf4j
+@Primary
+@Component
+@ConditionalOnProperty(name = "template-engine.execution.audit.write-behind.enabled", havingValue = "true")
+public class WriteBehindExecutionRepository implements NotificationExecutionRepository {
+
+    /**
+     * Momento em que {@link #save} retorna ao chamador.
+     */
+    public enum Durability {
+        /** Após a gravação do lote que contém o registro. */
+        WAIT_FOR_FLUSH,
+        /** Após o enfileiramento; o registro pode ser perdido se a gravação falhar ou a instância cair. */
+        ACK_ON_ENQUEUE
+    }
+
+    private static final String METRIC_NAME = "notifications.execution.audit";
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final ExecutionRepositoryAdapter delegate;
+    private final ExecutionSpool spool;
+    private final MeterRegistry meterRegistry;
+    private final Durability durability;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final long enqueueTimeoutNanos;
+    private final Duration flushTimeout;
+    private final BlockingQueue<PendingWrite> queue;
+    private final DistributionSummary batchSizes;
+    private final Counter rejected;
+    private final Counter failed;
+    private final Counter spooled;
+    private final List<Thread> writers = new ArrayList<>();
+    /** Instante de início da gravação em andamento de cada writer (System.nanoTime), ou zero se ocioso. */
+    private final AtomicLongArray flushStartedAt;
+    private volatile boolean running = true;
+    /** Leitura: aceite de um registro pela fila; escrita: encerramento do aceite no desligamento. */
+    private final ReadWriteLock acceptance = new ReentrantReadWriteLock();
+
+    public WriteBehindExecutionRepository(
+            ExecutionRepositoryAdapter delegate,
+            Optional<ExecutionSpool> spool,
+            MeterRegistry meterRegistry,
+            @Value("${template-engine.execution.audit.write-behind.durability:WAIT_FOR_FLUSH}") Durability durability,
+            @Value("${template-engine.execution.audit.write-behind.capacity:10000}") int capacity,
+            @Value("${template-engine.execution.audit.write-behind.batch-size:500}") int batchSize,
+            @Value("${template-engine.execution.audit.write-behind.max-delay:PT0.005S}") Duration maxDelay,
+            @Value("${template-engine.execution.audit.write-behind.enqueue-timeout:PT0.5S}") Duration enqueueTimeout,
+            @Value("${template-engine.execution.audit.write-behind.flush-timeout:PT10S}") Duration flushTimeout,
+            @Value("${template-engine.execution.audit.write-behind.writers:2}") int writerCount) {
+        this.delegate = delegate;
+        this.spool = spool.orElse(null);
+        this.meterRegistry = meterRegistry;
+        this.durability = durability;
+        this.batchSize = batchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.enqueueTimeoutNanos = enqueueTimeout.toNanos();
+        this.flushTimeout = flushTimeout;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSizes = meterRegistry.summary(METRIC_NAME + ".batch_size");
+        this.rejected = meterRegistry.counter(METRIC_NAME + ".rejected");
+        this.failed = meterRegistry.counter(METRIC_NAME + ".failed");
+        this.spooled = meterRegistry.counter(METRIC_NAME + ".spooled");
+        this.flushStartedAt = new AtomicLongArray(writerCount);
+        meterRegistry.gauge(METRIC_NAME + ".queue", queue, Collection::size);
+
+        Thread.Builder builder = Thread.ofVirtual().name("execution-audit-writer-", 0);
+        for (int i = 0; i < writerCount; i++) {
+            int writer = i;
+            writers.add(builder.start(() -> drain(writer)));
+        }
+    }
+
+    @Override
+    public NotificationExecution save(NotificationExecution execution) {
+        PendingWrite write = null;
+        acceptance.readLock().lock();
+        try {
+            if (running) {
+                write = new PendingWrite(execution,
+                        durability == Durability.WAIT_FOR_FLUSH ? new CompletableFuture<>() : null);
+                enqueue(write);
+            }
+        } finally {
+            acceptance.readLock().unlock();
+        }
+
+        if (write == null) {
+            return delegate.save(execution);
+        }
+        if (write.flushed() != null) {
+            await(write);
+        }
+        return execution;
+    }
+
+    /**
+     * Aguarda a gravação do lote por no máximo flush-timeout; ao esgotar, o registro ainda pode ser gravado.
+     */
+    private void await(PendingWrite write) {
+        try {
+            write.flushed().orTimeout(flushTimeout.toNanos(), TimeUnit.NANOSECONDS).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new QueryTimeoutException("Gravação da auditoria da execução não concluída em " + flushTimeout + ".", e.getCause());
+            }
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Lotes explícitos já chegam agrupados em um único insert e não passam pela fila.
+     */
+    @Override
+    public List<NotificationExecution> saveAll(List<NotificationExecution> executions) {
+        return delegate.saveAll(executions);
+    }
+
+    /**
+     * Leitura direta no MongoDB: registros ainda na fila ou no spool não são encontrados até a gravação.
+     */
+    @Override
+    public Optional<NotificationExecution> findById(String id) {
+        return delegate.findById(id);
+    }
+
+    private void enqueue(PendingWrite write) {
+        try {
+            if (queue.offer(write, enqueueTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.increment();
+        throw new RejectedExecutionException("Fila de gravação da auditoria de execuções cheia.");
+    }
+
+    /**
+     * Laço de cada writer: aguarda o primeiro registro e completa o lote até batch-size ou max-delay.
+     * Após o desligamento, continua até esvaziar a fila.
+     */
+    private void drain(int writer) {
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingWrite next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                flushSafely(batch, writer);
+                return;
+            }
+            flushSafely(batch, writer);
+        }
+    }
+
+    /**
+     * Grava o lote sem deixar escapar nenhuma falha, o que encerraria o writer, e falha os registros que a
+     * gravação não chegou a responder, para que nenhum chamador aguarde indefinidamente.
+     */
+    private void flushSafely(List<PendingWrite> batch, int writer) {
+        try {
+            flush(batch, writer);
+        } catch (Throwable e) {
+            failed.increment(batch.size());
+            log.error("Falha inesperada ao gravar lote de {} registros de auditoria", batch.size(), e);
+        } finally {
+            batch.forEach(PendingWrite::abandon);
+            batch.clear();
+        }
+    }
+
+    /**
+     * @param writer Índice do writer, para a detecção de gravações travadas; negativo fora dos writers.
+     */
+    private void flush(List<PendingWrite> batch, int writer) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<NotificationExecution> executions = batch.stream().map(PendingWrite::execution).toList();
+        batchSizes.record(executions.size());
+        if (spool != null && mongoDegraded()) {
+            spool(batch, executions);
+            return;
+        }
+
+        long start = System.nanoTime();
+        if (writer >= 0) {
+            flushStartedAt.set(writer, start);
+        }
+        try {
+            delegate.saveAll(executions);
+            recordFlush("success", start);
+            if (spool != null && spool.exceedsThreshold(System.nanoTime() - start)) {
+                spool.markDegraded();
+            }
+            batch.forEach(PendingWrite::complete);
+        } catch (BulkOperationException e) {
+            // Insert não ordenado: apenas os registros apontados pelo MongoDB falharam
+            Set<Integer> failedIndexes = e.getErrors().stream().map(BulkWriteError::getIndex).collect(Collectors.toSet());
+            recordFlush("partial", start);
+            failed.increment(failedIndexes.size());
+            log.error("Falha ao gravar {} de {} registros de auditoria: {}", failedIndexes.size(), batch.size(), e.getMessage());
+            for (int i = 0; i < batch.size(); i++) {
+                if (failedIndexes.contains(i)) {
+                    batch.get(i).fail(e);
+                } else {
+                    batch.get(i).complete();
+                }
+            }
+        } catch (RuntimeException e) {
+            recordFlush("failure", start);
+            if (spool != null) {
+                log.warn("Falha ao gravar lote de {} registros de auditoria no MongoDB; desviado para o spool: {}",
+                        batch.size(), e.getMessage());
+                spool.markDegraded();
+                spool(batch, executions);
+                return;
+            }
+            failed.increment(batch.size());
+            log.error("Falha ao gravar lote de {} registros de auditoria: {}", batch.size(), e.getMessage());
+            batch.forEach(write -> write.fail(e));
+        } finally {
+            if (writer >= 0) {
+                flushStartedAt.set(writer, 0);
+            }
+        }
+    }
+
+    /**
+     * Degradação sinalizada pelo spool, ou gravação de outro writer em andamento há mais que o limite
+     * (um MongoDB travado não completa a gravação que permitiria medir a latência).
+     */
+    private boolean mongoDegraded() {
+        if (spool.isDegraded()) {
+            return true;
+        }
+        long now = System.nanoTime();
+        for (int i = 0; i < flushStartedAt.length(); i++) {
+            long startedAt = flushStartedAt.get(i);
+            if (startedAt != 0 && spool.exceedsThreshold(now - startedAt)) {
+                spool.markDegraded();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void spool(List<PendingWrite> batch, List<NotificationExecution> executions) {
+        try {
+            spool.append(executions);
+            spooled.increment(executions.size());
+            batch.forEach(PendingWrite::complete);
+        } catch (RuntimeException e) {
+            failed.increment(batch.size());
+            log.error("Falha ao gravar lote de {} registros de auditoria no spool: {}", batch.size(), e.getMessage());
+            batch.forEach(write -> write.fail(e));
+        }
+    }
+
+    private void recordFlush(String result, long start) {
+        meterRegistry.timer(METRIC_NAME + ".flush", "result", result).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Interrompe o aceite pela fila e aguarda os writers gravarem os registros pendentes.
+     */
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        // Aguarda os enfileiramentos em andamento; depois disso, nenhum registro entra na fila
+        acceptance.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            acceptance.writeLock().unlock();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        List<PendingWrite> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        flushSafely(remaining, -1);
+    }
+
+    /**
+     * Registro aguardando gravação; flushed é nulo em ACK_ON_ENQUEUE, quando ninguém aguarda o resultado.
+     */
+    private record PendingWrite(NotificationExecution execution, CompletableFuture<Void> flushed) {
+
+        void complete() {
+            if (flushed != null) {
+                flushed.complete(null);
+            }
+        }
+
+        void fail(RuntimeException cause) {
+            if (flushed != null) {
+                flushed.completeExceptionally(cause);
+            }
+        }
+
+        /**
+         * Falha o registro se a gravação terminou sem respondê-lo; sem efeito se já completado.
+         */
+        void abandon() {
+            if (flushed != null && !flushed.isDone()) {
+                flushed.completeExceptionally(new DataAccessResourceFailureException(
+                        "Registro de auditoria não gravado: falha inesperada na gravação do lote."));
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.vaas.templateengine.infrastructure.web;
 
 import com.vaas.templateengine.shared.exception.BusinessException;
 import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -11,6 +12,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import java.time.OffsetDateTime;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 /**
@@ -40,6 +42,32 @@ public class GlobalExceptionHandler {
         ));
     }
 
+    /**
+     * Contrapressão das execuções: a fila de jobs assíncronos ou a fila de gravação da auditoria está cheia,
+     * e o cliente deve tentar mais tarde.
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Map<String, Object>> handleRejectedExecution(RejectedExecutionException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Map.of(
+                "timestamp", OffsetDateTime.now(),
+                "code", "EXECUTION_QUEUE_FULL",
+                "message", "A capacidade de processamento de execuções está esgotada. Tente novamente em instantes."
+        ));
+    }
+
+    /**
+     * Gravação no MongoDB não concluída no tempo limite (como a da auditoria da execução); o registro ainda
+     * pode ser gravado, e o cliente deve tentar mais tarde.
+     */
+    @ExceptionHandler(QueryTimeoutException.class)
+    public ResponseEntity<Map<String, Object>> handleQueryTimeout(QueryTimeoutException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of(
+                "timestamp", OffsetDateTime.now(),
+                "code", "PERSISTENCE_TIMEOUT",
+                "message", "A gravação não foi concluída no tempo limite. Tente novamente em instantes."
+        ));
+    }
+
     @ExceptionHandler(BusinessException.class)
     public ResponseEntity<Map<String, Object>> handleBusinessException(BusinessException ex) {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
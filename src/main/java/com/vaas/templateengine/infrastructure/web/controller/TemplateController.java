@@ -2,16 +2,25 @@ package com.vaas.templateengine.infrastructure.web.controller;
 
 import com.vaas.templateengine.application.dto.TemplateMapper;
 import com.vaas.templateengine.application.dto.TemplateMapper.*;
+import com.vaas.templateengine.application.service.BatchExecutionItem;
+import com.vaas.templateengine.application.service.ExecutionJobService;
+import com.vaas.templateengine.application.service.StreamingExecution;
 import com.vaas.templateengine.application.service.TemplateService;
 import com.vaas.templateengine.domain.model.*;
+import com.vaas.templateengine.shared.exception.BusinessException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.UriUtils;
 
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 /**
@@ -24,14 +33,19 @@ import java.util.List;
 @RequiredArgsConstructor
 public class TemplateController {
 
+    private static final String EXECUTION_ID_HEADER = "X-Execution-Id";
+    private static final String EXECUTION_STATUS_HEADER = "X-Execution-Status";
+    private static final String RENDERED_SUBJECT_HEADER = "X-Rendered-Subject";
+
     private final TemplateService templateService;
+    private final ExecutionJobService jobService;
     private final TemplateMapper mapper;
 
     @PostMapping
     public ResponseEntity<TemplateResponse> create(@RequestBody @Valid CreateTemplateRequest request) {
         NotificationTemplate template = templateService.createTemplate(
                 request.name(), request.description(), request.channel(),
-                request.orgId(), request.workspaceId()
+                request.orgId(), request.workspaceId(), request.locale()
         );
         return ResponseEntity.status(HttpStatus.CREATED).body(mapper.toResponse(template));
     }
@@ -65,12 +79,85 @@ public class TemplateController {
         NotificationExecution execution = templateService.executeTemplate(
                 id, request.templateVersionId(), request.recipients(), request.variables()
         );
-        return ResponseEntity.ok(new ExecutionResponse(
-                execution.getId(), execution.getRenderedContent(),
-                execution.getStatus().name(), execution.getExecutedOn()
+        return ResponseEntity.ok(toExecutionResponse(execution));
+    }
+
+    /**
+     * Execução em lote: um único request para N pares (destinatários, variáveis) do mesmo template.
+     * Cada item tem o próprio resultado, na ordem recebida; falhas de validação não afetam os demais itens.
+     */
+    @PostMapping("/{id}/execute/batch")
+    public ResponseEntity<BatchExecutionResponse> executeBatch(
+            @PathVariable String id,
+            @RequestBody @Valid BatchExecutionRequest request) {
+        List<BatchExecutionItem> items = request.items().stream()
+                .map(item -> new BatchExecutionItem(item.recipients(), item.variables()))
+                .toList();
+        List<NotificationExecution> executions = templateService.executeBatch(id, request.templateVersionId(), items);
+
+        long successCount = executions.stream().filter(execution -> execution.getStatus() == ExecutionStatus.SUCCESS).count();
+        return ResponseEntity.ok(new BatchExecutionResponse(
+                executions.size(), successCount, executions.size() - successCount,
+                executions.stream().map(this::toExecutionResponse).toList()
         ));
     }
 
+    /**
+     * Execução assíncrona para campanhas grandes: o job é aceito (202) e processado em segundo plano.
+     * O progresso é consultado no endereço informado no cabeçalho Location.
+     */
+    @PostMapping("/{id}/execute/jobs")
+    public ResponseEntity<ExecutionJobResponse> submitJob(
+            @PathVariable String id,
+            @RequestBody @Valid ExecutionJobRequest request) {
+        List<BatchExecutionItem> items = request.items().stream()
+                .map(item -> new BatchExecutionItem(item.recipients(), item.variables()))
+                .toList();
+        ExecutionJob job = jobService.submit(id, request.templateVersionId(), items);
+        return ResponseEntity.accepted()
+                .location(URI.create("/v1/templates/" + id + "/execute/jobs/" + job.getId()))
+                .body(mapper.toJobResponse(job));
+    }
+
+    @GetMapping("/{id}/executions/{executionId}")
+    public ResponseEntity<ExecutionResponse> getExecution(@PathVariable String id, @PathVariable String executionId) {
+        return ResponseEntity.ok(toExecutionResponse(templateService.getExecution(id, executionId)));
+    }
+
+    @GetMapping("/{id}/execute/jobs/{jobId}")
+    public ResponseEntity<ExecutionJobResponse> getJob(@PathVariable String id, @PathVariable String jobId) {
+        ExecutionJob job = jobService.getJob(jobId);
+        if (!job.getTemplateId().equals(id)) {
+            throw new BusinessException("Job de execução não encontrado: " + jobId, "JOB_NOT_FOUND");
+        }
+        return ResponseEntity.ok(mapper.toJobResponse(job));
+    }
+
+    /**
+     * Modo streaming do execute: o corpo renderizado é escrito diretamente na resposta (chunked),
+     * sem cópias intermediárias em String ou JSON. Os metadados da execução seguem nos cabeçalhos;
+     * o assunto renderizado é enviado codificado em UTF-8 percent-encoding, por conter caracteres fora do ASCII.
+     */
+    @PostMapping(value = "/{id}/execute", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> executeStreaming(
+            @PathVariable String id,
+            @RequestBody @Valid ExecutionRequest request) {
+        StreamingExecution result = templateService.executeTemplateStreaming(
+                id, request.templateVersionId(), request.recipients(), request.variables()
+        );
+        NotificationExecution execution = result.execution();
+        MediaType mediaType = result.channel() == Channel.EMAIL ? MediaType.TEXT_HTML : MediaType.TEXT_PLAIN;
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(new MediaType(mediaType, StandardCharsets.UTF_8))
+                .header(EXECUTION_ID_HEADER, execution.getId())
+                .header(EXECUTION_STATUS_HEADER, execution.getStatus().name());
+        if (execution.getRenderedSubject() != null) {
+            response.header(RENDERED_SUBJECT_HEADER, UriUtils.encode(execution.getRenderedSubject(), StandardCharsets.UTF_8));
+        }
+        return response.body(result.body()::writeTo);
+    }
+
     @PostMapping("/{id}/versions")
     public ResponseEntity<TemplateResponse> createVersion(
             @PathVariable String id,
@@ -110,4 +197,11 @@ public class TemplateController {
         templateService.archiveTemplate(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    private ExecutionResponse toExecutionResponse(NotificationExecution execution) {
+        return new ExecutionResponse(
+                execution.getId(), execution.getRenderedSubject(), execution.getRenderedContent(),
+                execution.getStatus().name(), execution.getExecutedOn(), mapper.toErrorResponseList(execution.getErrors())
+        );
+    }
+}
@@ -1,9 +1,12 @@
 package com.vaas.templateengine.infrastructure.web.dto;
 
 import com.vaas.templateengine.domain.model.VariableType;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
+import java.util.List;
+
 /**
  * Data Transfer Object que define o contrato de entrada/saída para variáveis de template.
  * Sua existência garante que mudanças internas no Value Object de domínio não
@@ -16,5 +19,8 @@ public record InputVariableDto(
         @NotNull(message = "O tipo da variável é obrigatório")
         VariableType type,
 
-        boolean required
+        boolean required,
+
+        @Valid
+        List<InputVariableDto> properties
 ) {}
\ No newline at end of file
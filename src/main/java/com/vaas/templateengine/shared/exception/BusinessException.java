@@ -5,13 +5,15 @@ import lombok.Getter;
 /**
  * Exceção customizada para erros de regra de negócio.
  * Permite que o Controller retorne códigos de erro claros (Ex: TEMPLATE_NOT_FOUND).
+ * Representa falhas esperadas, reportadas ao cliente pelo código; por isso não captura stack trace,
+ * cujo custo dominava a CPU em rajadas de payloads inválidos.
  */
 @Getter
 public class BusinessException extends RuntimeException {
     private final String code;
 
     public BusinessException(String message, String code) {
-        super(message);
+        super(message, null, false, false);
         this.code = code;
     }
 }
\ No newline at end of file
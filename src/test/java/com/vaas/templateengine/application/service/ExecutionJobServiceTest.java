@@ -0,0 +1,193 @@
+package com.vaas.templateengine.application.service;
+
+import com.vaas.templateengine.domain.model.ExecutionJob;
+import com.vaas.templateengine.domain.model.ExecutionStatus;
+import com.vaas.templateengine.domain.model.NotificationExecution;
+import com.vaas.templateengine.domain.port.ExecutionJobRepository;
+import com.vaas.templateengine.shared.exception.BusinessException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Execuções Assíncronas (ExecutionJobService)")
+class ExecutionJobServiceTest {
+
+    private final TemplateService templateService = mock(TemplateService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InMemoryJobRepository jobRepository = new InMemoryJobRepository();
+
+    @Test
+    @DisplayName("Deve processar o job em fatias e reportar progresso e totais")
+    void shouldProcessJobInChunks() throws Exception {
+        ExecutionJobService service = create(2, 10, 2);
+        when(templateService.executeBatch(eq("t1"), isNull(), anyList())).thenAnswer(i -> {
+            List<BatchExecutionItem> chunk = i.getArgument(2);
+            return chunk.stream()
+                    .map(item -> NotificationExecution.builder()
+                            .status(item.variables().isEmpty() ? ExecutionStatus.VALIDATION_ERROR : ExecutionStatus.SUCCESS)
+                            .build())
+                    .toList();
+        });
+
+        List<BatchExecutionItem> items = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            items.add(new BatchExecutionItem(List.of("r" + i), i == 3 ? Map.of() : Map.of("nome", "N" + i)));
+        }
+
+        ExecutionJob job = service.submit("t1", null, items);
+        ExecutionJob finished = awaitFinished(service, job.getId());
+
+        assertEquals(ExecutionJob.Status.COMPLETED, finished.getStatus());
+        assertEquals(5, finished.getProcessed());
+        assertEquals(4, finished.getSuccessCount());
+        assertEquals(1, finished.getErrorCount());
+        verify(templateService, times(3)).executeBatch(eq("t1"), isNull(), anyList());
+    }
+
+    @Test
+    @DisplayName("Deve registrar a falha de negócio no job sem propagar ao chamador")
+    void shouldRecordBusinessFailure() throws Exception {
+        ExecutionJobService service = create(1, 10, 100);
+        when(templateService.executeBatch(any(), any(), anyList()))
+                .thenThrow(new BusinessException("Operação negada: template arquivado.", "TEMPLATE_ARCHIVED"));
+
+        ExecutionJob job = service.submit("t1", null, List.of(new BatchExecutionItem(List.of("r"), Map.of())));
+        ExecutionJob finished = awaitFinished(service, job.getId());
+
+        assertEquals(ExecutionJob.Status.FAILED, finished.getStatus());
+        assertEquals("TEMPLATE_ARCHIVED", finished.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar novos jobs quando os itens em fila atingem o limite")
+    void shouldRejectWhenQueueIsFull() throws Exception {
+        ExecutionJobService service = create(1, 2, 100);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(templateService.executeBatch(any(), any(), anyList())).thenAnswer(i -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        List<BatchExecutionItem> items = List.of(new BatchExecutionItem(List.of("r"), Map.of("nome", "Ana")));
+
+        service.submit("t1", null, items);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        service.submit("t1", null, items);
+
+        assertThrows(RejectedExecutionException.class, () -> service.submit("t1", null, items));
+        assertEquals(1.0, meterRegistry.counter("notifications.execution.jobs", "result", "REJECTED").count());
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Deve limitar a fila pelo total de itens, e não pelo número de jobs")
+    void shouldBoundQueueByItems() {
+        ExecutionJobService service = create(4, 3, 100);
+        CountDownLatch release = new CountDownLatch(1);
+        when(templateService.executeBatch(any(), any(), anyList())).thenAnswer(i -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        BatchExecutionItem item = new BatchExecutionItem(List.of("r"), Map.of("nome", "Ana"));
+
+        service.submit("t1", null, List.of(item, item));
+
+        // Há workers livres, mas o job excede os itens restantes
+        assertThrows(RejectedExecutionException.class, () -> service.submit("t1", null, List.of(item, item)));
+        assertNotNull(service.submit("t1", null, List.of(item)));
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Deve persistir o estado para consulta em outra instância")
+    void shouldReadPersistedJobFromAnotherInstance() throws Exception {
+        ExecutionJobService service = create(1, 10, 100);
+        when(templateService.executeBatch(any(), any(), anyList())).thenReturn(List.of(
+                NotificationExecution.builder().status(ExecutionStatus.SUCCESS).build()));
+
+        ExecutionJob job = service.submit("t1", null, List.of(new BatchExecutionItem(List.of("r"), Map.of("nome", "Ana"))));
+        awaitFinished(service, job.getId());
+
+        ExecutionJob persisted = create(1, 10, 100).getJob(job.getId());
+        assertEquals(ExecutionJob.Status.COMPLETED, persisted.getStatus());
+        assertEquals(1, persisted.getSuccessCount());
+    }
+
+    @Test
+    @DisplayName("Deve reportar como interrompido o job não renovado pela instância responsável")
+    void shouldReportStaleJobAsInterrupted() throws Exception {
+        ExecutionJob abandoned = new ExecutionJob("j1", "t1", null, 10);
+        abandoned.start();
+        jobRepository.save(abandoned);
+        Thread.sleep(5);
+        ExecutionJobService service = new ExecutionJobService(templateService, jobRepository, meterRegistry, 1, 10, 100, Duration.ZERO);
+
+        ExecutionJob job = service.getJob("j1");
+
+        assertEquals(ExecutionJob.Status.FAILED, job.getStatus());
+        assertEquals("JOB_INTERRUPTED", job.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("Deve retornar JOB_NOT_FOUND para jobs desconhecidos")
+    void shouldRejectUnknownJob() {
+        ExecutionJobService service = create(1, 2, 100);
+
+        BusinessException ex = assertThrows(BusinessException.class, () -> service.getJob("inexistente"));
+
+        assertEquals("JOB_NOT_FOUND", ex.getCode());
+    }
+
+    private ExecutionJobService create(int workers, long maxQueuedItems, int chunkSize) {
+        return new ExecutionJobService(templateService, jobRepository, meterRegistry, workers, maxQueuedItems, chunkSize,
+                Duration.ofMinutes(1));
+    }
+
+    private static ExecutionJob awaitFinished(ExecutionJobService service, String jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        ExecutionJob job = service.getJob(jobId);
+        while (!job.isFinished() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            job = service.getJob(jobId);
+        }
+        return job;
+    }
+
+    /**
+     * Persistência compartilhada entre instâncias do serviço, como a coleção execution_jobs.
+     */
+    private static class InMemoryJobRepository implements ExecutionJobRepository {
+
+        private final Map<String, ExecutionJob> jobs = new ConcurrentHashMap<>();
+
+        @Override
+        public void save(ExecutionJob job) {
+            jobs.put(job.getId(), job);
+        }
+
+        @Override
+        public Optional<ExecutionJob> findById(String id) {
+            return Optional.ofNullable(jobs.get(id));
+        }
+
+        @Override
+        public void touch(Collection<String> ids) {
+        }
+    }
+}
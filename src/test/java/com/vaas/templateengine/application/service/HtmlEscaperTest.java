@@ -0,0 +1,30 @@
+package com.vaas.templateengine.application.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("Sanitização HTML (HtmlEscaper)")
+class HtmlEscaperTest {
+
+    @Test
+    @DisplayName("Deve copiar valores sem caracteres especiais sem alteração")
+    void shouldCopyPlainValuesUntouched() throws Exception {
+        StringBuilder out = new StringBuilder("prefixo:");
+
+        HtmlEscaper.escape("Olá João, pedido 123", out);
+
+        assertEquals("prefixo:Olá João, pedido 123", out.toString());
+    }
+
+    @Test
+    @DisplayName("Deve escapar todos os caracteres sensíveis preservando os trechos intermediários")
+    void shouldEscapeSensitiveCharacters() throws Exception {
+        StringBuilder out = new StringBuilder();
+
+        HtmlEscaper.escape("<a href=\"x\">Tom & 'Jerry'</a>", out);
+
+        assertEquals("&lt;a href=&quot;x&quot;&gt;Tom &amp; &#39;Jerry&#39;&lt;/a&gt;", out.toString());
+    }
+}
@@ -0,0 +1,136 @@
+package com.vaas.templateengine.application.service;
+
+import com.vaas.templateengine.domain.model.*;
+import com.vaas.templateengine.domain.port.NotificationTemplateRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Cache de Versões Publicadas (PublishedVersionCache)")
+class PublishedVersionCacheTest {
+
+    private final NotificationTemplateRepository templateRepository = mock(NotificationTemplateRepository.class);
+    private final PublishedVersionCache cache = new PublishedVersionCache(
+            templateRepository, new SimpleMeterRegistry(), 1_000_000, 100, Duration.ofMinutes(5), Duration.ofMinutes(10));
+
+    @Test
+    @DisplayName("Deve manter a versão publicada após a invalidação do ponteiro, relendo apenas o resumo do template")
+    void shouldKeepPublishedVersionWhenPointerIsInvalidated() {
+        TemplateVersion first = published("v1", 1, 0);
+        TemplateVersion second = published("v2", 1, 1);
+        when(templateRepository.findSummary("t1"))
+                .thenReturn(Optional.of(summary("v1")))
+                .thenReturn(Optional.of(summary("v2")));
+        when(templateRepository.findWithVersion("t1", "v1")).thenReturn(Optional.of(withVersions(first)));
+        when(templateRepository.findWithVersion("t1", "v2")).thenReturn(Optional.of(withVersions(second)));
+
+        assertSame(first, cache.get("t1", null).getVersions().get(0));
+        assertSame(first, cache.get("t1", null).getVersions().get(0));
+        cache.invalidate("t1");
+        assertSame(second, cache.get("t1", null).getVersions().get(0));
+        assertSame(first, cache.get("t1", "v1").getVersions().get(0));
+
+        verify(templateRepository, times(2)).findSummary("t1");
+        verify(templateRepository, times(1)).findWithVersion("t1", "v1");
+        verify(templateRepository, times(1)).findWithVersion("t1", "v2");
+    }
+
+    @Test
+    @DisplayName("Não deve armazenar rascunhos, cujo conteúdo ainda pode ser alterado")
+    void shouldNotCacheDraftVersions() {
+        TemplateVersion draft = TemplateVersion.builder()
+                .id("v3").version(new SemanticVersion(2, 0, 0)).estado(VersionState.DRAFT).body("Rascunho").build();
+        when(templateRepository.findSummary("t1")).thenReturn(Optional.of(summary("v1")));
+        when(templateRepository.findWithVersion("t1", "v3")).thenReturn(Optional.of(withVersions(draft)));
+
+        cache.get("t1", "v3");
+        cache.get("t1", "v3");
+
+        verify(templateRepository, times(2)).findWithVersion("t1", "v3");
+    }
+
+    @Test
+    @DisplayName("Deve recorrer ao agregado completo em templates sem ponteiro de versão ativa")
+    void shouldFallBackToFullAggregateForLegacyTemplate() {
+        TemplateVersion first = published("v1", 1, 0);
+        TemplateVersion latest = published("v2", 1, 1);
+        TemplateVersion draft = TemplateVersion.builder()
+                .id("v3").version(new SemanticVersion(2, 0, 0)).estado(VersionState.DRAFT).body("Rascunho").build();
+        when(templateRepository.findSummary("t1")).thenReturn(Optional.of(summary(null)));
+        when(templateRepository.findById("t1")).thenReturn(Optional.of(withVersions(first, latest, draft)));
+
+        NotificationTemplate template = cache.get("t1", null);
+        cache.get("t1", null);
+
+        assertEquals(List.of(latest), template.getVersions());
+        verify(templateRepository, times(1)).findById("t1");
+        verify(templateRepository, never()).findWithVersion(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("Deve compartilhar uma única leitura entre ausências simultâneas do mesmo template")
+    void shouldShareSingleLoadBetweenConcurrentMisses() throws Exception {
+        CountDownLatch released = new CountDownLatch(1);
+        when(templateRepository.findSummary("t1")).thenAnswer(i -> {
+            released.await();
+            return Optional.of(summary("v1"));
+        });
+        when(templateRepository.findWithVersion("t1", "v1")).thenReturn(Optional.of(withVersions(published("v1", 1, 0))));
+
+        List<Thread> callers = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            callers.add(Thread.ofVirtual().start(() -> cache.get("t1", null)));
+        }
+        Thread.sleep(100);
+        released.countDown();
+        for (Thread caller : callers) {
+            caller.join();
+        }
+
+        verify(templateRepository, times(1)).findSummary("t1");
+    }
+
+    @Test
+    @DisplayName("Deve reler o resumo em segundo plano após refresh-after-write, servindo o valor anterior")
+    void shouldRefreshSummaryInBackground() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PublishedVersionCache refreshing = new PublishedVersionCache(
+                templateRepository, meterRegistry, 1_000_000, 100, Duration.ofMillis(1), Duration.ofMinutes(10));
+        when(templateRepository.findSummary("t1"))
+                .thenReturn(Optional.of(summary("v1")))
+                .thenReturn(Optional.of(summary("v2")));
+
+        assertEquals("v1", refreshing.get("t1", "v0").getActivePublishedVersionId());
+        Thread.sleep(20);
+        assertEquals("v1", refreshing.get("t1", "v0").getActivePublishedVersionId());
+
+        verify(templateRepository, timeout(1000).times(2)).findSummary("t1");
+        assertEquals(1.0, meterRegistry.counter("notifications.cache.refresh", "cache", "template_summaries").count());
+    }
+
+    private static TemplateVersion published(String id, int major, int minor) {
+        return TemplateVersion.builder()
+                .id(id).version(new SemanticVersion(major, minor, 0)).estado(VersionState.PUBLISHED).body("Olá " + id).build();
+    }
+
+    private static NotificationTemplate summary(String activePublishedVersionId) {
+        return NotificationTemplate.builder()
+                .id("t1").status(TemplateStatus.ACTIVE).channel(Channel.SMS).orgId("org-test")
+                .activePublishedVersionId(activePublishedVersionId).build();
+    }
+
+    private static NotificationTemplate withVersions(TemplateVersion... versions) {
+        return NotificationTemplate.builder()
+                .id("t1").status(TemplateStatus.ACTIVE).channel(Channel.SMS).orgId("org-test")
+                .versions(new ArrayList<>(List.of(versions))).build();
+    }
+}
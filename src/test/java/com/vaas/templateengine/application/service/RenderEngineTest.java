@@ -1,9 +1,17 @@
 package com.vaas.templateengine.application.service;
 
+import com.vaas.templateengine.domain.model.InputVariable;
+import com.vaas.templateengine.domain.model.TemplateAnalysis;
+import com.vaas.templateengine.domain.model.VariableType;
 import com.vaas.templateengine.shared.exception.BusinessException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -73,4 +81,321 @@ class RenderEngineTest {
         assertEquals("", renderEngine.render("", Map.of(), false));
         assertEquals("", renderEngine.render(null, Map.of(), false));
     }
-}
\ No newline at end of file
+
+    /**
+     * Garante que a tokenização de uma versão publicada ocorra uma única vez.
+     */
+    @Test
+    @DisplayName("Deve reutilizar o template compilado para a mesma versão")
+    void shouldReuseCompiledTemplateForSameVersion() {
+        CompiledTemplate first = renderEngine.compile("v1", "Olá {{nome}}");
+        CompiledTemplate second = renderEngine.compile("v1", "Olá {{nome}}");
+
+        assertSame(first, second);
+        assertEquals("Olá Gabriel", renderEngine.renderCompiled(first, Map.of("nome", "Gabriel"), false));
+    }
+
+    /**
+     * Preserva a semântica da expressão regular original para delimitadores e quebras de linha.
+     */
+    @Test
+    @DisplayName("Deve tokenizar placeholders com a mesma semântica do padrão não-ganancioso")
+    void shouldTokenizeLikeNonGreedyPattern() {
+        CompiledTemplate template = CompiledTemplate.compile("A {{ x }}}B{{quebra\n}} {{y}}");
+
+        assertEquals(List.of(
+                new CompiledTemplate.Literal("A "),
+                new CompiledTemplate.Placeholder("x"),
+                new CompiledTemplate.Literal("}B{{quebra\n}} "),
+                new CompiledTemplate.Placeholder("y")
+        ), template.segments());
+    }
+
+    /**
+     * Rejeita conteúdos acima do limite operacional antes da compilação.
+     */
+    @Test
+    @DisplayName("Deve rejeitar templates acima do limite de tamanho")
+    void shouldRejectOversizedTemplate() {
+        String content = "x".repeat(50_001);
+
+        BusinessException exception = assertThrows(BusinessException.class, () ->
+                renderEngine.compile("v-big", content)
+        );
+
+        assertEquals("TEMPLATE_TOO_LARGE", exception.getCode());
+    }
+
+    /**
+     * Garante que a escrita em streaming produza os mesmos bytes UTF-8 do caminho em memória.
+     */
+    @Test
+    @DisplayName("Deve renderizar diretamente em um OutputStream codificado em UTF-8")
+    void shouldRenderToOutputStream() throws Exception {
+        CompiledTemplate template = renderEngine.compile("v-stream", "Olá {{nome}} <{{tag}}>");
+        Map<String, Object> variables = Map.of("nome", "João", "tag", "<b>");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        renderEngine.requireVariables(template, variables);
+        renderEngine.renderTo(template, variables, true, out);
+
+        assertEquals(renderEngine.renderCompiled(template, variables, true), out.toString(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * A verificação prévia deve falhar antes de qualquer byte ser escrito.
+     */
+    @Test
+    @DisplayName("Deve detectar variáveis ausentes antes da escrita em streaming")
+    void shouldRequireVariablesBeforeStreaming() {
+        CompiledTemplate template = renderEngine.compile("v-stream-missing", "Código {{code}}");
+
+        BusinessException exception = assertThrows(BusinessException.class, () ->
+                renderEngine.requireVariables(template, Map.of())
+        );
+
+        assertEquals("MISSING_REQUIRED_VARIABLE", exception.getCode());
+    }
+
+    /**
+     * O caminho binário deve produzir exatamente a codificação UTF-8 do caminho em caracteres.
+     */
+    @Test
+    @DisplayName("Deve renderizar em bytes UTF-8 reutilizando o mesmo buffer")
+    void shouldRenderUtf8IntoReusableBuffer() {
+        CompiledTemplate template = renderEngine.compile("v-utf8", "Pedido de {{nome}}: {{item}} ✓");
+        Utf8Buffer buffer = new Utf8Buffer(64);
+
+        renderEngine.renderUtf8(template, Map.of("nome", "Zoë", "item", "café & pão"), true, buffer);
+        String first = buffer.toString();
+        buffer.clear();
+        renderEngine.renderUtf8(template, Map.of("nome", "Ana", "item", "chá"), true, buffer);
+
+        assertEquals("Pedido de Zoë: café &amp; pão ✓", first);
+        assertArrayEquals("Pedido de Ana: chá ✓".getBytes(StandardCharsets.UTF_8), buffer.toByteArray());
+    }
+
+    /**
+     * Caminhos pontuados percorrem Maps e Lists aninhados sem exigir achatamento pelo cliente.
+     */
+    @Test
+    @DisplayName("Deve resolver caminhos aninhados em Maps e Lists")
+    void shouldResolveNestedPaths() {
+        String content = "{{customer.name}} mora em {{customer.address.city}} e comprou {{items.1.sku}}";
+        Map<String, Object> variables = Map.of(
+                "customer", Map.of("name", "Gabriel", "address", Map.of("city", "Recife")),
+                "items", List.of(Map.of("sku", "A-1"), Map.of("sku", "B-2"))
+        );
+
+        String result = renderEngine.render(content, variables, false);
+
+        assertEquals("Gabriel mora em Recife e comprou B-2", result);
+    }
+
+    /**
+     * Payloads já achatados pelo cliente continuam aceitos para não quebrar integrações existentes.
+     */
+    @Test
+    @DisplayName("Deve aceitar chaves já achatadas e acusar caminhos inexistentes")
+    void shouldAcceptFlattenedKeysAndReportMissingPaths() {
+        assertEquals("Recife", renderEngine.render("{{customer.city}}", Map.of("customer.city", "Recife"), false));
+
+        BusinessException exception = assertThrows(BusinessException.class, () ->
+                renderEngine.render("{{customer.address.city}}", Map.of("customer", Map.of()), false)
+        );
+
+        assertEquals("MISSING_REQUIRED_VARIABLE", exception.getCode());
+        assertTrue(exception.getMessage().endsWith("customer.address.city"));
+    }
+
+    /**
+     * Seções iteram sobre listas e escolhem ramos conforme a veracidade do valor no contexto.
+     */
+    @Test
+    @DisplayName("Deve renderizar seções #each e #if com acesso ao item corrente")
+    void shouldRenderEachAndIfSections() {
+        String content = "{{#each items}}[{{this.sku}}{{#if this.gift}} (presente){{/if}}]{{/each}}"
+                + "{{#if coupon}} cupom {{coupon}}{{else}} sem cupom{{/if}}";
+        Map<String, Object> variables = Map.of(
+                "items", List.of(Map.of("sku", "A-1", "gift", true), Map.of("sku", "B-2", "gift", false)),
+                "coupon", ""
+        );
+
+        String result = renderEngine.render(content, variables, false);
+
+        assertEquals("[A-1 (presente)][B-2] sem cupom", result);
+        assertEquals("a,b,", renderEngine.render("{{#each tags}}{{this}},{{/each}}", Map.of("tags", List.of("a", "b")), false));
+    }
+
+    /**
+     * O orçamento limita o trabalho efetivo da renderização, e não apenas o tamanho do template bruto.
+     */
+    @Test
+    @DisplayName("Deve interromper a renderização ao exceder o orçamento de iterações ou de saída")
+    void shouldEnforceRenderBudget() {
+        RenderEngine limited = new RenderEngine(10, new RenderBudget(20, 3));
+        CompiledTemplate template = limited.compile("v-budget", "{{#each items}}{{this}}{{/each}}");
+
+        assertEquals("abc", limited.renderCompiled(template, Map.of("items", List.of("a", "b", "c")), false));
+
+        BusinessException iterations = assertThrows(BusinessException.class, () ->
+                limited.requireVariables(template, Map.of("items", List.of("a", "b", "c", "d")))
+        );
+        BusinessException output = assertThrows(BusinessException.class, () ->
+                limited.renderCompiled(template, Map.of("items", List.of("x".repeat(21))), false)
+        );
+
+        assertEquals("RENDER_BUDGET_EXCEEDED", iterations.getCode());
+        assertEquals("RENDER_BUDGET_EXCEEDED", output.getCode());
+    }
+
+    /**
+     * Seções desbalanceadas ou desconhecidas são rejeitadas na compilação.
+     */
+    @Test
+    @DisplayName("Deve rejeitar seções malformadas com INVALID_TEMPLATE_SYNTAX")
+    void shouldRejectMalformedSections() {
+        for (String content : List.of("{{#each items}}sem fim", "{{/if}}", "{{#each a}}{{/if}}", "{{#with a}}{{/with}}")) {
+            BusinessException exception = assertThrows(BusinessException.class, () ->
+                    renderEngine.render(content, Map.of(), false)
+            );
+            assertEquals("INVALID_TEMPLATE_SYNTAX", exception.getCode());
+        }
+    }
+
+    /**
+     * Assunto e corpo compartilham a resolução de variáveis; apenas o corpo recebe sanitização HTML.
+     */
+    @Test
+    @DisplayName("Deve renderizar assunto em texto puro e corpo sanitizado na mesma passagem")
+    void shouldRenderSubjectAndBodyTogether() {
+        CompiledMessage message = renderEngine.compileMessage("v-message", "Pedido {{pedido}} de {{nome}}", "<p>{{nome}}</p>");
+
+        RenderedMessage rendered = renderEngine.renderMessage(message, Map.of("pedido", 42, "nome", "Tom & Jerry"), true);
+
+        assertEquals("Pedido 42 de Tom & Jerry", rendered.subject());
+        assertEquals("<p>Tom &amp; Jerry</p>", rendered.body());
+        assertSame(message.body(), renderEngine.compile("v-message", "<p>{{nome}}</p>"));
+        assertNull(renderEngine.renderMessage(renderEngine.compileMessage("v-no-subject", null, "x"), Map.of(), false).subject());
+    }
+
+    /**
+     * A promoção ao renderizador especializado não pode alterar a saída nem a semântica de erros.
+     */
+    @Test
+    @DisplayName("Deve promover versões quentes ao renderizador especializado preservando o resultado")
+    void shouldSpecializeHotTemplatesWithSameOutput() {
+        RenderEngine tiered = new RenderEngine(10, RenderBudget.DEFAULT, 2);
+        Map<String, Object> variables = Map.of("nome", "Tom & Jerry", "items", List.of(Map.of("sku", "A<1>")));
+
+        for (String content : List.of("Olá {{nome}}, {{nome}}!", "{{#each items}}[{{this.sku}}]{{/each}}{{#if nome}} {{nome}}{{/if}}")) {
+            CompiledTemplate template = tiered.compile(content, content);
+            String interpreted = tiered.renderCompiled(template, variables, true);
+            tiered.renderCompiled(template, variables, true);
+
+            assertTrue(template.isSpecialized());
+            assertEquals(interpreted, tiered.renderCompiled(template, variables, true));
+            BusinessException exception = assertThrows(BusinessException.class, () ->
+                    tiered.renderCompiled(template, Map.of(), false)
+            );
+            assertEquals("MISSING_REQUIRED_VARIABLE", exception.getCode());
+        }
+    }
+
+    /**
+     * A árvore especializada de seções mantém o {{else}}, o item corrente e a interrupção pelo orçamento.
+     */
+    @Test
+    @DisplayName("Deve aplicar else, laços aninhados e orçamento na árvore especializada")
+    void shouldKeepSectionSemanticsWhenSpecialized() {
+        RenderEngine tiered = new RenderEngine(10, new RenderBudget(40, 6), 1);
+        CompiledTemplate template = tiered.compile("v-tree",
+                "{{#each grupos}}<{{this.nome}}>{{#each this.itens}}{{#if this.ok}}+{{else}}-{{/if}}{{/each}}{{/each}}");
+        Map<String, Object> variables = Map.of("grupos", List.of(
+                Map.of("nome", "a", "itens", List.of(Map.of("ok", true), Map.of("ok", false))),
+                Map.of("nome", "b", "itens", List.of(Map.of("ok", false)))));
+
+        String interpreted = tiered.renderCompiled(template, variables, false);
+
+        assertTrue(template.isSpecialized());
+        assertEquals("<a>+-<b>-", interpreted);
+        assertEquals(interpreted, tiered.renderCompiled(template, variables, false));
+        BusinessException exception = assertThrows(BusinessException.class, () ->
+                tiered.renderCompiled(template, Map.of("grupos", List.of(
+                        Map.of("nome", "c", "itens", List.of(Map.of("ok", true), Map.of("ok", true), Map.of("ok", true))),
+                        Map.of("nome", "d", "itens", List.of(Map.of("ok", true), Map.of("ok", true))))), false)
+        );
+        assertEquals("RENDER_BUDGET_EXCEEDED", exception.getCode());
+    }
+
+    /**
+     * A profundidade da árvore especializada não pode crescer com o número de segmentos do template.
+     */
+    @Test
+    @DisplayName("Deve especializar templates com milhares de segmentos e seções sem estourar a pilha")
+    void shouldSpecializeLargeTemplatesWithSections() {
+        RenderEngine tiered = new RenderEngine(10, RenderBudget.DEFAULT, 1);
+        String content = "{{#if nome}}[{{nome}}]{{/if}}" + "{{n}}-".repeat(7_000);
+        CompiledTemplate template = tiered.compile("v-large", content);
+        Map<String, Object> variables = Map.of("nome", "x", "n", 1);
+
+        String interpreted = tiered.renderCompiled(template, variables, false);
+
+        assertTrue(template.isSpecialized());
+        assertEquals("[x]" + "1-".repeat(7_000), interpreted);
+        assertEquals(interpreted, tiered.renderCompiled(template, variables, false));
+    }
+
+    /**
+     * Especificadores de formato usam a localidade do template e rejeitam valores incompatíveis.
+     */
+    @Test
+    @DisplayName("Deve formatar números e datas conforme a localidade do template")
+    void shouldFormatValuesWithTemplateLocale() {
+        CompiledMessage message = renderEngine.compileMessage("v-format", null,
+                "Total {{amount:currency}} até {{dueDate:short}} ({{qtd:number}} itens)", Locale.forLanguageTag("pt-BR"));
+
+        RenderedMessage rendered = renderEngine.renderMessage(message,
+                Map.of("amount", new BigDecimal("1234.5"), "dueDate", "2026-03-05", "qtd", 1500), false);
+
+        assertEquals("Total R$\u00a01.234,50 até 05/03/2026 (1.500 itens)", rendered.body());
+
+        BusinessException invalidType = assertThrows(BusinessException.class, () ->
+                renderEngine.renderMessage(message, Map.of("amount", "muito", "dueDate", "2026-03-05", "qtd", 1), false)
+        );
+        BusinessException unknownFormat = assertThrows(BusinessException.class, () ->
+                renderEngine.render("{{amount:roman}}", Map.of("amount", 1), false)
+        );
+
+        assertEquals("INVALID_VARIABLE_TYPE", invalidType.getCode());
+        assertEquals("INVALID_TEMPLATE_SYNTAX", unknownFormat.getCode());
+    }
+
+    /**
+     * A análise de publicação confronta os caminhos com o schema e registra os garantidos pela validação.
+     */
+    @Test
+    @DisplayName("Deve identificar caminhos garantidos e rejeitar placeholders não declarados")
+    void shouldAnalyzePlaceholdersAgainstSchema() {
+        List<InputVariable> schema = List.of(
+                new InputVariable("customer", VariableType.OBJECT, true, List.of(
+                        new InputVariable("name", VariableType.STRING, true),
+                        new InputVariable("nickname", VariableType.STRING, false))),
+                new InputVariable("items", VariableType.LIST, false, List.of(
+                        new InputVariable("sku", VariableType.STRING, true)))
+        );
+
+        TemplateAnalysis analysis = renderEngine.analyze("Olá {{customer.name}}",
+                "{{customer.nickname}}{{#each items}}[{{this.sku}}]{{/each}}", schema, Locale.forLanguageTag("pt-BR"));
+
+        assertEquals(List.of("customer.name", "customer.nickname", "items", "this.sku"), analysis.placeholders());
+        assertEquals(List.of("customer.name"), analysis.guaranteedPaths());
+
+        BusinessException ex = assertThrows(BusinessException.class, () ->
+                renderEngine.analyze(null, "{{customer.email}}{{#each items}}{{this.price}}{{/each}}{{customer.name.first}}",
+                        schema, Locale.forLanguageTag("pt-BR"))
+        );
+        assertEquals("UNDECLARED_PLACEHOLDER", ex.getCode());
+        assertTrue(ex.getMessage().endsWith("customer.email, this.price, customer.name.first"));
+    }
+}
@@ -0,0 +1,131 @@
+package com.vaas.templateengine.application.service;
+
+import com.vaas.templateengine.domain.model.ExecutionError;
+import com.vaas.templateengine.shared.exception.BusinessException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Memoização de Renderizações (RenderResultCache)")
+class RenderResultCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RenderResultCache cache = new RenderResultCache(true, 1_000_000, 10_000_000, 10, meterRegistry);
+
+    @Test
+    @DisplayName("Deve reaproveitar o resultado para payloads equivalentes, independentemente da ordem das chaves")
+    void shouldReuseResultForEquivalentPayloads() {
+        AtomicInteger renders = new AtomicInteger();
+        Map<String, Object> first = new LinkedHashMap<>();
+        first.put("nome", "Ana");
+        first.put("itens", List.of(Map.of("sku", "A-1")));
+        Map<String, Object> second = new LinkedHashMap<>();
+        second.put("itens", List.of(Map.of("sku", "A-1")));
+        second.put("nome", "Ana");
+
+        RenderResult a = cache.getOrRender("org-1", "v1", first, () -> render(renders));
+        RenderResult b = cache.getOrRender("org-1", "v1", second, () -> render(renders));
+        cache.getOrRender("org-1", "v1", Map.of("nome", "Ana", "itens", List.of(Map.of("sku", 1))), () -> render(renders));
+        cache.getOrRender("org-1", "v2", first, () -> render(renders));
+
+        assertSame(((RenderResult.Success) a).message(), ((RenderResult.Success) b).message());
+        assertEquals(3, renders.get());
+        assertEquals(1.0, meterRegistry.counter("notifications.render.result_cache", "result", "hit", "orgId", "org-1").count());
+        assertEquals(3.0, meterRegistry.counter("notifications.render.result_cache", "result", "miss", "orgId", "org-1").count());
+    }
+
+    @Test
+    @DisplayName("Não deve memorizar falhas de validação ou renderização")
+    void shouldNotCacheFailures() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        List<ExecutionError> errors = List.of(
+                new ExecutionError("MISSING_REQUIRED_VARIABLE", "nome", "Atributo obrigatório não informado: nome"));
+
+        for (int i = 0; i < 2; i++) {
+            RenderResult result = cache.getOrRender("org-1", "v1", Map.of(), () -> {
+                attempts.incrementAndGet();
+                return new RenderResult.Failure(errors);
+            });
+            assertEquals(new RenderResult.Failure(errors), result);
+        }
+
+        assertThrows(BusinessException.class, () -> cache.getOrRender("org-1", "v1", Map.of(), () -> {
+            throw new BusinessException("Sintaxe inválida", "INVALID_TEMPLATE_SYNTAX");
+        }));
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    @DisplayName("Deve renderizar fora do lock do cache, permitindo consultas à mesma chave durante a renderização")
+    void shouldRenderOutsideCacheLock() {
+        AtomicInteger renders = new AtomicInteger();
+
+        RenderResult outer = cache.getOrRender("org-1", "v1", Map.of("nome", "Ana"), () -> {
+            // Dentro de um compute do cache, a consulta à mesma chave seria uma atualização recursiva
+            cache.getOrRender("org-1", "v1", Map.of("nome", "Ana"), () -> render(renders));
+            return render(renders);
+        });
+
+        assertInstanceOf(RenderResult.Success.class, outer);
+        assertEquals(2, renders.get());
+        assertInstanceOf(RenderResult.Success.class, cache.getOrRender("org-1", "v1", Map.of("nome", "Ana"), () -> render(renders)));
+        assertEquals(2, renders.get());
+    }
+
+    @Test
+    @DisplayName("Deve limitar cada inquilino pelo tamanho dos resultados, e não pela quantidade")
+    void shouldBoundTenantByWeight() {
+        // Cada resultado pesa cerca de 184 bytes: cabem dois no limite do inquilino
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RenderResultCache weighted = new RenderResultCache(true, 400, 10_000_000, 10, registry);
+        AtomicInteger renders = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            weighted.getOrRender("org-1", "v1", Map.of("nome", "N" + i), () -> render(renders));
+        }
+
+        double bytes = registry.get("notifications.render.result_cache.bytes").gauge().value();
+        assertTrue(bytes > 0 && bytes <= 400, "Peso memorizado fora do limite do inquilino: " + bytes);
+    }
+
+    @Test
+    @DisplayName("Não deve memorizar além do orçamento global, somado entre os inquilinos")
+    void shouldRespectGlobalBudget() {
+        RenderResultCache budgeted = new RenderResultCache(true, 1_000_000, 300, 10, meterRegistry);
+        AtomicInteger renders = new AtomicInteger();
+
+        budgeted.getOrRender("org-1", "v1", Map.of("nome", "Ana"), () -> render(renders));
+        budgeted.getOrRender("org-2", "v1", Map.of("nome", "Ana"), () -> render(renders));
+        budgeted.getOrRender("org-2", "v1", Map.of("nome", "Ana"), () -> render(renders));
+        budgeted.getOrRender("org-1", "v1", Map.of("nome", "Ana"), () -> render(renders));
+
+        // org-2 não coube no orçamento e renderizou duas vezes; org-1 reaproveitou o resultado memorizado
+        assertEquals(3, renders.get());
+    }
+
+    @Test
+    @DisplayName("Deve renderizar sempre quando a memoização está desativada")
+    void shouldBypassWhenDisabled() {
+        RenderResultCache disabled = new RenderResultCache(false, 1_000_000, 10_000_000, 10, meterRegistry);
+        AtomicInteger renders = new AtomicInteger();
+
+        disabled.getOrRender("org-1", "v1", Map.of("nome", "Ana"), () -> render(renders));
+        disabled.getOrRender("org-1", "v1", Map.of("nome", "Ana"), () -> render(renders));
+
+        assertEquals(2, renders.get());
+        assertTrue(meterRegistry.find("notifications.render.result_cache").counters().isEmpty());
+    }
+
+    private static RenderResult render(AtomicInteger renders) {
+        renders.incrementAndGet();
+        return new RenderResult.Success(new RenderedMessage("Assunto", "Corpo"));
+    }
+}
@@ -1,5 +1,6 @@
 package com.vaas.templateengine.application.service;
 
+import com.vaas.templateengine.domain.model.ExecutionError;
 import com.vaas.templateengine.domain.model.InputVariable;
 import com.vaas.templateengine.domain.model.VariableType;
 import com.vaas.templateengine.shared.exception.BusinessException;
@@ -8,6 +9,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -79,4 +81,120 @@ class SchemaValidatorTest {
             return true;
         }));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Deve validar atributos aninhados de variáveis do tipo OBJECT")
+    void shouldValidateNestedObjectProperties() {
+        List<InputVariable> schema = List.of(
+                new InputVariable("customer", VariableType.OBJECT, true, List.of(
+                        new InputVariable("name", VariableType.STRING, true),
+                        new InputVariable("address", VariableType.OBJECT, true, List.of(
+                                new InputVariable("city", VariableType.STRING, true)
+                        ))
+                ))
+        );
+
+        Map<String, Object> valid = Map.of("customer", Map.of(
+                "name", "Gabriel",
+                "address", Map.of("city", "Recife")
+        ));
+        Map<String, Object> missingCity = Map.of("customer", Map.of(
+                "name", "Gabriel",
+                "address", Map.of()
+        ));
+
+        assertDoesNotThrow(() -> validator.validate(schema, valid));
+
+        BusinessException ex = assertThrows(BusinessException.class, () ->
+                validator.validate(schema, missingCity)
+        );
+        assertEquals("MISSING_REQUIRED_VARIABLE", ex.getCode());
+        assertTrue(ex.getMessage().endsWith("customer.address.city"));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar valor escalar para variável do tipo OBJECT")
+    void shouldRejectScalarForObjectVariable() {
+        List<InputVariable> schema = List.of(
+                new InputVariable("customer", VariableType.OBJECT, true)
+        );
+
+        BusinessException ex = assertThrows(BusinessException.class, () ->
+                validator.validate(schema, Map.of("customer", "Gabriel"))
+        );
+
+        assertEquals("INVALID_VARIABLE_TYPE", ex.getCode());
+    }
+
+    @Test
+    @DisplayName("Deve validar cada item de variáveis do tipo LIST com o índice no caminho")
+    void shouldValidateListItems() {
+        List<InputVariable> schema = List.of(
+                new InputVariable("items", VariableType.LIST, true, List.of(
+                        new InputVariable("sku", VariableType.STRING, true)
+                ))
+        );
+
+        assertDoesNotThrow(() -> validator.validate(schema, Map.of("items", List.of(Map.of("sku", "A-1")))));
+
+        BusinessException ex = assertThrows(BusinessException.class, () ->
+                validator.validate(schema, Map.of("items", List.of(Map.of("sku", "A-1"), Map.of("sku", 2))))
+        );
+        assertEquals("INVALID_VARIABLE_TYPE", ex.getCode());
+        assertTrue(ex.getMessage().contains("items.1.sku"));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar datas fora do calendário ou do formato ISO-8601")
+    void shouldRejectInvalidDates() {
+        List<InputVariable> schema = List.of(
+                new InputVariable("data", VariableType.DATE, true)
+        );
+
+        for (String invalid : List.of("2026-02-30", "2026-02-20T25:00Z", "2026-02-20T19:40+0300", "20/02/2026", "")) {
+            BusinessException ex = assertThrows(BusinessException.class, () ->
+                    validator.validate(schema, Map.of("data", invalid))
+            );
+            assertEquals("INVALID_VARIABLE_TYPE", ex.getCode(), invalid);
+        }
+        assertDoesNotThrow(() -> validator.validate(schema, Map.of("data", "2024-02-29T23:59:59.999-03:00")));
+    }
+
+    @Test
+    @DisplayName("Deve reutilizar o plano compilado e restringi-lo às variáveis referenciadas")
+    void shouldReuseCompiledPlan() {
+        ValidationPlan plan = ValidationPlan.of(List.of(
+                new InputVariable("nome", VariableType.STRING, true),
+                new InputVariable("relatorio", VariableType.STRING, true)
+        ));
+
+        assertDoesNotThrow(() -> validator.validate(plan, Map.of("nome", "Ana", "relatorio", "r")));
+        assertDoesNotThrow(() -> validator.validate(plan.restrictTo(Set.of("nome")), Map.of("nome", "Ana")));
+
+        BusinessException ex = assertThrows(BusinessException.class, () ->
+                validator.validate(plan, Map.of("nome", "Ana"))
+        );
+        assertTrue(ex.getMessage().endsWith("relatorio"));
+    }
+
+    @Test
+    @DisplayName("Deve reunir todas as falhas do payload sem interromper na primeira")
+    void shouldCollectEveryFailure() {
+        ValidationPlan plan = ValidationPlan.of(List.of(
+                new InputVariable("nome", VariableType.STRING, true),
+                new InputVariable("idade", VariableType.NUMBER, true),
+                new InputVariable("items", VariableType.LIST, true, List.of(
+                        new InputVariable("sku", VariableType.STRING, true)))
+        ));
+
+        List<ExecutionError> errors = validator.check(plan, Map.of("idade", "trinta", "items", List.of(Map.of(), "x")));
+
+        assertEquals(List.of(
+                new ExecutionError("MISSING_REQUIRED_VARIABLE", "nome", "Atributo obrigatório não informado: nome"),
+                new ExecutionError("INVALID_VARIABLE_TYPE", "idade", "Incompatibilidade de tipo para 'idade'. Esperado: NUMBER"),
+                new ExecutionError("MISSING_REQUIRED_VARIABLE", "items.0.sku", "Atributo obrigatório não informado: items.0.sku"),
+                new ExecutionError("INVALID_VARIABLE_TYPE", "items.1", "Incompatibilidade de tipo para 'items.1'. Esperado: OBJECT")
+        ), errors);
+        assertTrue(validator.check(plan, Map.of("nome", "Ana", "idade", 30, "items", List.of())).isEmpty());
+    }
+}
@@ -1,5 +1,7 @@
 package com.vaas.templateengine.application.service;
 
+import com.vaas.templateengine.domain.event.DomainEvent;
+import com.vaas.templateengine.domain.event.NotificationBatchDispatchedEvent;
 import com.vaas.templateengine.domain.model.*;
 import com.vaas.templateengine.domain.port.NotificationExecutionRepository;
 import com.vaas.templateengine.domain.port.NotificationTemplateRepository;
@@ -11,14 +13,20 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -42,6 +50,10 @@ class TemplateServiceTest {
     @Mock
     private RenderEngine renderEngine;
     @Mock
+    private RenderResultCache resultCache;
+    @Mock
+    private PublishedVersionCache publishedVersions;
+    @Mock
     private NotificationProducer eventProducer;
     @Mock
     private MeterRegistry meterRegistry;
@@ -54,6 +66,8 @@ class TemplateServiceTest {
     @BeforeEach
     void setUp() {
         lenient().when(meterRegistry.counter(anyString(), any(String[].class))).thenReturn(counter);
+        lenient().when(resultCache.getOrRender(any(), any(), anyMap(), any()))
+                .thenAnswer(i -> i.<Supplier<RenderResult>>getArgument(3).get());
     }
 
     @Test
@@ -61,24 +75,166 @@ class TemplateServiceTest {
     void shouldExecuteTemplateWithLatestPublishedVersion() {
         TemplateVersion publishedVersion = TemplateVersion.builder()
                 .id("v1").version(new SemanticVersion(1, 0, 0))
-                .estado(VersionState.PUBLISHED).body("Olá {{nome}}").build();
+                .estado(VersionState.PUBLISHED).subject("Oi {{nome}}").body("Olá {{nome}}").build();
 
         NotificationTemplate template = NotificationTemplate.builder()
-                .id("t1").status(TemplateStatus.ACTIVE).channel(Channel.EMAIL)
+                .id("t1").activePublishedVersionId("v1").status(TemplateStatus.ACTIVE).channel(Channel.EMAIL)
                 .orgId("org-test").versions(new ArrayList<>(List.of(publishedVersion))).build();
 
-        when(templateRepository.findById("t1")).thenReturn(Optional.of(template));
-        when(renderEngine.render(anyString(), anyMap(), anyBoolean())).thenReturn("Olá Gabriel");
+        when(publishedVersions.get("t1", null)).thenReturn(template);
+        CompiledMessage compiled = new RenderEngine().compileMessage("v1", "Oi {{nome}}", "Olá {{nome}}");
+        when(renderEngine.compileMessage(same(publishedVersion), any(Locale.class))).thenReturn(compiled);
+        when(renderEngine.tryRenderMessage(eq(compiled), anyMap(), anyBoolean()))
+                .thenReturn(new RenderResult.Success(new RenderedMessage("Oi Gabriel", "Olá Gabriel")));
         when(executionRepository.save(any())).thenAnswer(i -> i.getArguments()[0]);
 
         NotificationExecution result = templateService.executeTemplate("t1", null, List.of("test@test.com"), Map.of("nome", "Gabriel"));
 
         assertNotNull(result);
+        assertEquals("Oi Gabriel", result.getRenderedSubject());
         assertEquals("Olá Gabriel", result.getRenderedContent());
         verify(eventProducer, times(1)).publish(any());
         verify(meterRegistry, atLeastOnce()).counter(eq("notifications.execution.total"), any(String[].class));
     }
 
+    @Test
+    @DisplayName("Deve avaliar apenas as variáveis referenciadas pela versão, cada uma uma única vez")
+    void shouldResolveOnlyReferencedVariablesLazily() {
+        TemplateVersion publishedVersion = TemplateVersion.builder()
+                .id("v1").version(new SemanticVersion(1, 0, 0))
+                .estado(VersionState.PUBLISHED).subject("Oi {{nome}}").body("{{nome}}, {{nome}}!")
+                .inputSchema(List.of(
+                        new InputVariable("nome", VariableType.STRING, true),
+                        new InputVariable("relatorio", VariableType.STRING, true)))
+                .build();
+
+        NotificationTemplate template = NotificationTemplate.builder()
+                .id("t1").activePublishedVersionId("v1").status(TemplateStatus.ACTIVE).channel(Channel.SMS)
+                .orgId("org-test").versions(new ArrayList<>(List.of(publishedVersion))).build();
+
+        RenderEngine realEngine = new RenderEngine();
+        CompiledMessage compiled = realEngine.compileMessage("v1", "Oi {{nome}}", "{{nome}}, {{nome}}!",
+                Locale.forLanguageTag("pt-BR"), publishedVersion.getInputSchema());
+        when(publishedVersions.get("t1", null)).thenReturn(template);
+        when(renderEngine.compileMessage(same(publishedVersion), any(Locale.class))).thenReturn(compiled);
+        when(renderEngine.tryRenderMessage(eq(compiled), anyMap(), anyBoolean()))
+                .thenAnswer(i -> realEngine.tryRenderMessage(compiled, i.getArgument(1), i.getArgument(2)));
+        when(executionRepository.save(any())).thenAnswer(i -> i.getArguments()[0]);
+
+        List<String> evaluated = new ArrayList<>();
+        Map<String, Supplier<?>> suppliers = Map.of(
+                "nome", () -> { evaluated.add("nome"); return "Ana"; },
+                "relatorio", () -> { evaluated.add("relatorio"); return "tabela cara"; }
+        );
+
+        NotificationExecution result = templateService.executeTemplate("t1", null, List.of("5511999999999"),
+                VariableResolver.ofSuppliers(suppliers));
+
+        assertEquals(ExecutionStatus.SUCCESS, result.getStatus());
+        assertEquals("Oi Ana", result.getRenderedSubject());
+        assertEquals("Ana, Ana!", result.getRenderedContent());
+        assertEquals(List.of("nome"), evaluated);
+        assertEquals(Map.of("nome", "Ana"), result.getVariables());
+        verify(schemaValidator).check(same(compiled.referencedValidationPlan()), anyMap());
+        assertDoesNotThrow(() -> compiled.referencedValidationPlan().validate(Map.of("nome", "Ana")));
+    }
+
+    @Test
+    @DisplayName("Deve registrar todas as variáveis ausentes de uma execução, sem interromper na primeira")
+    void shouldRecordEveryMissingVariableOnValidationError() {
+        TemplateVersion publishedVersion = TemplateVersion.builder()
+                .id("v1").version(new SemanticVersion(1, 0, 0))
+                .estado(VersionState.PUBLISHED).subject("Pedido {{pedido}}").body("Olá {{nome}}, total {{total:currency}}").build();
+
+        NotificationTemplate template = NotificationTemplate.builder()
+                .id("t1").activePublishedVersionId("v1").status(TemplateStatus.ACTIVE).channel(Channel.EMAIL)
+                .orgId("org-test").versions(new ArrayList<>(List.of(publishedVersion))).build();
+
+        RenderEngine realEngine = new RenderEngine();
+        CompiledMessage compiled = realEngine.compileMessage("v1", "Pedido {{pedido}}", "Olá {{nome}}, total {{total:currency}}");
+        when(publishedVersions.get("t1", null)).thenReturn(template);
+        when(renderEngine.compileMessage(same(publishedVersion), any(Locale.class))).thenReturn(compiled);
+        when(renderEngine.tryRenderMessage(eq(compiled), anyMap(), anyBoolean()))
+                .thenAnswer(i -> realEngine.tryRenderMessage(compiled, i.getArgument(1), i.getArgument(2)));
+        when(executionRepository.save(any())).thenAnswer(i -> i.getArguments()[0]);
+
+        NotificationExecution result = templateService.executeTemplate("t1", null, List.of("test@test.com"), Map.of("total", "muito"));
+
+        assertEquals(ExecutionStatus.VALIDATION_ERROR, result.getStatus());
+        assertNull(result.getRenderedSubject());
+        assertEquals(List.of(
+                new ExecutionError("MISSING_REQUIRED_VARIABLE", "pedido", "Variável obrigatória ausente no contexto: pedido"),
+                new ExecutionError("MISSING_REQUIRED_VARIABLE", "nome", "Variável obrigatória ausente no contexto: nome"),
+                new ExecutionError("INVALID_VARIABLE_TYPE", "total",
+                        "Incompatibilidade de tipo para 'total'. O formato 'currency' não se aplica ao valor informado.")
+        ), result.getErrors());
+    }
+
+    @Test
+    @DisplayName("Deve registrar falha de validação no modo streaming sem renderizar o corpo")
+    void shouldStreamValidationFailureWithoutRendering() throws Exception {
+        TemplateVersion publishedVersion = TemplateVersion.builder()
+                .id("v1").version(new SemanticVersion(1, 0, 0))
+                .estado(VersionState.PUBLISHED).body("Olá {{nome}}").build();
+
+        NotificationTemplate template = NotificationTemplate.builder()
+                .id("t1").activePublishedVersionId("v1").status(TemplateStatus.ACTIVE).channel(Channel.EMAIL)
+                .orgId("org-test").versions(new ArrayList<>(List.of(publishedVersion))).build();
+
+        when(publishedVersions.get("t1", null)).thenReturn(template);
+        when(renderEngine.compileMessage(same(publishedVersion), any(Locale.class)))
+                .thenReturn(new RenderEngine().compileMessage("v1", null, "Olá {{nome}}"));
+        doThrow(new BusinessException("Atributo obrigatório não informado: nome", "MISSING_REQUIRED_VARIABLE"))
+                .when(schemaValidator).validate(any(ValidationPlan.class), anyMap());
+        when(executionRepository.save(any())).thenAnswer(i -> i.getArguments()[0]);
+
+        StreamingExecution result = templateService.executeTemplateStreaming("t1", null, List.of("test@test.com"), Map.of());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        result.body().writeTo(out);
+
+        assertEquals(ExecutionStatus.VALIDATION_ERROR, result.execution().getStatus());
+        assertEquals("Falha de validação técnica.", out.toString(StandardCharsets.UTF_8));
+        verify(renderEngine, never()).renderTo(any(), anyMap(), anyBoolean(), any(OutputStream.class));
+    }
+
+    @Test
+    @DisplayName("Deve registrar a execução em streaming apenas com o assunto, sem armazenar o corpo")
+    void shouldStreamBodyWithoutStoringContent() throws Exception {
+        TemplateVersion publishedVersion = TemplateVersion.builder()
+                .id("v1").version(new SemanticVersion(1, 0, 0))
+                .estado(VersionState.PUBLISHED).subject("Oi {{nome}}").body("Olá {{nome}}").build();
+
+        NotificationTemplate template = NotificationTemplate.builder()
+                .id("t1").activePublishedVersionId("v1").status(TemplateStatus.ACTIVE).channel(Channel.SMS)
+                .orgId("org-test").versions(new ArrayList<>(List.of(publishedVersion))).build();
+
+        RenderEngine realEngine = new RenderEngine();
+        CompiledMessage compiled = realEngine.compileMessage("v1", "Oi {{nome}}", "Olá {{nome}}");
+        Map<String, Object> variables = Map.of("nome", "Ana");
+        when(publishedVersions.get("t1", null)).thenReturn(template);
+        when(renderEngine.compileMessage(same(publishedVersion), any(Locale.class))).thenReturn(compiled);
+        when(renderEngine.prepareStreaming(compiled, variables)).thenReturn("Oi Ana");
+        doAnswer(i -> {
+            realEngine.renderTo(compiled.body(), variables, false, i.<OutputStream>getArgument(3));
+            return null;
+        }).when(renderEngine).renderTo(same(compiled.body()), same(variables), eq(false), any(OutputStream.class));
+        when(executionRepository.save(any())).thenAnswer(i -> i.getArguments()[0]);
+
+        StreamingExecution result = templateService.executeTemplateStreaming("t1", null, List.of("5511999999999"), variables);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        result.body().writeTo(out);
+
+        ArgumentCaptor<NotificationExecution> saved = ArgumentCaptor.forClass(NotificationExecution.class);
+        verify(executionRepository).save(saved.capture());
+        assertEquals(ExecutionStatus.SUCCESS, saved.getValue().getStatus());
+        assertEquals("Oi Ana", saved.getValue().getRenderedSubject());
+        assertNull(saved.getValue().getRenderedContent());
+        assertEquals(variables, saved.getValue().getVariables());
+        assertEquals("Olá Ana", out.toString(StandardCharsets.UTF_8));
+    }
+
     @Test
     @DisplayName("Deve impedir o despacho caso a versão solicitada ainda resida em estado DRAFT")
     void shouldThrowErrorWhenExecutingDraftVersion() {
@@ -89,7 +245,7 @@ class TemplateServiceTest {
                 .id("t1").status(TemplateStatus.ACTIVE).channel(Channel.EMAIL)
                 .orgId("org-test").versions(List.of(draftVersion)).build();
 
-        when(templateRepository.findById("t1")).thenReturn(Optional.of(template));
+        when(publishedVersions.get("t1", "v1")).thenReturn(template);
 
         BusinessException ex = assertThrows(BusinessException.class, () ->
                 templateService.executeTemplate("t1", "v1", List.of("test@test.com"), Map.of())
@@ -105,7 +261,7 @@ class TemplateServiceTest {
         NotificationTemplate archivedTemplate = NotificationTemplate.builder()
                 .id("t1").status(TemplateStatus.ARCHIVED).build();
 
-        when(templateRepository.findById("t1")).thenReturn(Optional.of(archivedTemplate));
+        when(publishedVersions.get("t1", null)).thenReturn(archivedTemplate);
 
         BusinessException ex = assertThrows(BusinessException.class, () ->
                 templateService.executeTemplate("t1", null, List.of(), Map.of())
@@ -127,4 +283,81 @@ class TemplateServiceTest {
         assertEquals(TemplateStatus.ARCHIVED, template.getStatus());
         verify(eventProducer).publish(any(com.vaas.templateengine.domain.event.TemplateArchivedEvent.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Deve rejeitar a publicação de versão com placeholder não declarado no schema")
+    void shouldRejectPublishingUndeclaredPlaceholder() {
+        TemplateVersion draft = TemplateVersion.builder()
+                .id("v1").version(new SemanticVersion(1, 0, 0)).estado(VersionState.DRAFT)
+                .body("Olá {{nome}}, seu código é {{codigo}}")
+                .inputSchema(List.of(new InputVariable("nome", VariableType.STRING, true)))
+                .build();
+
+        NotificationTemplate template = NotificationTemplate.builder()
+                .id("t1").status(TemplateStatus.ACTIVE).channel(Channel.SMS)
+                .versions(new ArrayList<>(List.of(draft))).build();
+
+        when(templateRepository.findById("t1")).thenReturn(Optional.of(template));
+        when(renderEngine.analyze(any(), anyString(), anyList(), any(Locale.class)))
+                .thenAnswer(i -> new RenderEngine().analyze(i.getArgument(0), i.getArgument(1), i.getArgument(2), i.getArgument(3)));
+
+        BusinessException ex = assertThrows(BusinessException.class, () -> templateService.publishVersion("t1", "v1"));
+
+        assertEquals("UNDECLARED_PLACEHOLDER", ex.getCode());
+        assertTrue(ex.getMessage().endsWith("codigo"));
+        assertFalse(draft.isPublished());
+        verify(templateRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Deve executar um lote com uma única escrita e um único evento, preservando a ordem dos itens")
+    void shouldExecuteBatchWithSingleWriteAndEvent() {
+        TemplateVersion publishedVersion = TemplateVersion.builder()
+                .id("v1").version(new SemanticVersion(1, 0, 0))
+                .estado(VersionState.PUBLISHED).body("Olá {{nome}}").build();
+
+        NotificationTemplate template = NotificationTemplate.builder()
+                .id("t1").activePublishedVersionId("v1").status(TemplateStatus.ACTIVE).channel(Channel.SMS)
+                .orgId("org-test").versions(new ArrayList<>(List.of(publishedVersion))).build();
+
+        RenderEngine realEngine = new RenderEngine();
+        CompiledMessage compiled = realEngine.compileMessage("v1", null, "Olá {{nome}}");
+        when(publishedVersions.get("t1", null)).thenReturn(template);
+        when(renderEngine.compileMessage(same(publishedVersion), any(Locale.class))).thenReturn(compiled);
+        when(renderEngine.tryRenderMessage(eq(compiled), anyMap(), anyBoolean()))
+                .thenAnswer(i -> realEngine.tryRenderMessage(compiled, i.getArgument(1), i.getArgument(2)));
+        when(executionRepository.saveAll(anyList())).thenAnswer(i -> i.getArgument(0));
+
+        List<BatchExecutionItem> items = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            items.add(new BatchExecutionItem(List.of("55119" + i), i == 7 ? Map.of() : Map.of("nome", "Cliente " + i)));
+        }
+
+        List<NotificationExecution> result = templateService.executeBatch("t1", null, items);
+
+        assertEquals(50, result.size());
+        assertEquals("Olá Cliente 49", result.get(49).getRenderedContent());
+        assertEquals(ExecutionStatus.VALIDATION_ERROR, result.get(7).getStatus());
+        assertEquals("nome", result.get(7).getErrors().get(0).field());
+        verify(publishedVersions, times(1)).get("t1", null);
+        verify(templateRepository, never()).findById(anyString());
+        verify(executionRepository, times(1)).saveAll(anyList());
+        verify(executionRepository, never()).save(any());
+        ArgumentCaptor<DomainEvent> event = ArgumentCaptor.forClass(DomainEvent.class);
+        verify(eventProducer, times(1)).publish(event.capture());
+        NotificationBatchDispatchedEvent batchEvent = assertInstanceOf(NotificationBatchDispatchedEvent.class, event.getValue());
+        assertEquals(49, batchEvent.successCount());
+        assertEquals(1, batchEvent.errorCount());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar a consulta de uma execução pertencente a outro template")
+    void shouldNotExposeExecutionOfAnotherTemplate() {
+        NotificationExecution execution = NotificationExecution.builder().id("e1").templateId("t1").build();
+        when(executionRepository.findById("e1")).thenReturn(Optional.of(execution));
+
+        assertSame(execution, templateService.getExecution("t1", "e1"));
+        BusinessException ex = assertThrows(BusinessException.class, () -> templateService.getExecution("t2", "e1"));
+        assertEquals("EXECUTION_NOT_FOUND", ex.getCode());
+    }
+}
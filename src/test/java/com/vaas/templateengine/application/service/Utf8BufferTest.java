@@ -0,0 +1,61 @@
+package com.vaas.templateengine.application.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("Buffer de renderização UTF-8 (Utf8Buffer)")
+class Utf8BufferTest {
+
+    @Test
+    @DisplayName("Deve codificar caracteres multibyte e pares substitutos como String.getBytes")
+    void shouldEncodeLikeStringGetBytes() throws Exception {
+        String value = "Olá, € e 😀";
+        Utf8Buffer buffer = new Utf8Buffer(1);
+
+        buffer.writeUtf8(value, false);
+
+        assertArrayEquals(value.getBytes(StandardCharsets.UTF_8), buffer.toByteArray());
+    }
+
+    @Test
+    @DisplayName("Deve aplicar a sanitização HTML durante a codificação")
+    void shouldEscapeWhileEncoding() throws Exception {
+        Utf8Buffer buffer = new Utf8Buffer(16);
+
+        buffer.writeUtf8("<ção & \"x\">", true);
+
+        assertEquals("&lt;ção &amp; &quot;x&quot;&gt;", buffer.toString());
+    }
+
+    @Test
+    @DisplayName("Deve descarregar blocos no destino quando o conteúdo excede o tamanho do bloco")
+    void shouldSpillChunksToOutputStream() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Utf8Buffer buffer = Utf8Buffer.streaming(out, 8);
+
+        buffer.write("literal pré-codificado maior que o bloco".getBytes(StandardCharsets.UTF_8));
+        buffer.writeUtf8(" + valor", false);
+        buffer.flush();
+
+        assertEquals("literal pré-codificado maior que o bloco + valor", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Deve permitir reutilização após clear preservando a capacidade")
+    void shouldBeReusableAfterClear() throws Exception {
+        Utf8Buffer buffer = new Utf8Buffer(4);
+        buffer.writeUtf8("primeiro conteúdo", false);
+
+        buffer.clear();
+        buffer.writeUtf8("segundo", false);
+
+        assertEquals("segundo", buffer.toString());
+        assertEquals(7, buffer.asReadOnlyByteBuffer().remaining());
+    }
+}
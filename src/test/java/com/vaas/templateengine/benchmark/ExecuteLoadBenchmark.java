@@ -0,0 +1,148 @@
+package com.vaas.templateengine.benchmark;
+
+import com.vaas.templateengine.TestcontainersConfiguration;
+import com.vaas.templateengine.application.service.TemplateService;
+import com.vaas.templateengine.domain.model.Channel;
+import com.vaas.templateengine.domain.model.NotificationTemplate;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Benchmark de carga do POST /execute contra MongoDB e Kafka reais (Testcontainers).
+ * Cada subclasse sobe a aplicação em um modo de threads; o resultado (vazão, p50 e p99) é impresso e gravado
+ * em build/load-benchmark/{modo}.txt para comparação entre as execuções.
+ * Excluído do build padrão pela tag "load"; executado com ./gradlew loadTest (requer Docker).
+ * Parâmetros: -Dload.concurrency (clientes simultâneos), -Dload.warmup e -Dload.duration (ISO-8601).
+ */
+@Tag("load")
+@Import(TestcontainersConfiguration.class)
+abstract class ExecuteLoadBenchmark {
+
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 256);
+    private static final Duration WARMUP = Duration.parse(System.getProperty("load.warmup", "PT10S"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("load.duration", "PT30S"));
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TemplateService templateService;
+
+    /**
+     * @return Nome do modo de threads, usado no relatório.
+     */
+    abstract String mode();
+
+    @Test
+    void measureExecuteThroughputAndLatency() throws Exception {
+        NotificationTemplate template = templateService.createTemplate("Load", "Benchmark de carga", Channel.SMS, "org-load", "wp-load", "pt-BR");
+        templateService.publishVersion(template.getId(), template.getVersions().get(0).getId());
+
+        URI uri = URI.create("http://localhost:" + port + "/v1/templates/" + template.getId() + "/execute");
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        run(client, uri, WARMUP);
+        Result result = run(client, uri, DURATION);
+
+        String report = String.format("%s: concorrência=%d, requisições=%d, erros=%d, vazão=%.1f req/s, p50=%.2f ms, p99=%.2f ms%n",
+                mode(), CONCURRENCY, result.requests(), result.errors(), result.throughput(DURATION),
+                result.percentile(0.50), result.percentile(0.99));
+        System.out.print(report);
+        Path output = Path.of("build", "load-benchmark", mode() + ".txt");
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, report);
+
+        assertTrue(result.requests() > 0);
+        assertEquals(0, result.errors());
+    }
+
+    private static Result run(HttpClient client, URI uri, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<Future<long[]>> workers = new ArrayList<>(CONCURRENCY);
+
+        // Clientes em virtual threads: o gerador de carga não deve ser o gargalo em nenhum dos modos
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CONCURRENCY; i++) {
+                int clientId = i;
+                workers.add(executor.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    int sequence = 0;
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = HttpRequest.newBuilder(uri)
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(
+                                        "{\"recipients\":[\"5511" + clientId + "\"],\"variables\":{\"nome\":\"Cliente " + sequence++ + "\"}}"))
+                                .build();
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (IOException e) {
+                            errors.incrementAndGet();
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - start;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+        }
+
+        List<long[]> perClient = new ArrayList<>(CONCURRENCY);
+        for (Future<long[]> worker : workers) {
+            perClient.add(worker.get());
+        }
+        long[] all = perClient.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(all, errors.get());
+    }
+
+    private record Result(long[] sortedLatencies, long errors) {
+
+        long requests() {
+            return sortedLatencies.length;
+        }
+
+        double throughput(Duration duration) {
+            return sortedLatencies.length / (duration.toMillis() / 1000.0);
+        }
+
+        double percentile(double quantile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
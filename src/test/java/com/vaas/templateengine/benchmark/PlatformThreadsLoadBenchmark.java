@@ -0,0 +1,16 @@
+package com.vaas.templateengine.benchmark;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Linha de base: Tomcat e listeners Kafka em threads de plataforma (configuração padrão).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.threads.virtual.enabled=false")
+class PlatformThreadsLoadBenchmark extends ExecuteLoadBenchmark {
+
+    @Override
+    String mode() {
+        return "platform-threads";
+    }
+}
@@ -0,0 +1,17 @@
+package com.vaas.templateengine.benchmark;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Modo de produção com o perfil "virtual": requisições e listeners Kafka em virtual threads.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("virtual")
+class VirtualThreadsLoadBenchmark extends ExecuteLoadBenchmark {
+
+    @Override
+    String mode() {
+        return "virtual-threads";
+    }
+}
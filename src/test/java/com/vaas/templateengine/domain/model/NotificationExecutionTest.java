@@ -0,0 +1,43 @@
+package com.vaas.templateengine.domain.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Entidade: NotificationExecution")
+class NotificationExecutionTest {
+
+    @Test
+    @DisplayName("Deve embutir o instante da execução no identificador")
+    void shouldEmbedExecutionTimeInId() {
+        OffsetDateTime executedOn = OffsetDateTime.of(2026, 10, 31, 23, 59, 59, 999_999_999, ZoneOffset.UTC);
+
+        String id = NotificationExecution.newId(executedOn);
+
+        assertEquals(7, UUID.fromString(id).version());
+        assertEquals(Optional.of(executedOn.toInstant().truncatedTo(ChronoUnit.MILLIS)), NotificationExecution.timestampOf(id));
+    }
+
+    @Test
+    @DisplayName("Deve gerar identificadores distintos para o mesmo instante")
+    void shouldGenerateDistinctIds() {
+        OffsetDateTime executedOn = OffsetDateTime.now();
+
+        assertNotEquals(NotificationExecution.newId(executedOn), NotificationExecution.newId(executedOn));
+    }
+
+    @Test
+    @DisplayName("Não deve extrair instante de identificadores aleatórios ou inválidos")
+    void shouldIgnoreOtherIdFormats() {
+        assertEquals(Optional.<Instant>empty(), NotificationExecution.timestampOf(UUID.randomUUID().toString()));
+        assertEquals(Optional.<Instant>empty(), NotificationExecution.timestampOf("e1"));
+    }
+}
@@ -1,5 +1,6 @@
 package com.vaas.templateengine.infrastructure.messaging;
 
+import com.vaas.templateengine.domain.event.NotificationBatchDispatchedEvent;
 import com.vaas.templateengine.domain.event.NotificationDispatchedEvent;
 import com.vaas.templateengine.domain.event.TemplateCreatedEvent;
 import com.vaas.templateengine.domain.model.TemplateStatsView;
@@ -62,4 +63,19 @@ class NotificationConsumerTest {
                 stats.getTotalSent() == 6 && stats.getSuccessCount() == 1
         ));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Deve aplicar os totais de um lote com uma única atualização da projeção")
+    void shouldUpdateCountersOnBatchEvent() {
+        TemplateStatsView existing = TemplateStatsView.builder()
+                .templateId("id-1").templateName("Teste").totalSent(5).successCount(5).build();
+
+        when(statsRepository.findById("id-1")).thenReturn(Optional.of(existing));
+
+        consumer.consumeNotificationBatchDispatched(new NotificationBatchDispatchedEvent("id-1", 98, 2));
+
+        verify(statsRepository, times(1)).save(argThat(stats ->
+                stats.getTotalSent() == 105 && stats.getSuccessCount() == 103 && stats.getErrorCount() == 2
+        ));
+    }
+}
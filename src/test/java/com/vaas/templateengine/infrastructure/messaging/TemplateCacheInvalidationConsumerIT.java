@@ -0,0 +1,119 @@
+package com.vaas.templateengine.infrastructure.messaging;
+
+import com.vaas.templateengine.application.service.PublishedVersionCache;
+import com.vaas.templateengine.domain.event.TemplateArchivedEvent;
+import com.vaas.templateengine.domain.event.TemplateVersionPublishedEvent;
+import com.vaas.templateengine.domain.event.TemplateVersionUpdatedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.OffsetDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes de integração da invalidação de caches entre instâncias, com um broker Kafka embarcado.
+ */
+@SpringBootTest(classes = TemplateCacheInvalidationConsumerIT.Config.class,
+        properties = "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}")
+@EmbeddedKafka(partitions = 1, topics = {"template-published", "template-archived", "template-version-updated"})
+@DisplayName("Messaging: Invalidação de Cache entre Instâncias")
+class TemplateCacheInvalidationConsumerIT {
+
+    @Configuration
+    @ImportAutoConfiguration(KafkaAutoConfiguration.class)
+    @Import(TemplateCacheInvalidationConsumer.class)
+    static class Config {
+
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager("templates");
+        }
+    }
+
+    @MockitoBean
+    private PublishedVersionCache publishedVersions;
+
+    @Autowired
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry registry;
+
+    private Cache templates;
+
+    @BeforeEach
+    void setUp() {
+        // O grupo próprio da instância consome do fim dos tópicos: os eventos só são enviados após a atribuição
+        for (MessageListenerContainer container : registry.getListenerContainers()) {
+            ContainerTestUtils.waitForAssignment(container, broker.getPartitionsPerTopic() * 3);
+        }
+        templates = cacheManager.getCache("templates");
+        templates.put("t1", "agregado em cache");
+    }
+
+    @Test
+    @DisplayName("Deve invalidar o agregado e o resumo de execução ao receber a publicação de uma versão")
+    void shouldInvalidateCachesOnVersionPublished() {
+        kafkaTemplate.send("template-published", "t1", new TemplateVersionPublishedEvent("t1", OffsetDateTime.now(), "v2"));
+
+        verify(publishedVersions, timeout(10_000)).invalidate("t1");
+        assertNull(templates.get("t1"));
+    }
+
+    @Test
+    @DisplayName("Deve invalidar o agregado e o resumo de execução ao receber o arquivamento")
+    void shouldInvalidateCachesOnTemplateArchived() {
+        kafkaTemplate.send("template-archived", "t1", new TemplateArchivedEvent("t1", OffsetDateTime.now()));
+
+        verify(publishedVersions, timeout(10_000)).invalidate("t1");
+        assertNull(templates.get("t1"));
+    }
+
+    @Test
+    @DisplayName("Deve invalidar apenas o agregado ao receber a edição de um rascunho")
+    void shouldEvictAggregateOnVersionUpdated() throws Exception {
+        kafkaTemplate.send("template-version-updated", "t1", new TemplateVersionUpdatedEvent("t1", OffsetDateTime.now(), "v3"));
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (templates.get("t1") != null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertNull(templates.get("t1"));
+        verify(publishedVersions, never()).invalidate(anyString());
+    }
+
+    @Test
+    @DisplayName("Deve consumir com um grupo exclusivo da instância, para que todas recebam cada evento")
+    void shouldUseInstanceScopedConsumerGroup() {
+        MessageListenerContainer container = registry.getListenerContainers().iterator().next();
+
+        assertTrue(container.getGroupId().startsWith("template-engine-cache-"));
+        assertNotEquals("template-engine-cache-", container.getGroupId());
+    }
+}
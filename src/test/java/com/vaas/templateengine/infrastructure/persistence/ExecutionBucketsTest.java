@@ -0,0 +1,103 @@
+package com.vaas.templateengine.infrastructure.persistence;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.IndexOptions;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Buckets Mensais de Execuções (ExecutionBuckets)")
+class ExecutionBucketsTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+    @Test
+    @DisplayName("Deve gravar no bucket do mês UTC e criar o índice TTL apenas na primeira gravação")
+    @SuppressWarnings("unchecked")
+    void shouldRouteToMonthlyBucket() {
+        MongoCollection<Document> collection = mock(MongoCollection.class);
+        when(mongoTemplate.getDb()).thenReturn(mock(MongoDatabase.class));
+        when(mongoTemplate.getCollection(anyString())).thenReturn(collection);
+        ExecutionBuckets buckets = new ExecutionBuckets(mongoTemplate, true, Duration.ofDays(365), Duration.ofDays(90), "zstd");
+
+        // 31/10 às 22h em São Paulo já é novembro em UTC
+        OffsetDateTime executedOn = OffsetDateTime.of(2026, 10, 31, 22, 0, 0, 0, ZoneOffset.ofHours(-3));
+
+        assertEquals("notification_executions_2026_11", buckets.collectionFor(executedOn));
+        assertEquals("notification_executions_2026_11", buckets.collectionFor(executedOn.plusHours(1)));
+        verify(collection, times(1)).createIndex(any(Bson.class), any(IndexOptions.class));
+    }
+
+    @Test
+    @DisplayName("Deve consultar os buckets do mais recente ao mais antigo e, por último, a coleção anterior")
+    void shouldReadNewestBucketsFirst() {
+        when(mongoTemplate.getCollectionNames()).thenReturn(Set.of(
+                "notification_executions",
+                "notification_executions_2026_08_cold",
+                "notification_executions_2026_10",
+                "notification_executions_2026_08",
+                "notification_executions_backup",
+                "rendered_bodies"));
+        ExecutionBuckets buckets = new ExecutionBuckets(mongoTemplate, true, Duration.ofDays(365), Duration.ofDays(90), "zstd");
+
+        assertEquals(List.of(
+                "notification_executions_2026_10",
+                "notification_executions_2026_08",
+                "notification_executions_2026_08_cold",
+                "notification_executions"), buckets.readOrder());
+    }
+
+    @Test
+    @DisplayName("Deve consultar apenas o bucket do mês do identificador e a coleção anterior")
+    void shouldRouteReadByTimestamp() {
+        ExecutionBuckets buckets = new ExecutionBuckets(mongoTemplate, true, null, Duration.ofDays(90), "zstd");
+
+        assertEquals(List.of(
+                "notification_executions_2026_11",
+                "notification_executions_2026_11_cold",
+                "notification_executions"), buckets.readOrderFor(Instant.parse("2026-11-01T01:00:00Z")));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    @DisplayName("Sem retenção configurada, não deve criar índice TTL nem descartar buckets antigos")
+    @SuppressWarnings("unchecked")
+    void shouldKeepEverythingWithoutRetention() {
+        MongoCollection<Document> collection = mock(MongoCollection.class);
+        when(mongoTemplate.getDb()).thenReturn(mock(MongoDatabase.class));
+        when(mongoTemplate.getCollection(anyString())).thenReturn(collection);
+        when(mongoTemplate.getCollectionNames()).thenReturn(Set.of("notification_executions_2020_01_cold"));
+        ExecutionBuckets buckets = new ExecutionBuckets(mongoTemplate, true, null, Duration.ofDays(90), "zstd");
+
+        buckets.collectionFor(OffsetDateTime.now());
+        buckets.maintain();
+
+        verify(collection, never()).createIndex(any(Bson.class), any(IndexOptions.class));
+        verify(collection).dropIndex(any(Bson.class));
+        verify(collection, never()).drop();
+        assertTrue(buckets.retention().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve manter a coleção única quando o particionamento está desativado")
+    void shouldUseLegacyCollectionWhenDisabled() {
+        ExecutionBuckets buckets = new ExecutionBuckets(mongoTemplate, false, Duration.ofDays(365), Duration.ofDays(90), "zstd");
+
+        assertEquals("notification_executions", buckets.collectionFor(OffsetDateTime.now()));
+        verifyNoInteractions(mongoTemplate);
+    }
+}
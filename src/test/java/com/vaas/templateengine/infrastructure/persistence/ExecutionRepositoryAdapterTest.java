@@ -0,0 +1,99 @@
+package com.vaas.templateengine.infrastructure.persistence;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoSocketReadException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.vaas.templateengine.domain.model.NotificationExecution;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Persistência de Execuções em Buckets (ExecutionRepositoryAdapter)")
+class ExecutionRepositoryAdapterTest {
+
+    private static final OffsetDateTime OCTOBER = OffsetDateTime.of(2026, 10, 31, 23, 59, 59, 0, ZoneOffset.UTC);
+    private static final OffsetDateTime NOVEMBER = OffsetDateTime.of(2026, 11, 1, 0, 0, 1, 0, ZoneOffset.UTC);
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final RenderedBodyStore bodyStore = mock(RenderedBodyStore.class);
+    private final ExecutionBuckets buckets = mock(ExecutionBuckets.class);
+    private final BulkOperations october = mock(BulkOperations.class);
+    private final BulkOperations november = mock(BulkOperations.class);
+    private final ExecutionRepositoryAdapter adapter = new ExecutionRepositoryAdapter(mongoTemplate, bodyStore, buckets);
+
+    @BeforeEach
+    void setUp() {
+        when(bodyStore.externalize(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(buckets.collectionFor(OCTOBER)).thenReturn("notification_executions_2026_10");
+        when(buckets.collectionFor(NOVEMBER)).thenReturn("notification_executions_2026_11");
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NotificationExecution.class, "notification_executions_2026_10"))
+                .thenReturn(october);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NotificationExecution.class, "notification_executions_2026_11"))
+                .thenReturn(november);
+        when(october.insert(anyList())).thenReturn(october);
+        when(november.insert(anyList())).thenReturn(november);
+    }
+
+    @Test
+    @DisplayName("Deve reportar apenas os registros que falharam em um lote que atravessa a virada do mês")
+    void shouldReportOnlyFailedIndexesAcrossMonths() {
+        List<NotificationExecution> batch = List.of(
+                execution("e0", OCTOBER), execution("e1", NOVEMBER), execution("e2", OCTOBER), execution("e3", NOVEMBER));
+        // O índice 1 do bucket de novembro corresponde ao registro e3 do lote recebido
+        when(november.execute()).thenThrow(bulkFailure(new BulkWriteError(121, "Document failed validation", new BsonDocument(), 1)));
+
+        BulkOperationException exception = assertThrows(BulkOperationException.class, () -> adapter.saveAll(batch));
+
+        assertEquals(List.of(3), exception.getErrors().stream().map(BulkWriteError::getIndex).toList());
+        assertEquals(121, exception.getErrors().get(0).getCode());
+        verify(october).insert(List.of(batch.get(0), batch.get(2)));
+        verify(november).insert(List.of(batch.get(1), batch.get(3)));
+    }
+
+    @Test
+    @DisplayName("Deve marcar como falho apenas o bucket indisponível quando o outro já foi gravado")
+    void shouldReportWholeBucketFailureWithOriginalIndexes() {
+        List<NotificationExecution> batch = List.of(execution("e0", NOVEMBER), execution("e1", OCTOBER), execution("e2", NOVEMBER));
+        when(october.execute()).thenThrow(new MongoSocketReadException("Conexão encerrada", new ServerAddress()));
+
+        BulkOperationException exception = assertThrows(BulkOperationException.class, () -> adapter.saveAll(batch));
+
+        assertEquals(List.of(1), exception.getErrors().stream().map(BulkWriteError::getIndex).toList());
+        assertEquals(ExecutionRepositoryAdapter.UNKNOWN_ERROR, exception.getErrors().get(0).getCode());
+        verify(november).execute();
+    }
+
+    @Test
+    @DisplayName("Deve propagar a falha original quando nenhum bucket foi gravado")
+    void shouldPropagateFailureWhenNothingWasWritten() {
+        List<NotificationExecution> batch = List.of(execution("e0", OCTOBER), execution("e1", NOVEMBER));
+        MongoSocketReadException failure = new MongoSocketReadException("Conexão encerrada", new ServerAddress());
+        when(october.execute()).thenThrow(failure);
+        when(november.execute()).thenThrow(new MongoSocketReadException("Conexão encerrada", new ServerAddress()));
+
+        assertSame(failure, assertThrows(MongoSocketReadException.class, () -> adapter.saveAll(batch)));
+    }
+
+    private static BulkOperationException bulkFailure(BulkWriteError... errors) {
+        MongoBulkWriteException source = mock(MongoBulkWriteException.class);
+        when(source.getWriteErrors()).thenReturn(List.of(errors));
+        return new BulkOperationException("Falha no insert", source);
+    }
+
+    private static NotificationExecution execution(String id, OffsetDateTime executedOn) {
+        return NotificationExecution.builder().id(id).executedOn(executedOn).build();
+    }
+}
@@ -0,0 +1,222 @@
+package com.vaas.templateengine.infrastructure.persistence;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoSocketReadException;
+import com.mongodb.MongoTimeoutException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.InsertManyOptions;
+import com.vaas.templateengine.domain.model.NotificationExecution;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Spool da Auditoria no MongoDB (ExecutionSpool)")
+class ExecutionSpoolTest {
+
+    private static final String BUCKET = "notification_executions_2026_10";
+
+    @TempDir
+    Path directory;
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final ExecutionBuckets buckets = mock(ExecutionBuckets.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @SuppressWarnings("unchecked")
+    private final MongoCollection<Document> collection = mock(MongoCollection.class);
+    @SuppressWarnings("unchecked")
+    private final MongoCollection<RawBsonDocument> rawCollection = mock(MongoCollection.class);
+    private ExecutionSpool spool;
+
+    @BeforeEach
+    void setUp() {
+        MongoDatabase database = mock(MongoDatabase.class);
+        MongoConverter converter = mock(MongoConverter.class);
+        when(mongoTemplate.getDb()).thenReturn(database);
+        when(database.getCodecRegistry()).thenReturn(MongoClientSettings.getDefaultCodecRegistry());
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        doAnswer(i -> {
+            NotificationExecution execution = i.getArgument(0);
+            Document document = i.getArgument(1);
+            document.put("_id", execution.getId());
+            document.put("executedOn", Date.from(execution.getExecutedOn().toInstant()));
+            return null;
+        }).when(converter).write(any(), any());
+        when(buckets.collectionFor(any())).thenReturn(BUCKET);
+        when(mongoTemplate.getCollection(BUCKET)).thenReturn(collection);
+        when(collection.withDocumentClass(RawBsonDocument.class)).thenReturn(rawCollection);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (spool != null) {
+            spool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve recusar a inicialização sem diretório configurado")
+    void shouldRequireDirectory() {
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> new ExecutionSpool(mongoTemplate, buckets,
+                meterRegistry, " ", 1 << 20, Duration.ofMillis(200), 100, Duration.ofMillis(10)));
+        assertTrue(ex.getMessage().contains("spool.directory"));
+    }
+
+    @Test
+    @DisplayName("Deve reenviar os registros ao bucket do executedOn e esvaziar o spool")
+    void shouldDrainRecordsToBucket() throws Exception {
+        spool = create();
+
+        spool.append(List.of(execution("e1"), execution("e2")));
+
+        await(() -> pending() == 0);
+        verify(rawCollection).insertMany(argThat(documents -> documents.size() == 2
+                && documents.get(0).getString("_id").getValue().equals("e1")), any(InsertManyOptions.class));
+        assertEquals(2, meterRegistry.counter("notifications.execution.audit.spool.drained").count());
+    }
+
+    @Test
+    @DisplayName("Deve considerar entregues os registros já gravados antes do checkpoint (chave duplicada)")
+    void shouldTreatDuplicateKeysAsDelivered() throws Exception {
+        MongoBulkWriteException duplicate = bulkFailure(new BulkWriteError(11000, "duplicate key", new BsonDocument(), 0));
+        when(rawCollection.insertMany(anyList(), any(InsertManyOptions.class))).thenThrow(duplicate);
+        spool = create();
+
+        spool.append(List.of(execution("e1")));
+
+        await(() -> pending() == 0);
+        assertFalse(Files.exists(directory.resolve(ExecutionSpool.DEAD_LETTER)));
+        assertEquals(1, meterRegistry.counter("notifications.execution.audit.spool.drained").count());
+    }
+
+    @Test
+    @DisplayName("Deve mover para o dead-letter apenas o registro recusado de forma permanente, sem bloquear o spool")
+    void shouldDeadLetterPermanentlyRejectedRecord() throws Exception {
+        MongoBulkWriteException invalid = bulkFailure(
+                new BulkWriteError(121, "Document failed validation", new BsonDocument(), 1),
+                new BulkWriteError(11000, "duplicate key", new BsonDocument(), 2));
+        when(rawCollection.insertMany(anyList(), any(InsertManyOptions.class))).thenThrow(invalid).thenReturn(null);
+        spool = create();
+
+        spool.append(List.of(execution("e1"), execution("e2"), execution("e3")));
+        await(() -> pending() == 0);
+        spool.append(List.of(execution("e4")));
+        await(() -> pending() == 0);
+
+        List<String> deadLettered = readDeadLetter();
+        assertEquals(List.of("e2"), deadLettered);
+        assertEquals(1, meterRegistry.counter("notifications.execution.audit.spool.dead_lettered").count());
+        assertEquals(3, meterRegistry.counter("notifications.execution.audit.spool.drained").count());
+        assertFalse(spool.isDegraded());
+    }
+
+    @Test
+    @DisplayName("Deve manter o lote no spool em falhas transitórias e reenviá-lo na recuperação")
+    void shouldRetryBatchOnTransientFailure() throws Exception {
+        when(rawCollection.insertMany(anyList(), any(InsertManyOptions.class)))
+                .thenThrow(new MongoSocketReadException("Conexão encerrada", new ServerAddress()))
+                .thenReturn(null);
+        spool = create();
+
+        spool.append(List.of(execution("e1")));
+
+        await(() -> pending() == 0);
+        verify(rawCollection, times(2)).insertMany(anyList(), any(InsertManyOptions.class));
+        assertFalse(Files.exists(directory.resolve(ExecutionSpool.DEAD_LETTER)));
+        await(() -> !spool.isDegraded());
+    }
+
+    @Test
+    @DisplayName("Deve sair da degradação quando o ping com o spool vazio responder dentro do limite")
+    void shouldRecoverWhenProbeSucceeds() throws Exception {
+        when(mongoTemplate.executeCommand("{ ping: 1 }"))
+                .thenThrow(new MongoTimeoutException("Servidor indisponível"))
+                .thenReturn(new Document("ok", 1));
+        spool = create();
+
+        spool.markDegraded();
+
+        await(() -> !spool.isDegraded());
+        verify(mongoTemplate, atLeast(2)).executeCommand("{ ping: 1 }");
+    }
+
+    @Test
+    @DisplayName("Deve reenviar na reinicialização os registros pendentes de uma execução anterior")
+    void shouldDrainPendingRecordsAfterRestart() throws Exception {
+        when(rawCollection.insertMany(anyList(), any(InsertManyOptions.class)))
+                .thenThrow(new MongoTimeoutException("Servidor indisponível"));
+        spool = create();
+        spool.append(List.of(execution("e1"), execution("e2")));
+        spool.shutdown();
+
+        reset(rawCollection);
+        spool = create();
+
+        await(() -> pending() == 0);
+        verify(rawCollection).insertMany(argThat(documents -> documents.size() == 2), any(InsertManyOptions.class));
+    }
+
+    private ExecutionSpool create() throws Exception {
+        return new ExecutionSpool(mongoTemplate, buckets, meterRegistry, directory.toString(), 1 << 20,
+                Duration.ofMillis(200), 100, Duration.ofMillis(10));
+    }
+
+    private double pending() {
+        return meterRegistry.get("notifications.execution.audit.spool.pending").gauge().value();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condição não atingida no tempo limite");
+            Thread.sleep(10);
+        }
+    }
+
+    private static MongoBulkWriteException bulkFailure(BulkWriteError... errors) {
+        MongoBulkWriteException exception = mock(MongoBulkWriteException.class);
+        when(exception.getWriteErrors()).thenReturn(List.of(errors));
+        return exception;
+    }
+
+    private List<String> readDeadLetter() throws Exception {
+        ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(directory.resolve(ExecutionSpool.DEAD_LETTER)));
+        List<String> ids = new ArrayList<>();
+        while (content.hasRemaining()) {
+            int length = Integer.reverseBytes(content.getInt(content.position()));
+            byte[] document = new byte[length];
+            content.get(document);
+            ids.add(new RawBsonDocument(document).getString("_id").getValue());
+        }
+        return ids;
+    }
+
+    private static NotificationExecution execution(String id) {
+        return NotificationExecution.builder().id(id).executedOn(OffsetDateTime.now()).build();
+    }
+}
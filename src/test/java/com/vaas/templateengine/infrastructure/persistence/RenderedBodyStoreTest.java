@@ -0,0 +1,125 @@
+package com.vaas.templateengine.infrastructure.persistence;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.IndexOptions;
+import com.vaas.templateengine.domain.model.NotificationExecution;
+import com.vaas.templateengine.shared.exception.BusinessException;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Corpos Endereçados por Conteúdo (RenderedBodyStore)")
+class RenderedBodyStoreTest {
+
+    private static final String BODY = "Olá, confira as ofertas da semana. ".repeat(100);
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final BulkOperations bulk = mock(BulkOperations.class);
+    private final ExecutionBuckets buckets = mock(ExecutionBuckets.class);
+    private final RenderedBodyStore store = new RenderedBodyStore(mongoTemplate, buckets, 1024, true, 100, 1_000_000,
+            Duration.ofDays(1));
+
+    @Test
+    @DisplayName("Deve gravar um corpo repetido uma única vez e manter apenas a referência nas execuções")
+    void shouldStoreRepeatedBodyOnce() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RenderedBody.class)).thenReturn(bulk);
+
+        List<NotificationExecution> first = store.externalize(List.of(execution("e1", BODY), execution("e2", BODY)));
+        List<NotificationExecution> second = store.externalize(List.of(execution("e3", BODY)));
+
+        String hash = RenderedBodyStore.hash(BODY);
+        assertEquals(hash, first.get(0).getRenderedContentRef());
+        assertNull(first.get(1).getRenderedContent());
+        assertEquals(hash, second.get(0).getRenderedContentRef());
+        // Um upsert no primeiro lote; o segundo reconhece o corpo já gravado
+        verify(bulk, times(1)).upsert(any(Query.class), any(Update.class));
+        verify(bulk, times(1)).execute();
+    }
+
+    @Test
+    @DisplayName("Deve manter no registro a primeira ocorrência de um corpo e referenciá-lo quando se repetir")
+    void shouldExternalizeOnlyRepeatedBodies() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RenderedBody.class)).thenReturn(bulk);
+        NotificationExecution first = execution("e1", BODY);
+
+        assertSame(first, store.externalize(List.of(first)).get(0));
+        verifyNoInteractions(mongoTemplate);
+
+        NotificationExecution repeated = store.externalize(List.of(execution("e2", BODY))).get(0);
+        assertEquals(RenderedBodyStore.hash(BODY), repeated.getRenderedContentRef());
+        assertNull(repeated.getRenderedContent());
+        verify(bulk, times(1)).execute();
+    }
+
+    @Test
+    @DisplayName("Deve gravar o corpo com expiração além da retenção das execuções e criar o índice TTL")
+    @SuppressWarnings("unchecked")
+    void shouldExpireBodiesAfterRetention() {
+        MongoCollection<Document> collection = mock(MongoCollection.class);
+        when(buckets.retention()).thenReturn(Optional.of(Duration.ofDays(30)));
+        when(mongoTemplate.getCollection("rendered_bodies")).thenReturn(collection);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RenderedBody.class)).thenReturn(bulk);
+        RenderedBodyStore expiring = new RenderedBodyStore(mongoTemplate, buckets, 1024, true, 100, 1_000_000,
+                Duration.ofDays(1));
+
+        expiring.externalize(List.of(execution("e1", BODY), execution("e2", BODY)));
+
+        verify(collection).createIndex(any(Bson.class), argThat((IndexOptions options) ->
+                options.getExpireAfter(TimeUnit.SECONDS) == 0L));
+        verify(bulk).upsert(any(Query.class), argThat((Update update) ->
+                update.getUpdateObject().containsKey("$max")
+                        && ((Document) update.getUpdateObject().get("$max")).containsKey("expiresAt")));
+    }
+
+    @Test
+    @DisplayName("Deve informar conteúdo expirado quando o corpo referenciado já foi removido")
+    void shouldReportExpiredContent() {
+        NotificationExecution stored = NotificationExecution.builder().id("e1").renderedContentRef("removido").build();
+
+        BusinessException ex = assertThrows(BusinessException.class, () -> store.rehydrate(stored));
+        assertEquals("EXECUTION_CONTENT_EXPIRED", ex.getCode());
+    }
+
+    @Test
+    @DisplayName("Deve manter no registro os corpos abaixo do tamanho mínimo")
+    void shouldKeepSmallBodiesInline() {
+        NotificationExecution execution = execution("e1", "Olá Maria");
+
+        assertSame(execution, store.externalize(List.of(execution)).get(0));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    @DisplayName("Deve reconstituir o corpo comprimido na leitura")
+    void shouldRehydrateCompressedBody() {
+        String hash = RenderedBodyStore.hash(BODY);
+        RenderedBody body = store.encode(hash, BODY);
+        assertEquals(RenderedBodyStore.GZIP, body.encoding());
+        assertTrue(body.data().length < BODY.length());
+        when(mongoTemplate.findById(hash, RenderedBody.class)).thenReturn(body);
+
+        NotificationExecution stored = NotificationExecution.builder().id("e1").renderedContentRef(hash).build();
+
+        assertEquals(BODY, store.rehydrate(stored).getRenderedContent());
+        assertEquals(BODY, store.rehydrate(stored).getRenderedContent());
+        verify(mongoTemplate, times(1)).findById(hash, RenderedBody.class);
+    }
+
+    private static NotificationExecution execution(String id, String content) {
+        return NotificationExecution.builder().id(id).renderedContent(content).build();
+    }
+}
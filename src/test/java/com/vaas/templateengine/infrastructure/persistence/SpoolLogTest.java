@@ -0,0 +1,95 @@
+package com.vaas.templateengine.infrastructure.persistence;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Spool Local de Auditoria (SpoolLog)")
+class SpoolLogTest {
+
+    private static final int SEGMENT_SIZE = 64;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Deve retomar do checkpoint após a reabertura e remover segmentos consumidos")
+    void shouldResumeFromCheckpoint() throws Exception {
+        List<byte[]> records = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            records.add(bytes("registro-" + i));
+        }
+
+        try (SpoolLog log = new SpoolLog(directory, SEGMENT_SIZE)) {
+            log.append(records);
+            assertTrue(segments().size() > 1);
+
+            SpoolLog.Batch batch = log.read(4);
+            assertEquals("registro-3", text(batch.records().get(3)));
+            log.commit(batch);
+        }
+
+        try (SpoolLog log = new SpoolLog(directory, SEGMENT_SIZE)) {
+            assertEquals(6, log.pending());
+            SpoolLog.Batch batch = log.read(100);
+            assertEquals(6, batch.records().size());
+            assertEquals("registro-4", text(batch.records().get(0)));
+
+            log.commit(batch);
+            assertEquals(0, log.pending());
+            assertEquals(1, segments().size());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve descartar um registro corrompido no fim do log e continuar gravando após o último válido")
+    void shouldDiscardTornRecord() throws Exception {
+        try (SpoolLog log = new SpoolLog(directory, SEGMENT_SIZE)) {
+            log.append(List.of(bytes("ok-1"), bytes("ok-2")));
+        }
+        corrupt(segments().get(0), "ok-2");
+
+        try (SpoolLog log = new SpoolLog(directory, SEGMENT_SIZE)) {
+            assertEquals(1, log.pending());
+            log.append(List.of(bytes("ok-3")));
+        }
+
+        try (SpoolLog log = new SpoolLog(directory, SEGMENT_SIZE)) {
+            List<byte[]> records = log.read(10).records();
+            assertEquals(List.of("ok-1", "ok-3"), records.stream().map(SpoolLogTest::text).toList());
+        }
+    }
+
+    private List<Path> segments() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+    }
+
+    private static void corrupt(Path segment, String payload) throws Exception {
+        int position = new String(Files.readAllBytes(segment), StandardCharsets.ISO_8859_1).indexOf(payload);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(bytes("X")), position);
+        }
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(byte[] record) {
+        return new String(record, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,188 @@
+package com.vaas.templateengine.infrastructure.persistence;
+
+import com.vaas.templateengine.domain.model.NotificationExecution;
+import com.vaas.templateengine.infrastructure.persistence.WriteBehindExecutionRepository.Durability;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Gravação Diferida da Auditoria (WriteBehindExecutionRepository)")
+class WriteBehindExecutionRepositoryTest {
+
+    private final ExecutionRepositoryAdapter delegate = mock(ExecutionRepositoryAdapter.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private WriteBehindExecutionRepository repository;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        repository.shutdown();
+    }
+
+    @Test
+    @DisplayName("Deve agrupar gravações concorrentes em um único insert e aguardar a gravação")
+    void shouldGroupConcurrentSaves() throws Exception {
+        repository = create(Durability.WAIT_FOR_FLUSH, 10, 3, Duration.ofSeconds(5), 1);
+
+        List<Future<NotificationExecution>> results = new ArrayList<>();
+        try (ExecutorService callers = Executors.newFixedThreadPool(3)) {
+            for (int i = 0; i < 3; i++) {
+                NotificationExecution execution = execution("e" + i);
+                results.add(callers.submit(() -> repository.save(execution)));
+            }
+            for (Future<NotificationExecution> result : results) {
+                assertNotNull(result.get(5, TimeUnit.SECONDS));
+            }
+        }
+
+        verify(delegate, times(1)).saveAll(argThat(batch -> batch.size() == 3));
+        verify(delegate, never()).save(any());
+        assertEquals(3, meterRegistry.summary("notifications.execution.audit.batch_size").totalAmount());
+    }
+
+    @Test
+    @DisplayName("Deve propagar ao chamador a falha de gravação em WAIT_FOR_FLUSH")
+    void shouldPropagateFlushFailure() {
+        repository = create(Durability.WAIT_FOR_FLUSH, 10, 10, Duration.ZERO, 1);
+        when(delegate.saveAll(anyList())).thenThrow(new DataAccessResourceFailureException("mongo indisponível"));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> repository.save(execution("e1")));
+        assertEquals(1, meterRegistry.counter("notifications.execution.audit.failed").count());
+    }
+
+    @Test
+    @DisplayName("Deve falhar o chamador e manter o writer ativo quando a gravação lança um Error")
+    void shouldFailCallerAndKeepWriterOnError() {
+        repository = create(Durability.WAIT_FOR_FLUSH, 10, 10, Duration.ZERO, 1);
+        when(delegate.saveAll(anyList())).thenThrow(new OutOfMemoryError("heap")).thenAnswer(i -> i.getArgument(0));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> repository.save(execution("e1")));
+        NotificationExecution execution = execution("e2");
+        assertSame(execution, repository.save(execution));
+        assertEquals(1, meterRegistry.counter("notifications.execution.audit.failed").count());
+    }
+
+    @Test
+    @DisplayName("Deve limitar a espera pela gravação a flush-timeout")
+    void shouldTimeOutStuckFlush() {
+        repository = new WriteBehindExecutionRepository(delegate, Optional.empty(), meterRegistry, Durability.WAIT_FOR_FLUSH,
+                10, 10, Duration.ZERO, Duration.ofMillis(50), Duration.ofMillis(100), 1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.saveAll(anyList())).thenAnswer(i -> {
+            release.await();
+            return i.getArgument(0);
+        });
+
+        assertThrows(QueryTimeoutException.class, () -> repository.save(execution("e1")));
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Deve gravar diretamente no MongoDB as chamadas posteriores ao desligamento")
+    void shouldSaveDirectlyAfterShutdown() throws Exception {
+        repository = create(Durability.WAIT_FOR_FLUSH, 10, 10, Duration.ZERO, 1);
+        repository.shutdown();
+
+        NotificationExecution execution = execution("e1");
+        repository.save(execution);
+
+        verify(delegate).save(execution);
+        verify(delegate, never()).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Deve responder ao enfileirar em ACK_ON_ENQUEUE e gravar os pendentes no desligamento")
+    void shouldAcknowledgeOnEnqueue() throws Exception {
+        repository = create(Durability.ACK_ON_ENQUEUE, 10, 10, Duration.ZERO, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.saveAll(anyList())).thenAnswer(i -> {
+            release.await();
+            return i.getArgument(0);
+        });
+
+        NotificationExecution execution = execution("e1");
+        assertSame(execution, repository.save(execution));
+
+        release.countDown();
+        repository.shutdown();
+        verify(delegate).saveAll(List.of(execution));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar a gravação quando a fila permanece cheia")
+    void shouldRejectWhenQueueIsFull() {
+        repository = create(Durability.ACK_ON_ENQUEUE, 1, 1, Duration.ZERO, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.saveAll(anyList())).thenAnswer(i -> {
+            release.await();
+            return i.getArgument(0);
+        });
+
+        repository.save(execution("e1"));
+        // O único writer está ocupado com o primeiro registro; o segundo ocupa a única posição da fila
+        verify(delegate, timeout(1000)).saveAll(anyList());
+        repository.save(execution("e2"));
+
+        assertThrows(RejectedExecutionException.class, () -> repository.save(execution("e3")));
+        assertEquals(1, meterRegistry.counter("notifications.execution.audit.rejected").count());
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Deve desviar o lote para o spool quando a gravação no MongoDB falha")
+    void shouldSpoolWhenMongoFails() {
+        ExecutionSpool spool = mock(ExecutionSpool.class);
+        repository = new WriteBehindExecutionRepository(delegate, Optional.of(spool), meterRegistry, Durability.WAIT_FOR_FLUSH,
+                10, 10, Duration.ZERO, Duration.ofMillis(50), Duration.ofSeconds(5), 1);
+        when(delegate.saveAll(anyList())).thenThrow(new DataAccessResourceFailureException("mongo indisponível"));
+
+        NotificationExecution execution = execution("e1");
+        assertSame(execution, repository.save(execution));
+
+        verify(spool).markDegraded();
+        verify(spool).append(List.of(execution));
+        assertEquals(1, meterRegistry.counter("notifications.execution.audit.spooled").count());
+        assertEquals(0, meterRegistry.counter("notifications.execution.audit.failed").count());
+    }
+
+    @Test
+    @DisplayName("Deve gravar diretamente no spool enquanto o MongoDB estiver degradado")
+    void shouldBypassMongoWhileDegraded() {
+        ExecutionSpool spool = mock(ExecutionSpool.class);
+        when(spool.isDegraded()).thenReturn(true);
+        repository = new WriteBehindExecutionRepository(delegate, Optional.of(spool), meterRegistry, Durability.WAIT_FOR_FLUSH,
+                10, 10, Duration.ZERO, Duration.ofMillis(50), Duration.ofSeconds(5), 1);
+
+        NotificationExecution execution = execution("e1");
+        repository.save(execution);
+
+        verify(spool).append(List.of(execution));
+        verify(delegate, never()).saveAll(anyList());
+    }
+
+    private WriteBehindExecutionRepository create(Durability durability, int capacity, int batchSize, Duration maxDelay, int writers) {
+        return new WriteBehindExecutionRepository(delegate, Optional.empty(), meterRegistry, durability, capacity, batchSize, maxDelay,
+                Duration.ofMillis(50), Duration.ofSeconds(5), writers);
+    }
+
+    private static NotificationExecution execution(String id) {
+        return NotificationExecution.builder().id(id).build();
+    }
+}
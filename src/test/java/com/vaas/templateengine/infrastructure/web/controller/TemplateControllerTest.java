@@ -2,8 +2,12 @@ package com.vaas.templateengine.infrastructure.web.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.vaas.templateengine.application.dto.TemplateMapper;
+import com.vaas.templateengine.application.service.ExecutionJobService;
+import com.vaas.templateengine.application.service.StreamingExecution;
 import com.vaas.templateengine.application.service.TemplateService;
 import com.vaas.templateengine.domain.model.Channel;
+import com.vaas.templateengine.domain.model.ExecutionStatus;
+import com.vaas.templateengine.domain.model.NotificationExecution;
 import com.vaas.templateengine.domain.model.NotificationTemplate;
 import com.vaas.templateengine.domain.model.TemplateStatus;
 import com.vaas.templateengine.domain.port.NotificationTemplateRepository;
@@ -16,15 +20,22 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
  * Testes de contrato da API REST.
@@ -44,6 +55,9 @@ class TemplateControllerTest {
     @MockitoBean
     private TemplateService templateService;
 
+    @MockitoBean
+    private ExecutionJobService jobService;
+
     @MockitoBean
     private TemplateMapper mapper;
 
@@ -60,17 +74,17 @@ class TemplateControllerTest {
     @DisplayName("Deve retornar 201 Created ao provisionar um novo recurso de template")
     void shouldCreateTemplate() throws Exception {
         TemplateMapper.CreateTemplateRequest request = new TemplateMapper.CreateTemplateRequest(
-                "Welcome", "Desc", Channel.EMAIL, "org-1", "wp-1"
+                "Welcome", "Desc", Channel.EMAIL, "org-1", "wp-1", "pt-BR"
         );
 
         NotificationTemplate template = NotificationTemplate.builder()
                 .id("uuid-123").name("Welcome").status(TemplateStatus.ACTIVE).build();
 
         TemplateMapper.TemplateResponse response = new TemplateMapper.TemplateResponse(
-                "uuid-123", "Welcome", "Desc", Channel.EMAIL.name(), "ACTIVE", OffsetDateTime.now(), null
+                "uuid-123", "Welcome", "Desc", Channel.EMAIL.name(), "ACTIVE", "pt-BR", OffsetDateTime.now(), null
         );
 
-        when(templateService.createTemplate(anyString(), anyString(), any(), anyString(), anyString())).thenReturn(template);
+        when(templateService.createTemplate(anyString(), anyString(), any(), anyString(), anyString(), anyString())).thenReturn(template);
         when(mapper.toResponse(any())).thenReturn(response);
 
         mockMvc.perform(post("/v1/templates")
@@ -92,7 +106,7 @@ class TemplateControllerTest {
     @DisplayName("Deve retornar 200 OK ao localizar um template por identificador único")
     void shouldReturn200WhenTemplateExists() throws Exception {
         TemplateMapper.TemplateResponse response = new TemplateMapper.TemplateResponse(
-                "uuid-123", "Welcome", "Desc", "EMAIL", "ACTIVE", OffsetDateTime.now(), null
+                "uuid-123", "Welcome", "Desc", "EMAIL", "ACTIVE", "pt-BR", OffsetDateTime.now(), null
         );
 
         when(templateService.getById("uuid-123")).thenReturn(NotificationTemplate.builder().build());
@@ -102,4 +116,51 @@ class TemplateControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value("uuid-123"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Deve transmitir o conteúdo renderizado em modo streaming com metadados nos cabeçalhos")
+    void shouldStreamRenderedContent() throws Exception {
+        NotificationExecution execution = NotificationExecution.builder()
+                .id("exec-1").renderedSubject("Pedido nº 1").status(ExecutionStatus.SUCCESS).build();
+
+        when(templateService.executeTemplateStreaming(eq("uuid-123"), any(), any(), any()))
+                .thenReturn(new StreamingExecution(execution, Channel.EMAIL,
+                        out -> out.write("<p>Olá</p>".getBytes(StandardCharsets.UTF_8))));
+
+        MvcResult result = mockMvc.perform(post("/v1/templates/uuid-123/execute")
+                        .param("stream", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"recipients\": [\"a@b.com\"], \"variables\": {}}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Execution-Id", "exec-1"))
+                .andExpect(header().string("X-Execution-Status", "SUCCESS"))
+                .andExpect(header().string("X-Rendered-Subject", "Pedido%20n%C2%BA%201"))
+                .andExpect(content().string("<p>Olá</p>"));
+    }
+
+    @Test
+    @DisplayName("Deve retornar 400 Bad Request ao receber um lote sem itens")
+    void shouldRejectEmptyBatch() throws Exception {
+        mockMvc.perform(post("/v1/templates/uuid-123/execute/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"items\": []}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("VALIDATION_ERROR"));
+    }
+
+    @Test
+    @DisplayName("Deve retornar 429 Too Many Requests quando a fila de jobs assíncronos está cheia")
+    void shouldReturn429WhenJobQueueIsFull() throws Exception {
+        when(jobService.submit(eq("uuid-123"), any(), any())).thenThrow(new RejectedExecutionException("fila cheia"));
+
+        mockMvc.perform(post("/v1/templates/uuid-123/execute/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"items\": [{\"recipients\": [\"a@b.com\"], \"variables\": {\"nome\": \"Ana\"}}]}"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.code").value("EXECUTION_QUEUE_FULL"));
+    }
+}